@@ -0,0 +1,182 @@
+package com.github.lucbui.processor;
+
+import com.github.lucbui.annotations.DataStructure;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An annotation processor which generates a Hexer for each @DataStructure class.
+ *
+ * For a class Foo, a FooHexer is generated in the same package, with a HEXER constant. It reads and writes each
+ * @Offset field directly, at its fixed offset, and calls the class's public @AfterRead and @BeforeWrite methods,
+ * so no reflection is needed at runtime. Each field's own hexer is the HEXER constant of its type, or the generated
+ * Hexer of a nested @DataStructure.
+ *
+ * Every package with generated Hexers also gets a GeneratedHexers FrameworkFactory, which registers them all:
+ * <code>
+ *     HexFramework.init(path).frameworkFactory(new GeneratedHexers())
+ * </code>
+ *
+ * Classes which can't be handled at compile time, such as those with configuration-based offsets, private fields,
+ * or @PointerFields, are skipped with a warning. They continue to be read by the framework's pipeline.
+ */
+@SupportedAnnotationTypes("com.github.lucbui.annotations.DataStructure")
+public class DataStructureProcessor extends AbstractProcessor {
+
+    /**
+     * The simple name of the registry generated in each package.
+     */
+    public static final String REGISTRY_NAME = "GeneratedHexers";
+
+    private static final String HEXER_CONSTANT = "HEXER";
+
+    //Generated Hexers whose package's registry hasn't been written yet.
+    private final Map<String, List<StructureModel>> generatedByPackage = new TreeMap<>();
+    private final Set<String> registeredPackages = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if(roundEnv.processingOver()){
+            //Only reached if the registries couldn't be written in an earlier round. Sources written now aren't
+            //processed, so javac warns about them.
+            writeRegistries();
+            return false;
+        }
+        Map<TypeElement, StructureModel> models = new LinkedHashMap<>();
+        for(Element element : roundEnv.getElementsAnnotatedWith(DataStructure.class)){
+            if(!(element instanceof TypeElement)){
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<String> problems = new ArrayList<>();
+            StructureModel model = StructureModel.parse(type, processingEnv, problems);
+            if(model == null){
+                skip(type, problems);
+            } else {
+                models.put(type, model);
+            }
+        }
+        resolveHexers(models);
+        for(StructureModel model : models.values()){
+            writeSource(model.getQualifiedHexerName(), HexerSourceWriter.writeHexer(model), model.getType());
+            if(registeredPackages.contains(model.getPackageName())){
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        REGISTRY_NAME + " for " + model.getPackageName() + " was already written, so it doesn't include " +
+                                model.getQualifiedHexerName() + ". Register it manually.", model.getType());
+            } else {
+                generatedByPackage.computeIfAbsent(model.getPackageName(), k -> new ArrayList<>()).add(model);
+            }
+        }
+        //Writing a Hexer starts another round, so the registries wait for the first round with no new structures.
+        //That is normally the round which compiles the generated Hexers, so the registries are compiled in the next.
+        if(models.isEmpty()){
+            writeRegistries();
+        }
+        return false;
+    }
+
+    //Resolve every field's hexer. A structure is dropped if any field can't be resolved, which may in turn
+    //drop structures which nest it, so this repeats until nothing changes.
+    private void resolveHexers(Map<TypeElement, StructureModel> models){
+        boolean changed = true;
+        while(changed){
+            changed = false;
+            for(Iterator<StructureModel> it = models.values().iterator(); it.hasNext();){
+                StructureModel model = it.next();
+                for(StructureModel.FieldModel field : model.getFields()){
+                    String expression = resolveHexer(field.getType(), models);
+                    if(expression == null){
+                        List<String> problems = new ArrayList<>();
+                        problems.add("field " + field.getName() + " has no HEXER constant or generated Hexer");
+                        skip(model.getType(), problems);
+                        it.remove();
+                        changed = true;
+                        break;
+                    }
+                    field.setHexerExpression(expression);
+                }
+            }
+        }
+    }
+
+    //Find the expression for a type's hexer, or null if there isn't one.
+    private String resolveHexer(DeclaredType type, Map<TypeElement, StructureModel> models){
+        TypeElement element = (TypeElement) type.asElement();
+        TypeElement hexer = processingEnv.getElementUtils().getTypeElement("com.github.lucbui.bytes.Hexer");
+        for(VariableElement constant : ElementFilter.fieldsIn(element.getEnclosedElements())){
+            if(constant.getSimpleName().contentEquals(HEXER_CONSTANT) &&
+                    constant.getModifiers().contains(Modifier.STATIC) &&
+                    constant.getModifiers().contains(Modifier.PUBLIC) &&
+                    processingEnv.getTypeUtils().isAssignable(constant.asType(), processingEnv.getTypeUtils().getDeclaredType(hexer, type))){
+                return element.getQualifiedName() + "." + HEXER_CONSTANT;
+            }
+        }
+        if(element.getAnnotation(DataStructure.class) != null){
+            StructureModel nested = models.get(element);
+            if(nested != null){
+                return nested.getQualifiedHexerName() + "." + HEXER_CONSTANT;
+            }
+            //Structures compiled earlier, or in an earlier round, have their Hexer on the classpath already.
+            String packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+            String generated = (packageName.isEmpty() ? "" : packageName + ".") + StructureModel.getHexerName(element);
+            if(processingEnv.getElementUtils().getTypeElement(generated) != null){
+                return generated + "." + HEXER_CONSTANT;
+            }
+        }
+        return null;
+    }
+
+    private void writeRegistries(){
+        for(Map.Entry<String, List<StructureModel>> entry : generatedByPackage.entrySet()){
+            String packageName = entry.getKey();
+            String name = packageName.isEmpty() ? REGISTRY_NAME : packageName + "." + REGISTRY_NAME;
+            Element[] origins = entry.getValue().stream().map(StructureModel::getType).toArray(Element[]::new);
+            writeSource(name, HexerSourceWriter.writeRegistry(packageName, REGISTRY_NAME, entry.getValue()), origins);
+            registeredPackages.add(packageName);
+        }
+        generatedByPackage.clear();
+    }
+
+    private void writeSource(String name, String source, Element... origins){
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(name, origins);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void skip(TypeElement type, List<String> problems){
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "No Hexer generated for " + type.getQualifiedName() + ", because " + String.join("; ", problems) +
+                        ". It will be read reflectively.", type);
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.lucbui.processor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * Writes the Java source of generated Hexers and registries.
+ * Every type is referred to by its fully-qualified name, so the generated files need no imports.
+ */
+class HexerSourceWriter {
+
+    private static final String HEXER = "com.github.lucbui.bytes.Hexer";
+    private static final String ITERATOR = "com.github.lucbui.file.HexFieldIterator";
+
+    private HexerSourceWriter(){
+    }
+
+    /**
+     * Write the source of a Hexer for a structure.
+     * Every field's hexer expression must already be resolved.
+     * @param model The structure
+     * @return The source of the Hexer
+     */
+    static String writeHexer(StructureModel model){
+        String type = model.getType().getQualifiedName().toString();
+        StringBuilder src = new StringBuilder();
+        writePackage(src, model.getPackageName());
+        src.append("/**\n")
+                .append(" * A Hexer for {@link ").append(type).append("}, generated from its annotations.\n")
+                .append(" */\n");
+        src.append(isPublic(model.getType()) ? "public " : "")
+                .append("final class ").append(model.getHexerName()).append(" implements ")
+                .append(HEXER).append("<").append(type).append("> {\n\n");
+        src.append("    public static final ").append(HEXER).append("<").append(type).append("> HEXER = new ")
+                .append(model.getHexerName()).append("();\n\n");
+        src.append("    private ").append(model.getHexerName()).append("(){\n    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public ").append(type).append(" read(").append(ITERATOR).append(" iterator) {\n")
+                .append("        ").append(type).append(" object = new ").append(type).append("();\n");
+        for(StructureModel.FieldModel field : model.getFields()){
+            src.append("        object.").append(field.getName()).append(" = ").append(field.getHexerExpression())
+                    .append(".read(").append(iteratorFor(field)).append(");\n");
+        }
+        writeHooks(src, model.getAfterRead());
+        src.append("        return object;\n    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public void write(").append(type).append(" object, ").append(ITERATOR).append(" iterator) {\n");
+        writeHooks(src, model.getBeforeWrite());
+        //Null fields are left as they are in the file.
+        for(StructureModel.FieldModel field : model.getFields()){
+            src.append("        if(object.").append(field.getName()).append(" != null){\n")
+                    .append("            ").append(field.getHexerExpression()).append(".write(object.").append(field.getName())
+                    .append(", ").append(iteratorFor(field)).append(");\n")
+                    .append("        }\n");
+        }
+        src.append("    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public int getSize(").append(type).append(" object) {\n");
+        if(model.getStaticSize() >= 0){
+            src.append("        return ").append(model.getStaticSize()).append(";\n");
+        } else {
+            //Without a declared size, the structure ends with its furthest relative field.
+            src.append("        long size = 0;\n");
+            for(StructureModel.FieldModel field : model.getFields()){
+                if(!field.isAbsolute()){
+                    src.append("        if(object.").append(field.getName()).append(" != null){\n")
+                            .append("            size = Math.max(size, ").append(field.getOffset()).append("L + ")
+                            .append(field.getHexerExpression()).append(".getSize(object.").append(field.getName())
+                            .append("));\n")
+                            .append("        }\n");
+                }
+            }
+            src.append("        return (int) size;\n");
+        }
+        src.append("    }\n}\n");
+        return src.toString();
+    }
+
+    /**
+     * Write the source of a registry, which installs every generated Hexer in a package.
+     * @param packageName The package
+     * @param registryName The simple name of the registry
+     * @param models The structures in the package
+     * @return The source of the registry
+     */
+    static String writeRegistry(String packageName, String registryName, List<StructureModel> models){
+        StringBuilder src = new StringBuilder();
+        writePackage(src, packageName);
+        src.append("/**\n")
+                .append(" * A FrameworkFactory which registers the Hexers generated for this package's data structures.\n")
+                .append(" */\n");
+        src.append("public class ").append(registryName)
+                .append(" implements com.github.lucbui.framework.FrameworkFactory {\n\n");
+        src.append("    @Override\n")
+                .append("    public void configure(com.github.lucbui.framework.HexFramework.Builder builder) {\n");
+        for(StructureModel model : models){
+            src.append("        builder.addHexer(").append(model.getType().getQualifiedName()).append(".class, ")
+                    .append(model.getHexerName()).append(".HEXER);\n");
+        }
+        src.append("    }\n}\n");
+        return src.toString();
+    }
+
+    private static void writePackage(StringBuilder src, String packageName){
+        if(!packageName.isEmpty()){
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+    }
+
+    private static void writeHooks(StringBuilder src, List<StructureModel.HookModel> hooks){
+        for(StructureModel.HookModel hook : hooks){
+            src.append("        object.").append(hook.getName())
+                    .append(hook.isTakesIterator() ? "(iterator);\n" : "();\n");
+        }
+    }
+
+    private static String iteratorFor(StructureModel.FieldModel field){
+        return (field.isAbsolute() ? "iterator.copy(" : "iterator.copyRelative(") + field.getOffset() + "L)";
+    }
+
+    //The Hexer is public only if the structure is visible outside its package.
+    private static boolean isPublic(TypeElement type){
+        for(Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()){
+            if(!current.getModifiers().contains(Modifier.PUBLIC)){
+                return false;
+            }
+        }
+        return true;
+    }
+}
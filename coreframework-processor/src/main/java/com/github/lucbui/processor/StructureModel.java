@@ -0,0 +1,326 @@
+package com.github.lucbui.processor;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.AfterRead;
+import com.github.lucbui.annotations.ArrayField;
+import com.github.lucbui.annotations.BeforeWrite;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.evaluator.Expression;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.utility.Try;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The compile-time layout of a @DataStructure class.
+ * A model is only created for classes which a generated Hexer can handle without reflection: every @Offset field
+ * must be accessible from the class's package, with a constant offset, and every hook must be public.
+ */
+class StructureModel {
+
+    private final TypeElement type;
+    private final String packageName;
+    private final String hexerName;
+    private final int staticSize;
+    private final List<FieldModel> fields;
+    private final List<HookModel> afterRead;
+    private final List<HookModel> beforeWrite;
+
+    private StructureModel(TypeElement type, String packageName, int staticSize, List<FieldModel> fields,
+                           List<HookModel> afterRead, List<HookModel> beforeWrite){
+        this.type = type;
+        this.packageName = packageName;
+        this.hexerName = getHexerName(type);
+        this.staticSize = staticSize;
+        this.fields = Collections.unmodifiableList(fields);
+        this.afterRead = Collections.unmodifiableList(afterRead);
+        this.beforeWrite = Collections.unmodifiableList(beforeWrite);
+    }
+
+    /**
+     * Get the simple name of the Hexer generated for a class.
+     * Nested classes include their enclosing classes' names, separated by underscores.
+     * @param type The class
+     * @return The generated Hexer's simple name
+     */
+    static String getHexerName(TypeElement type){
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while(enclosing instanceof TypeElement){
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append("Hexer").toString();
+    }
+
+    /**
+     * Parse the layout of a class.
+     * @param type The class to parse
+     * @param env The processing environment
+     * @param problems A list to add the reasons the class can't be compiled to
+     * @return The model, or null if a Hexer can't be generated for the class
+     */
+    static StructureModel parse(TypeElement type, ProcessingEnvironment env, List<String> problems){
+        PackageElement pkg = env.getElementUtils().getPackageOf(type);
+        checkType(type, problems);
+
+        List<FieldModel> fields = new ArrayList<>();
+        List<HookModel> afterRead = new ArrayList<>();
+        List<HookModel> beforeWrite = new ArrayList<>();
+        Set<String> seenHooks = new HashSet<>();
+        //Fields and hooks are gathered from the class first, then its superclasses, like the reflective pipeline.
+        for(TypeElement current = type; current != null; current = getSuperclass(current)){
+            boolean samePackage = env.getElementUtils().getPackageOf(current).equals(pkg);
+            for(VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())){
+                if(field.getAnnotation(Offset.class) != null){
+                    FieldModel model = parseField(field, samePackage, problems);
+                    if(model != null){
+                        fields.add(model);
+                    }
+                }
+            }
+            for(ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())){
+                addHook(method, AfterRead.class, afterRead, seenHooks, env, problems);
+                addHook(method, BeforeWrite.class, beforeWrite, seenHooks, env, problems);
+            }
+        }
+        if(fields.isEmpty() && problems.isEmpty()){
+            problems.add("it has no @Offset fields");
+        }
+        if(!problems.isEmpty()){
+            return null;
+        }
+        return new StructureModel(type, pkg.getQualifiedName().toString(),
+                type.getAnnotation(DataStructure.class).size(), fields, afterRead, beforeWrite);
+    }
+
+    //Check that the generated Hexer can construct the class directly.
+    private static void checkType(TypeElement type, List<String> problems){
+        if(type.getKind() != ElementKind.CLASS){
+            problems.add("it is not a class");
+        }
+        if(type.getModifiers().contains(Modifier.ABSTRACT)){
+            problems.add("it is abstract");
+        }
+        if(!type.getTypeParameters().isEmpty()){
+            problems.add("it is generic");
+        }
+        for(Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()){
+            if(current.getModifiers().contains(Modifier.PRIVATE)){
+                problems.add("it is not accessible from its package");
+            }
+            if(current.getEnclosingElement() instanceof TypeElement && !current.getModifiers().contains(Modifier.STATIC)){
+                problems.add("it is an inner class");
+            }
+        }
+        boolean hasConstructor = false;
+        for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())){
+            if(constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)){
+                hasConstructor = true;
+            }
+        }
+        if(!hasConstructor){
+            problems.add("it has no accessible no-arg constructor");
+        }
+    }
+
+    private static FieldModel parseField(VariableElement field, boolean samePackage, List<String> problems){
+        String name = field.getSimpleName().toString();
+        Set<Modifier> modifiers = field.getModifiers();
+        if(modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))){
+            problems.add("field " + name + " is not accessible from the class's package");
+            return null;
+        }
+        if(modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)){
+            problems.add("field " + name + " is static or final");
+            return null;
+        }
+        if(field.getAnnotation(PointerField.class) != null){
+            problems.add("field " + name + " is a @PointerField, whose pointer format depends on the framework");
+            return null;
+        }
+        if(field.getAnnotation(ArrayField.class) != null){
+            problems.add("field " + name + " is an @ArrayField, whose count may depend on the object");
+            return null;
+        }
+        String offsetExpression = field.getAnnotation(Offset.class).value();
+        Long offset = parseOffset(offsetExpression);
+        if(offset == null){
+            problems.add("field " + name + " has a non-constant offset \"" + offsetExpression + "\"");
+            return null;
+        }
+        if(field.asType().getKind() != TypeKind.DECLARED){
+            problems.add("field " + name + " is not an object");
+            return null;
+        }
+        return new FieldModel(name, (DeclaredType) field.asType(), offset, field.getAnnotation(Absolute.class) != null);
+    }
+
+    private static void addHook(ExecutableElement method, Class<? extends Annotation> annotation, List<HookModel> hooks,
+                                Set<String> seenHooks, ProcessingEnvironment env, List<String> problems){
+        if(method.getAnnotation(annotation) == null){
+            return;
+        }
+        String name = method.getSimpleName().toString();
+        //The reflective pipeline only sees public hooks, and only the most specific override of each.
+        if(!method.getModifiers().contains(Modifier.PUBLIC) || !seenHooks.add(name + "/" + method.getParameters().size())){
+            return;
+        }
+        if(method.getModifiers().contains(Modifier.STATIC)){
+            problems.add("hook " + name + " is static");
+        } else if(method.getParameters().isEmpty()){
+            hooks.add(new HookModel(name, false));
+        } else if(method.getParameters().size() == 1 && acceptsIterator(method.getParameters().get(0).asType(), env)){
+            hooks.add(new HookModel(name, true));
+        } else {
+            problems.add("hook " + name + " must take no parameters, or a single HexFieldIterator");
+        }
+    }
+
+    private static boolean acceptsIterator(TypeMirror parameter, ProcessingEnvironment env){
+        TypeElement iterator = env.getElementUtils().getTypeElement(HexFieldIterator.class.getCanonicalName());
+        return iterator != null && env.getTypeUtils().isAssignable(iterator.asType(), parameter);
+    }
+
+    private static TypeElement getSuperclass(TypeElement type){
+        TypeMirror superclass = type.getSuperclass();
+        if(superclass.getKind() != TypeKind.DECLARED){
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    /**
+     * Parse a constant offset.
+     * Number literals, and arithmetic which only uses them, are supported. Anything which uses a configuration value
+     * can only be evaluated at runtime.
+     * @param expression The offset expression
+     * @return The offset, or null if it isn't a constant
+     */
+    static Long parseOffset(String expression){
+        Try<Expression> compiled = Expression.parse(expression);
+        if(compiled.isError() || !compiled.get().isConstant()){
+            return null;
+        }
+        return compiled.get().evaluate(null).getAsLong();
+    }
+
+    public TypeElement getType() {
+        return type;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getHexerName() {
+        return hexerName;
+    }
+
+    public String getQualifiedHexerName() {
+        return packageName.isEmpty() ? hexerName : packageName + "." + hexerName;
+    }
+
+    public int getStaticSize() {
+        return staticSize;
+    }
+
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+
+    public List<HookModel> getAfterRead() {
+        return afterRead;
+    }
+
+    public List<HookModel> getBeforeWrite() {
+        return beforeWrite;
+    }
+
+    /**
+     * A single @Offset field.
+     */
+    static class FieldModel {
+        private final String name;
+        private final DeclaredType type;
+        private final long offset;
+        private final boolean absolute;
+        private String hexerExpression;
+
+        private FieldModel(String name, DeclaredType type, long offset, boolean absolute){
+            this.name = name;
+            this.type = type;
+            this.offset = offset;
+            this.absolute = absolute;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DeclaredType getType() {
+            return type;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public boolean isAbsolute() {
+            return absolute;
+        }
+
+        /**
+         * Get the Java expression which evaluates to this field's Hexer.
+         * @return The expression, or null if it has not been resolved
+         */
+        public String getHexerExpression() {
+            return hexerExpression;
+        }
+
+        void setHexerExpression(String hexerExpression) {
+            this.hexerExpression = hexerExpression;
+        }
+    }
+
+    /**
+     * A public @AfterRead or @BeforeWrite method.
+     */
+    static class HookModel {
+        private final String name;
+        private final boolean takesIterator;
+
+        private HookModel(String name, boolean takesIterator){
+            this.name = name;
+            this.takesIterator = takesIterator;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isTakesIterator() {
+            return takesIterator;
+        }
+    }
+}
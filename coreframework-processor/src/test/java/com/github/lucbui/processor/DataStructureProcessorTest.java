@@ -0,0 +1,148 @@
+package com.github.lucbui.processor;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.framework.FrameworkFactory;
+import com.github.lucbui.framework.HexFramework;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DataStructureProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String INNER = "package test;\n" +
+            "import com.github.lucbui.annotations.*;\n" +
+            "import com.github.lucbui.bytes.*;\n" +
+            "@DataStructure(size = 3)\n" +
+            "public class Inner {\n" +
+            "    @Offset(\"0\") public UnsignedByte first;\n" +
+            "    @Offset(\"0x1\") public UnsignedShort second;\n" +
+            "}\n";
+
+    private static final String OUTER = "package test;\n" +
+            "import com.github.lucbui.annotations.*;\n" +
+            "import com.github.lucbui.bytes.*;\n" +
+            "@DataStructure\n" +
+            "public class Outer {\n" +
+            "    @Offset(\"0\") public UnsignedByte header;\n" +
+            "    @Offset(\"1\") public Inner inner;\n" +
+            "    @Offset(\"0\") @Absolute public UnsignedByte absolute;\n" +
+            "    public int reads;\n" +
+            "    @AfterRead public void afterRead() { reads++; }\n" +
+            "}\n";
+
+    private static final String CONFIGURED = "package test;\n" +
+            "import com.github.lucbui.annotations.*;\n" +
+            "import com.github.lucbui.bytes.*;\n" +
+            "@DataStructure\n" +
+            "public class Configured {\n" +
+            "    @Offset(\"${key}\") public UnsignedByte value;\n" +
+            "}\n";
+
+    //Compile sources which should produce no warnings.
+    private ClassLoader compile(String... sources) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, sources);
+        boolean warned = diagnostics.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.WARNING || d.getKind() == Diagnostic.Kind.MANDATORY_WARNING);
+        assertFalse(diagnostics.getDiagnostics().toString(), warned);
+        return loader;
+    }
+
+    private ClassLoader compile(DiagnosticCollector<JavaFileObject> diagnostics, String... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File out = folder.newFolder();
+        List<JavaFileObject> units = new ArrayList<>();
+        for(String source : sources){
+            String name = source.substring(source.indexOf("class ") + 6, source.indexOf(" {"));
+            units.add(new SimpleJavaFileObject(URI.create("string:///test/" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            });
+        }
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", out.getPath());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, units);
+        task.setProcessors(Collections.singletonList(new DataStructureProcessor()));
+        assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        return new URLClassLoader(new URL[]{out.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void generatesHexers() throws Exception {
+        ClassLoader loader = compile(INNER, OUTER);
+        Hexer<Object> hexer = (Hexer<Object>) loader.loadClass("test.OuterHexer").getField("HEXER").get(null);
+
+        ByteArrayHexField field = new ByteArrayHexField(new byte[]{9, 1, 2, 3, 4, 5});
+        Object outer = hexer.read(field.iterator(Pointer.of(1)));
+        Class<?> outerClass = outer.getClass();
+        Object inner = outerClass.getField("inner").get(outer);
+        assertEquals(UnsignedByte.valueOf(1), outerClass.getField("header").get(outer));
+        assertEquals(UnsignedByte.valueOf(2), inner.getClass().getField("first").get(inner));
+        assertEquals(UnsignedShort.valueOf(0x0403), inner.getClass().getField("second").get(inner));
+        assertEquals(UnsignedByte.valueOf(9), outerClass.getField("absolute").get(outer));
+        assertEquals(1, outerClass.getField("reads").get(outer));
+        assertEquals(4, hexer.getSize(outer));
+
+        ByteArrayHexField copy = new ByteArrayHexField(6);
+        hexer.write(outer, copy.iterator(Pointer.of(1)));
+        assertArrayEquals(new byte[]{9, 1, 2, 3, 4, 0}, copy.toByteArray());
+
+        outerClass.getField("inner").set(outer, null);
+        ByteArrayHexField partial = new ByteArrayHexField(new byte[]{7, 7, 7, 7, 7, 7});
+        hexer.write(outer, partial.iterator(Pointer.of(1)));
+        assertArrayEquals(new byte[]{9, 1, 7, 7, 7, 7}, partial.toByteArray());
+    }
+
+    @Test
+    public void generatesRegistry() throws Exception {
+        ClassLoader loader = compile(INNER, OUTER);
+        FrameworkFactory registry = (FrameworkFactory) loader.loadClass("test." + DataStructureProcessor.REGISTRY_NAME)
+                .getDeclaredConstructor().newInstance();
+        HexFramework framework = HexFramework.init(new ByteArrayHexField(new byte[]{9, 1, 2, 3, 4, 5}))
+                .frameworkFactory(registry)
+                .build().orThrow();
+        assertTrue(framework.getHexerFor(loader.loadClass("test.Inner")).isPresent());
+        assertTrue(framework.getHexerFor(loader.loadClass("test.Outer")).isPresent());
+    }
+
+    @Test
+    public void skipsNonConstantOffsets() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassLoader loader = compile(diagnostics, CONFIGURED);
+        boolean warned = diagnostics.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.WARNING && d.getMessage(null).contains("test.Configured"));
+        assertTrue(warned);
+        try {
+            loader.loadClass("test.ConfiguredHexer");
+            fail("Hexer generated for a non-constant offset");
+        } catch (ClassNotFoundException e) {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.lucbui.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an array field, which holds a number of elements spaced evenly apart.
+ * The field must be an array, such as {@code byte[]}, {@code UnsignedShort[]}, or an array of a @DataStructure class.
+ * Arrays of bytes, shorts, ints, UnsignedBytes, UnsignedShorts and UnsignedWords are decoded from a single bulk read.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ArrayField {
+
+    /**
+     * The number of elements.
+     * This is either the name of another field of the structure, which must be declared, and so read, before this
+     * one, or an expression evaluated by the framework's evaluator, such as "12" or "${moves.count}". When writing,
+     * the array's own length is used.
+     * @return The number of elements
+     */
+    String count();
+
+    /**
+     * The distance between the start of each element, in bytes.
+     * If 0, the size of each element is used, which must then be fixed.
+     * @return The stride
+     */
+    int stride() default 0;
+}
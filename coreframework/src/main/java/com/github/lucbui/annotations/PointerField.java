@@ -17,4 +17,13 @@ public @interface PointerField {
      * @return
      */
     Class<? extends Object> objectType();
+
+    /**
+     * Whether the object pointed to is only read when it is first requested.
+     * If true, reading the structure only reads the pointer, and the object is read on the first call to
+     * {@code PointerObject.getObject()}. Lazy objects which are never requested are not written back; only their
+     * pointer is.
+     * @return True, if the object should be read lazily
+     */
+    boolean lazy() default false;
 }
@@ -1,14 +1,11 @@
 package com.github.lucbui.bytes;
 
 import com.github.lucbui.file.HexFieldIterator;
-import com.github.lucbui.utility.CollectorUtils;
 import com.github.lucbui.utility.MathUtils;
 import com.github.lucbui.utility.Try;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * A string made of ASCII characters.
@@ -69,22 +66,22 @@ public class ASCIIString {
                 return object.string.length;
             }
 
+            @Override
+            public int getFixedSize() {
+                return length;
+            }
+
             @Override
             public ASCIIString read(HexFieldIterator iterator) {
-                List<Byte> chars = new ArrayList<>(length);
-                for(int idx = 0; idx < length; idx++) {
-                    byte bite = iterator.getByte(0).orThrow();
-                    chars.add(bite);
-                    iterator.advanceRelative(1);
-                }
-                return new ASCIIString(chars.stream().collect(CollectorUtils.toByteArray()));
+                byte[] chars = new byte[length];
+                iterator.readBytes(chars, 0, length);
+                iterator.advanceRelative(length);
+                return new ASCIIString(chars);
             }
 
             @Override
             public void write(ASCIIString object, HexFieldIterator iterator) {
-                ByteWindow byteWindow = new ByteWindow();
-                byteWindow.set(0, Arrays.copyOfRange(object.string, 0, length));
-                iterator.write(byteWindow).orThrow();
+                iterator.writeBytes(Arrays.copyOf(object.string, length), 0, length);
             }
         };
     }
@@ -106,20 +103,24 @@ public class ASCIIString {
 
             @Override
             public ASCIIString read(HexFieldIterator iterator) {
-                List<Byte> chars = new ArrayList<>();
-                Byte bite;
-                while((bite = iterator.getByte(0).orThrow()) != delimiter){
-                    chars.add(bite);
+                //Scan ahead for the delimiter, then read the whole string at once.
+                HexFieldIterator scanner = iterator.copy();
+                int length = 0;
+                while(scanner.readU8() != (delimiter & 0xFF)){
+                    scanner.advanceRelative(1);
+                    length++;
                 }
-                return new ASCIIString(chars.stream().collect(CollectorUtils.toByteArray()));
+                byte[] chars = new byte[length];
+                iterator.readBytes(chars, 0, length);
+                iterator.advanceRelative(length + 1);
+                return new ASCIIString(chars);
             }
 
             @Override
             public void write(ASCIIString object, HexFieldIterator iterator) {
-                ByteWindow byteWindow = new ByteWindow();
-                byteWindow.set(0, object.string);
-                byteWindow.set(object.string.length, delimiter);
-                iterator.write(byteWindow).orThrow();
+                byte[] chars = Arrays.copyOf(object.string, object.string.length + 1);
+                chars[object.string.length] = delimiter;
+                iterator.writeBytes(chars, 0, chars.length);
             }
         };
     }
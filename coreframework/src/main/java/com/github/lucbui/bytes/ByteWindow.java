@@ -8,7 +8,9 @@ import com.github.lucbui.utility.Try;
 import org.apache.commons.lang3.NotImplementedException;
 
 import java.nio.ByteBuffer;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.function.BiConsumer;
 
 /**
@@ -20,13 +22,20 @@ import java.util.function.BiConsumer;
  * During reading or insertion, negative values are permitted. This allows you to write backward, relative to the insertion
  * point.
  *
+ * Internally, the window is a sorted list of contiguous runs of bytes. Runs which overlap or touch are merged as
+ * they are written, so a window with no holes is always a single run. Copies and subwindows share their runs'
+ * arrays with the original, and only copy them when one side is modified.
+ *
  * I wrote this because I hated ByteBuffers.
  */
 public class ByteWindow implements HexField {
 
     public static byte DEFAULT_VALUE = 0;
+    //The largest array most VMs will allocate.
+    private static final long MAX_RUN_LENGTH = Integer.MAX_VALUE - 8;
     private byte defaultValue;
-    private Map<Long, Byte> bytes;
+    private final ArrayList<Run> runs;
+    private int numberOfBytes;
 
     /**
      * Create a blank ByteWindow.
@@ -50,7 +59,7 @@ public class ByteWindow implements HexField {
      * @param defaultValue The default value to use when retrieving a "hole".
      */
     public ByteWindow(byte defaultValue) {
-        this.bytes = new TreeMap<>();
+        this.runs = new ArrayList<>();
         this.defaultValue = defaultValue;
     }
 
@@ -62,7 +71,23 @@ public class ByteWindow implements HexField {
      */
     public static ByteWindow of(long position, byte bite){
         ByteWindow byteWindow = new ByteWindow();
-        byteWindow.bytes.put(position, bite);
+        byteWindow.set(position, bite);
+        return byteWindow;
+    }
+
+    /**
+     * Construct a ByteWindow over an array, starting at position 0, without copying it.
+     * The window takes ownership of the array, so the caller must not modify it afterwards.
+     * @param bites The bytes to use.
+     * @return The constructed ByteWindow
+     */
+    public static ByteWindow wrap(byte[] bites){
+        Objects.requireNonNull(bites);
+        ByteWindow byteWindow = new ByteWindow();
+        if(bites.length > 0){
+            byteWindow.runs.add(new Run(0, bites, 0, bites.length));
+            byteWindow.numberOfBytes = bites.length;
+        }
         return byteWindow;
     }
 
@@ -72,7 +97,14 @@ public class ByteWindow implements HexField {
      * @return
      */
     public byte get(long position) {
-        return this.bytes.getOrDefault(position, this.defaultValue);
+        int idx = floorIndex(position);
+        if(idx >= 0){
+            Run run = runs.get(idx);
+            if(position < run.end()){
+                return run.data[run.offset + (int)(position - run.start)];
+            }
+        }
+        return this.defaultValue;
     }
 
     /**
@@ -86,11 +118,7 @@ public class ByteWindow implements HexField {
             throw new IllegalSizeException("number of bytes requested must be non-negative");
         }
         byte[] bites = new byte[number];
-
-        for(int idx = 0; idx < number; ++idx) {
-            bites[idx] = this.get(position + (long)idx);
-        }
-
+        read(position, bites, 0, number);
         return bites;
     }
 
@@ -100,7 +128,23 @@ public class ByteWindow implements HexField {
      * @param val The byte to set to.
      */
     public void set(long position, byte val) {
-        this.bytes.put(position, val);
+        int idx = floorIndex(position);
+        if(idx >= 0){
+            Run run = runs.get(idx);
+            if(position < run.end()){
+                run.own();
+                run.data[run.offset + (int)(position - run.start)] = val;
+                return;
+            } else if(position == run.end() && !run.shared && run.offset + run.length < run.data.length
+                    && (idx + 1 == runs.size() || runs.get(idx + 1).start != position + 1)){
+                //Appending to a run with spare room, and not about to join the next one.
+                run.data[run.offset + run.length] = val;
+                run.length++;
+                numberOfBytes++;
+                return;
+            }
+        }
+        write(position, new byte[]{val}, 0, 1);
     }
 
     /**
@@ -110,10 +154,7 @@ public class ByteWindow implements HexField {
      */
     public void set(long position, byte[] val) {
         Objects.requireNonNull(val);
-        for(int idx = 0; idx < val.length; ++idx) {
-            this.set(position + (long)idx, val[idx]);
-        }
-
+        write(position, val, 0, val.length);
     }
 
     /**
@@ -142,11 +183,9 @@ public class ByteWindow implements HexField {
             //Nice try
             return;
         }
-        Map<Long, Byte> combination = new HashMap<>(this.bytes);
-        biteWindow.forEach((pos, bite) -> {
-            combination.put(pos + position, bite);
-        });
-        this.bytes = combination;
+        //Writing a window into itself would modify the runs being read, so work from a copy.
+        ByteWindow source = biteWindow == this ? this.copy() : biteWindow;
+        source.forEachRun((pos, bites, offset, length) -> write(position + pos, bites, offset, length));
     }
 
     /**
@@ -155,11 +194,10 @@ public class ByteWindow implements HexField {
      * @return
      */
     public long getRange() {
-        if(bytes.isEmpty()){
+        if(runs.isEmpty()){
             return 0;
         }
-        LongSummaryStatistics stats = this.bytes.keySet().stream().mapToLong(k -> k).summaryStatistics();
-        return (stats.getMax() + 1) - stats.getMin();
+        return runs.get(runs.size() - 1).end() - runs.get(0).start;
     }
 
     /**
@@ -167,7 +205,7 @@ public class ByteWindow implements HexField {
      * @return
      */
     public int getNumberOfBytes() {
-        return this.bytes.size();
+        return this.numberOfBytes;
     }
 
     /**
@@ -176,24 +214,19 @@ public class ByteWindow implements HexField {
      * @return
      */
     public boolean hasNoHoles() {
-        return this.getRange() == (long)this.getNumberOfBytes();
+        //Touching runs are always merged, so any second run means a hole.
+        return runs.size() <= 1;
     }
 
     /**
      * Get a portion of this window into another window.
+     * The subwindow shares this window's memory until either is modified.
      * @param fromPtr The starting pointer to use, inclusive.
      * @param toPtr The ending pointer to use, exclusive.
      * @return A subwindow.
      */
     public ByteWindow subWindow(long fromPtr, long toPtr) {
-        if(fromPtr > toPtr){
-            throw new IllegalArgumentException("fromPtr must be <= toPtr");
-        }
-        ByteWindow window = new ByteWindow();
-        window.bytes = new TreeMap<>();
-        this.bytes.keySet().stream().filter(k -> k >= fromPtr && k < toPtr)
-                .forEach(k -> window.bytes.put(k, this.bytes.get(k)));
-        return window;
+        return slice(fromPtr, toPtr, 0);
     }
 
     /**
@@ -202,16 +235,36 @@ public class ByteWindow implements HexField {
      */
     public void forEach(BiConsumer<? super Long, ? super Byte> consumer) {
         Objects.requireNonNull(consumer);
-        this.bytes.forEach(consumer);
+        for(Run run : runs){
+            for(int idx = 0; idx < run.length; idx++){
+                consumer.accept(run.start + idx, run.data[run.offset + idx]);
+            }
+        }
+    }
+
+    /**
+     * Iterate over each contiguous run of bytes in the window, in order of position.
+     * Holes separate runs; the consumer is never given a hole.
+     * @param consumer The consumer to use.
+     */
+    public void forEachRun(RunConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for(Run run : runs){
+            consumer.accept(run.start, run.data, run.offset, run.length);
+        }
     }
 
     /**
      * Creates a copy of this ByteWindow.
+     * The copy shares this window's memory until either is modified.
      * @return
      */
     public ByteWindow copy() {
         ByteWindow newByteWindow = new ByteWindow(defaultValue);
-        newByteWindow.bytes = new TreeMap<>(this.bytes);
+        for(Run run : runs){
+            newByteWindow.runs.add(run.share(run.start, run.offset, run.length));
+        }
+        newByteWindow.numberOfBytes = numberOfBytes;
         return newByteWindow;
     }
 
@@ -220,12 +273,205 @@ public class ByteWindow implements HexField {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ByteWindow that = (ByteWindow) o;
-        return Objects.equals(bytes, that.bytes);
+        if(runs.size() != that.runs.size()){
+            return false;
+        }
+        //Runs are always merged as far as possible, so equal windows have identical runs.
+        for(int idx = 0; idx < runs.size(); idx++){
+            Run run = runs.get(idx);
+            Run other = that.runs.get(idx);
+            if(run.start != other.start || run.length != other.length){
+                return false;
+            }
+            for(int bite = 0; bite < run.length; bite++){
+                if(run.data[run.offset + bite] != other.data[other.offset + bite]){
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(bytes);
+        int hash = 1;
+        for(Run run : runs){
+            hash = 31 * hash + Long.hashCode(run.start);
+            for(int idx = 0; idx < run.length; idx++){
+                hash = 31 * hash + run.data[run.offset + idx];
+            }
+        }
+        return hash;
+    }
+
+    //Get the index of the last run starting at or before the position, or -1 if there is none.
+    private int floorIndex(long position){
+        int low = 0;
+        int high = runs.size() - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            if(runs.get(mid).start <= position){
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    //Copy [position, position + length) into dst, filling holes with the default value.
+    private void read(long position, byte[] dst, int offset, int length){
+        Arrays.fill(dst, offset, offset + length, defaultValue);
+        long end = position + length;
+        int idx = Math.max(floorIndex(position), 0);
+        for(; idx < runs.size() && runs.get(idx).start < end; idx++){
+            Run run = runs.get(idx);
+            long copyStart = Math.max(run.start, position);
+            long copyEnd = Math.min(run.end(), end);
+            if(copyStart < copyEnd){
+                System.arraycopy(run.data, run.offset + (int)(copyStart - run.start), dst,
+                        offset + (int)(copyStart - position), (int)(copyEnd - copyStart));
+            }
+        }
+    }
+
+    //Read a little-endian value of up to four bytes, straight from a run's array if it holds every byte.
+    private int readLittleEndian(long position, int length){
+        int idx = floorIndex(position);
+        int value = 0;
+        if(idx >= 0 && position + length <= runs.get(idx).end()){
+            Run run = runs.get(idx);
+            int offset = run.offset + (int)(position - run.start);
+            for(int bite = length - 1; bite >= 0; bite--){
+                value = (value << 8) | (run.data[offset + bite] & 0xFF);
+            }
+        } else {
+            for(int bite = length - 1; bite >= 0; bite--){
+                value = (value << 8) | (get(position + bite) & 0xFF);
+            }
+        }
+        return value;
+    }
+
+    //Write bytes into the window, merging every run they overlap or touch into one.
+    private void write(long position, byte[] src, int offset, int length){
+        if(length == 0){
+            return;
+        }
+        long end = position + length;
+        int low = floorIndex(position);
+        if(low < 0 || runs.get(low).end() < position){
+            low++;
+        }
+        int high = floorIndex(end);
+        if(low > high){
+            runs.add(low, new Run(position, Arrays.copyOfRange(src, offset, offset + length), 0, length));
+            numberOfBytes += length;
+            return;
+        }
+        Run first = runs.get(low);
+        Run last = runs.get(high);
+        long newStart = Math.min(position, first.start);
+        long newEnd = Math.max(end, last.end());
+        if(low == high && !first.shared && position >= first.start && first.offset + (newEnd - first.start) <= first.data.length){
+            //Fits inside the existing run's array.
+            System.arraycopy(src, offset, first.data, first.offset + (int)(position - first.start), length);
+            numberOfBytes += (int)(newEnd - first.end());
+            first.length = (int)(newEnd - first.start);
+            return;
+        }
+        if(newEnd - newStart > MAX_RUN_LENGTH){
+            throw new IllegalSizeException("ByteWindow runs can't exceed " + MAX_RUN_LENGTH + " bytes");
+        }
+        int newLength = (int)(newEnd - newStart);
+        //Leave room to grow when appending, so building a window from front to back stays linear.
+        int capacity = end > last.end() ? (int)Math.min(MAX_RUN_LENGTH, newLength + (newLength >> 1)) : newLength;
+        byte[] merged = new byte[capacity];
+        for(int idx = low; idx <= high; idx++){
+            Run run = runs.get(idx);
+            System.arraycopy(run.data, run.offset, merged, (int)(run.start - newStart), run.length);
+            numberOfBytes -= run.length;
+        }
+        System.arraycopy(src, offset, merged, (int)(position - newStart), length);
+        runs.subList(low + 1, high + 1).clear();
+        runs.set(low, new Run(newStart, merged, 0, newLength));
+        numberOfBytes += newLength;
+    }
+
+    //Get the bytes in [fromPtr, toPtr) as a new window sharing this one's memory, with positions shifted by -base.
+    private ByteWindow slice(long fromPtr, long toPtr, long base){
+        if(fromPtr > toPtr){
+            throw new IllegalArgumentException("fromPtr must be <= toPtr");
+        }
+        ByteWindow window = new ByteWindow();
+        int idx = Math.max(floorIndex(fromPtr), 0);
+        for(; idx < runs.size() && runs.get(idx).start < toPtr; idx++){
+            Run run = runs.get(idx);
+            long sliceStart = Math.max(run.start, fromPtr);
+            long sliceEnd = Math.min(run.end(), toPtr);
+            if(sliceStart < sliceEnd){
+                int sliceLength = (int)(sliceEnd - sliceStart);
+                window.runs.add(run.share(sliceStart - base, run.offset + (int)(sliceStart - run.start), sliceLength));
+                window.numberOfBytes += sliceLength;
+            }
+        }
+        return window;
+    }
+
+    /**
+     * A contiguous run of bytes.
+     * A shared run's array may be seen by other windows, so it must be copied before it is modified.
+     */
+    private static final class Run {
+        private final long start;
+        private byte[] data;
+        private int offset;
+        private int length;
+        private boolean shared;
+
+        private Run(long start, byte[] data, int offset, int length){
+            this.start = start;
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private long end(){
+            return start + length;
+        }
+
+        //Create a run over part of this run's array, marking both as shared.
+        private Run share(long newStart, int newOffset, int newLength){
+            this.shared = true;
+            Run run = new Run(newStart, data, newOffset, newLength);
+            run.shared = true;
+            return run;
+        }
+
+        //Make sure this run has an array to itself, so it can be modified.
+        private void own(){
+            if(shared){
+                data = Arrays.copyOfRange(data, offset, offset + length);
+                offset = 0;
+                shared = false;
+            }
+        }
+    }
+
+    /**
+     * Consumes a contiguous run of bytes in a ByteWindow.
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+        /**
+         * Consume a run of bytes.
+         * The array should not be modified, or retained after the call.
+         * @param position The position of the first byte in the run.
+         * @param bytes The array containing the run.
+         * @param offset The offset of the run in the array.
+         * @param length The number of bytes in the run.
+         */
+        void accept(long position, byte[] bytes, int offset, int length);
     }
 
     @Override
@@ -250,7 +496,8 @@ public class ByteWindow implements HexField {
 
         @Override
         public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
-            return Try.ok(byteWindow.subWindow(current + distance, (current + distance) + numberOfBytes));
+            long start = current + distance;
+            return Try.ok(byteWindow.slice(start, start + numberOfBytes, start));
         }
 
         @Override
@@ -264,6 +511,46 @@ public class ByteWindow implements HexField {
             return Try.ok(byteWindow.get(current + distance));
         }
 
+        @Override
+        public int readU8() {
+            return byteWindow.get(current) & 0xFF;
+        }
+
+        @Override
+        public int readU16LE() {
+            return byteWindow.readLittleEndian(current, 2);
+        }
+
+        @Override
+        public int readS32LE() {
+            return byteWindow.readLittleEndian(current, 4);
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            byteWindow.read(current, dst, off, len);
+        }
+
+        @Override
+        public void writeU8(int value) {
+            byteWindow.set(current, (byte)value);
+        }
+
+        @Override
+        public void writeU16LE(int value) {
+            byteWindow.write(current, new byte[]{(byte)value, (byte)(value >>> 8)}, 0, 2);
+        }
+
+        @Override
+        public void writeS32LE(int value) {
+            byteWindow.write(current, new byte[]{(byte)value, (byte)(value >>> 8), (byte)(value >>> 16), (byte)(value >>> 24)}, 0, 4);
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            byteWindow.write(current, src, off, len);
+        }
+
         @Override
         public void advanceRelative(long distance) {
             current += distance;
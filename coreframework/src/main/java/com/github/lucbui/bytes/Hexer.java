@@ -8,6 +8,16 @@ public interface Hexer<T> extends HexReader<T>, HexWriter<T>{
      */
     int getSize(T object);
 
+    /**
+     * Get the size of every object this Hexer reads, in bytes.
+     * Hexers whose objects are always the same size should override this, which allows the size of a structure
+     * to be computed once, without any objects.
+     * @return The number of bytes, or -1 if the size depends on the object
+     */
+    default int getFixedSize(){
+        return -1;
+    }
+
     /**
      * Get the size of an object, coercing into T
      * @param obj
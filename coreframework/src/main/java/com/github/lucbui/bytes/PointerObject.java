@@ -4,6 +4,7 @@ import com.github.lucbui.file.Pointer;
 import com.github.lucbui.utility.RepointUtils;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A "fat pointer" which encapsulates an object, and a pointer to that object.
@@ -14,6 +15,7 @@ public final class PointerObject <O> {
     private Pointer pointer;
     private O object;
     private RepointStrategy repointStrategy;
+    private volatile Supplier<? extends O> loader;
 
     /**
      * Create a PointerObject
@@ -40,6 +42,25 @@ public final class PointerObject <O> {
         this.repointStrategy = Objects.requireNonNull(repointStrategy);
     }
 
+    /**
+     * Creates a PointerObject whose object is loaded on first access.
+     * The loader is called at most once, the first time {@code getObject()} is called, and its result is kept.
+     * @param pointer The pointer to the object
+     * @param loader A function which reads the object
+     * @param <O> The Object class
+     * @return A PointerObject which has not yet loaded its object
+     */
+    public static <O> PointerObject<O> lazy(Pointer pointer, Supplier<? extends O> loader){
+        PointerObject<O> po = new PointerObject<>();
+        po.pointer = Objects.requireNonNull(pointer);
+        po.repointStrategy = RepointUtils.disableRepointStrategy();
+        po.loader = Objects.requireNonNull(loader);
+        return po;
+    }
+
+    private PointerObject(){
+    }
+
     /**
      * Get the pointer to the object.
      * @return
@@ -53,15 +74,34 @@ public final class PointerObject <O> {
      * @return
      */
     public O getObject() {
+        if(loader != null){
+            synchronized (this){
+                if(loader != null){
+                    object = Objects.requireNonNull(loader.get());
+                    loader = null;
+                }
+            }
+        }
         return object;
     }
 
     /**
      * Set the object pointed to
+     * If the object was not loaded yet, it is never loaded.
      * @param object The object that should be pointed to
      */
-    public void setObject(O object){
+    public synchronized void setObject(O object){
         this.object = object;
+        this.loader = null;
+    }
+
+    /**
+     * Test if the object pointed to is present.
+     * This is only false for lazy PointerObjects whose object was never requested or set.
+     * @return True, if the object has been loaded
+     */
+    public boolean isLoaded() {
+        return loader == null;
     }
 
     /**
@@ -85,7 +125,7 @@ public final class PointerObject <O> {
     public String toString() {
         return "PointerObject{" +
                 "pointer=" + pointer +
-                ", object=" + object +
+                ", object=" + (isLoaded() ? object : "<not loaded>") +
                 '}';
     }
 }
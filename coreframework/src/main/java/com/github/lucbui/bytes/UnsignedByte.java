@@ -1,14 +1,11 @@
 package com.github.lucbui.bytes;
 
 import com.github.lucbui.annotations.DataStructure;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.utility.HexUtils;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -31,22 +28,33 @@ public class UnsignedByte implements ByteObject<UnsignedByte>, Comparable<Unsign
             return 1;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 1;
+        }
+
         @Override
         public UnsignedByte read(HexFieldIterator iterator) {
-            return UnsignedByte.valueOf(iterator.get(1).orThrow(HexerException::new));
+            return bytes[iterator.readU8()];
         }
 
         @Override
         public void write(UnsignedByte object, HexFieldIterator iterator) {
-            iterator.write(object.toByteWindow());
+            iterator.writeU8(object.value);
         }
     };
 
     //The value inside this byte.
-    int value;
+    final int value;
 
-    //Cache results to allow for == comparison.
-    private static final Map<Integer, UnsignedByte> bytes = new HashMap<>();
+    //Cache results to allow for == comparison. Every value is created up front, so lookups never allocate.
+    private static final UnsignedByte[] bytes = new UnsignedByte[0x100];
+
+    static {
+        for(int idx = 0; idx < bytes.length; idx++){
+            bytes[idx] = new UnsignedByte(idx);
+        }
+    }
 
     private UnsignedByte(int value) {
         this.value = value;
@@ -66,7 +74,7 @@ public class UnsignedByte implements ByteObject<UnsignedByte>, Comparable<Unsign
         if(value.capacity() < 1){
             throw new IndexOutOfBoundsException("ByteBuffer capacity < 1");
         }
-        return bytes.computeIfAbsent(HexUtils.byteToUnsignedByte(value.get()), UnsignedByte::new);
+        return bytes[HexUtils.byteToUnsignedByte(value.get())];
     }
 
     /**
@@ -76,7 +84,7 @@ public class UnsignedByte implements ByteObject<UnsignedByte>, Comparable<Unsign
      */
     public static UnsignedByte valueOf(ByteWindow value){
         Objects.requireNonNull(value);
-        return bytes.computeIfAbsent(HexUtils.byteToUnsignedByte(value.get(0)), UnsignedByte::new);
+        return bytes[HexUtils.byteToUnsignedByte(value.get(0))];
     }
 
 
@@ -88,7 +96,7 @@ public class UnsignedByte implements ByteObject<UnsignedByte>, Comparable<Unsign
      */
     public static UnsignedByte valueOf(int value){
         HexUtils.assertRange(value, 0, 0xFF);
-        return bytes.computeIfAbsent(value, UnsignedByte::new);
+        return bytes[value];
     }
 
     @Override
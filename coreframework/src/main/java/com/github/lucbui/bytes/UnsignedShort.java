@@ -1,14 +1,11 @@
 package com.github.lucbui.bytes;
 
 import com.github.lucbui.annotations.DataStructure;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.utility.HexUtils;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -30,27 +27,47 @@ public class UnsignedShort implements ByteObject<UnsignedShort>, Comparable<Unsi
             return 2;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 2;
+        }
+
         @Override
         public UnsignedShort read(HexFieldIterator iterator) {
-            return UnsignedShort.valueOf(iterator.get(2).orThrow(HexerException::new));
+            return UnsignedShort.cached(iterator.readU16LE());
         }
 
         @Override
         public void write(UnsignedShort object, HexFieldIterator iterator) {
-            iterator.write(object.toByteWindow());
+            iterator.writeU16LE(object.value);
         }
     };
 
     //The value inside this short.
-    int value;
+    final int value;
 
-    //Cache results to allow for == comparison.
-    private static final Map<Integer, UnsignedShort> shorts = new HashMap<>();
+    //Cache results to allow for == comparison. Slots are filled on first use, so lookups only allocate once per value.
+    private static final UnsignedShort[] shorts = new UnsignedShort[0x10000];
 
     private UnsignedShort(int value) {
         this.value = value;
     }
 
+    //Get the unique UnsignedShort for a value, which must already be in range.
+    private static UnsignedShort cached(int value){
+        UnsignedShort uShort = shorts[value];
+        if(uShort == null){
+            synchronized (shorts){
+                uShort = shorts[value];
+                if(uShort == null){
+                    uShort = new UnsignedShort(value);
+                    shorts[value] = uShort;
+                }
+            }
+        }
+        return uShort;
+    }
+
     /**
      * Parse an UnsignedShort from a literal bytestring.
      * @param bytes
@@ -66,7 +83,7 @@ public class UnsignedShort implements ByteObject<UnsignedShort>, Comparable<Unsi
             throw new IndexOutOfBoundsException("ByteBuffer capacity < 2");
         }
         int value = HexUtils.byteToUnsignedByte(bytes.get(1)) * 0x100 + HexUtils.byteToUnsignedByte(bytes.get(0));
-        return shorts.computeIfAbsent(value, UnsignedShort::new);
+        return cached(value);
     }
 
     /**
@@ -77,7 +94,7 @@ public class UnsignedShort implements ByteObject<UnsignedShort>, Comparable<Unsi
     public static UnsignedShort valueOf(ByteWindow bytes){
         Objects.requireNonNull(bytes);
         int value = HexUtils.byteToUnsignedByte(bytes.get(1)) * 0x100 + HexUtils.byteToUnsignedByte(bytes.get(0));
-        return shorts.computeIfAbsent(value, UnsignedShort::new);
+        return cached(value);
     }
 
     /**
@@ -88,7 +105,7 @@ public class UnsignedShort implements ByteObject<UnsignedShort>, Comparable<Unsi
      */
     public static UnsignedShort valueOf(int value){
         HexUtils.assertRange(value, 0, 0xFFFF);
-        return shorts.computeIfAbsent(value, UnsignedShort::new);
+        return cached(value);
     }
 
     /**
@@ -99,7 +116,7 @@ public class UnsignedShort implements ByteObject<UnsignedShort>, Comparable<Unsi
      */
     public static UnsignedShort valueOf(UnsignedByte uByte){
         Objects.requireNonNull(uByte);
-        return shorts.computeIfAbsent(uByte.value, UnsignedShort::new);
+        return cached(uByte.value);
     }
 
     @Override
@@ -1,15 +1,14 @@
 package com.github.lucbui.bytes;
 
 import com.github.lucbui.annotations.DataStructure;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.utility.HexUtils;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 @DataStructure(size = 4)
 public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<UnsignedWord>, Serializable {
@@ -24,27 +23,52 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
             return 4;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 4;
+        }
+
         @Override
         public UnsignedWord read(HexFieldIterator iterator) {
-            return UnsignedWord.valueOf(iterator.get(4).orThrow(HexerException::new));
+            return UnsignedWord.cached(iterator.readU32LE());
         }
 
         @Override
         public void write(UnsignedWord object, HexFieldIterator iterator) {
-            iterator.write(object.toByteWindow());
+            iterator.writeU32LE(object.value);
         }
     };
 
-    //The value inside this short.
-    long value;
+    //The value inside this word.
+    final long value;
 
     //Cache results to allow for == comparison.
-    private static final Map<Long, UnsignedWord> words = new HashMap<>();
+    //Small values are common enough to get an array, like UnsignedShort. Everything else goes in a map.
+    private static final UnsignedWord[] smallWords = new UnsignedWord[0x10000];
+    private static final Map<Long, UnsignedWord> words = new ConcurrentHashMap<>();
 
     private UnsignedWord(long value){
         this.value = value;
     }
 
+    //Get the unique UnsignedWord for a value, which must already be in range.
+    private static UnsignedWord cached(long value){
+        if(value < smallWords.length){
+            UnsignedWord word = smallWords[(int)value];
+            if(word == null){
+                synchronized (smallWords){
+                    word = smallWords[(int)value];
+                    if(word == null){
+                        word = new UnsignedWord(value);
+                        smallWords[(int)value] = word;
+                    }
+                }
+            }
+            return word;
+        }
+        return words.computeIfAbsent(value, UnsignedWord::new);
+    }
+
     /**
      * Parse an UnsignedWord from a literal bytestring.
      * @param bytes
@@ -60,7 +84,7 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
             throw new IndexOutOfBoundsException("ByteBuffer capacity < 4");
         }
         long value = HexUtils.byteToUnsignedByte(bytes.get(3)) * 0x1000000L + HexUtils.byteToUnsignedByte(bytes.get(2)) * 0x10000 + HexUtils.byteToUnsignedByte(bytes.get(1)) * 0x100 + HexUtils.byteToUnsignedByte(bytes.get(0));
-        return words.computeIfAbsent(value, UnsignedWord::new);
+        return cached(value);
     }
 
     /**
@@ -71,7 +95,7 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
     public static UnsignedWord valueOf(ByteWindow bytes){
         Objects.requireNonNull(bytes);
         long value = HexUtils.byteToUnsignedByte(bytes.get(3)) * 0x1000000L + HexUtils.byteToUnsignedByte(bytes.get(2)) * 0x10000 + HexUtils.byteToUnsignedByte(bytes.get(1)) * 0x100 + HexUtils.byteToUnsignedByte(bytes.get(0));
-        return words.computeIfAbsent(value, UnsignedWord::new);
+        return cached(value);
     }
 
     /**
@@ -82,7 +106,7 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
      */
     public static UnsignedWord valueOf(long value){
         HexUtils.assertRange(value, 0, 0xFFFFFFFFL);
-        return words.computeIfAbsent(value, UnsignedWord::new);
+        return cached(value);
     }
 
     /**
@@ -93,7 +117,7 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
      */
     public static UnsignedWord valueOf(UnsignedByte uByte){
         Objects.requireNonNull(uByte);
-        return words.computeIfAbsent((long) uByte.value, UnsignedWord::new);
+        return cached(uByte.value);
     }
 
     /**
@@ -104,7 +128,7 @@ public class UnsignedWord implements ByteObject<UnsignedWord>,Comparable<Unsigne
      */
     public static UnsignedWord valueOf(UnsignedShort uShort){
         Objects.requireNonNull(uShort);
-        return words.computeIfAbsent((long) uShort.value, UnsignedWord::new);
+        return cached(uShort.value);
     }
 
     @Override
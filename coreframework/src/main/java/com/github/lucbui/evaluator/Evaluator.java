@@ -49,4 +49,11 @@ public interface Evaluator {
         Objects.requireNonNull(converter);
         return Optional.ofNullable(converter.apply(evaluate(evaluation)));
     }
+
+    /**
+     * Discard any cached evaluations.
+     * Evaluators which cache results should do so only until this is called. By default, nothing is cached.
+     */
+    default void invalidate(){
+    }
 }
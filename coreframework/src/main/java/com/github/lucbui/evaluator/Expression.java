@@ -0,0 +1,48 @@
+package com.github.lucbui.evaluator;
+
+import com.github.lucbui.config.Configuration;
+import com.github.lucbui.utility.Try;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * A compiled arithmetic expression, such as an @Offset value.
+ *
+ * Expressions are made of number literals (decimal, 0x hexadecimal, or 0b binary), configuration values
+ * ({@code ${key}}, or {@code ${key|default}}), the operators +, -, * and /, and parentheses. For example:
+ * <code>
+ *     ${base} + 4 * ${stride|0x10}
+ * </code>
+ * An expression is parsed once, and can then be evaluated any number of times without re-reading the string.
+ * Configuration values must themselves be number literals.
+ */
+public interface Expression {
+
+    /**
+     * Evaluate the expression
+     * @param configuration The configuration to retrieve values from
+     * @return The value, or an empty optional if a configuration value was missing or invalid, or a division by
+     * zero occurred
+     */
+    OptionalLong evaluate(Configuration configuration);
+
+    /**
+     * Test if this expression is a constant.
+     * Constant expressions don't use the configuration, so they always evaluate to the same value.
+     * @return True, if the expression is constant
+     */
+    default boolean isConstant(){
+        return false;
+    }
+
+    /**
+     * Parse an expression
+     * @param expression The expression to parse
+     * @return A Try containing the compiled expression, or an error if the expression is invalid
+     */
+    static Try<Expression> parse(String expression){
+        Objects.requireNonNull(expression);
+        return Try.running(() -> new ExpressionParser(expression).parse(), "Invalid expression: " + expression);
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.lucbui.evaluator;
+
+import com.github.lucbui.config.Configuration;
+import com.github.lucbui.utility.MathUtils;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * A recursive-descent parser for Expressions.
+ * Grammar:
+ * <code>
+ *     expression := term (('+' | '-') term)*
+ *     term       := unary (('*' | '/') unary)*
+ *     unary      := '-' unary | primary
+ *     primary    := number | '${' key ('|' default)? '}' | '(' expression ')'
+ * </code>
+ * Operations on constants are folded while parsing, so a purely numeric expression compiles to a single constant.
+ */
+class ExpressionParser {
+
+    private final String source;
+    private int position;
+
+    ExpressionParser(String source){
+        this.source = source;
+    }
+
+    /**
+     * Parse the entire source string
+     * @return The compiled expression
+     * @throws IllegalArgumentException The source is not a valid expression
+     */
+    Expression parse(){
+        Expression expression = parseExpression();
+        skipWhitespace();
+        if(position < source.length()){
+            throw error("Unexpected character '" + source.charAt(position) + "'");
+        }
+        return expression;
+    }
+
+    private Expression parseExpression(){
+        Expression left = parseTerm();
+        while(true){
+            if(consume('+')){
+                left = binary(left, parseTerm(), '+');
+            } else if(consume('-')){
+                left = binary(left, parseTerm(), '-');
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseTerm(){
+        Expression left = parseUnary();
+        while(true){
+            if(consume('*')){
+                left = binary(left, parseUnary(), '*');
+            } else if(consume('/')){
+                left = binary(left, parseUnary(), '/');
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseUnary(){
+        if(consume('-')){
+            return binary(new Constant(0), parseUnary(), '-');
+        }
+        return parsePrimary();
+    }
+
+    private Expression parsePrimary(){
+        skipWhitespace();
+        if(consume('(')){
+            Expression inner = parseExpression();
+            expect(')');
+            return inner;
+        } else if(source.startsWith("${", position)){
+            position += 2;
+            String key = readWord();
+            if(key.isEmpty()){
+                throw error("Expected configuration key");
+            }
+            String defaultValue = null;
+            if(consume('|')){
+                defaultValue = readWord();
+                if(!parseNumber(defaultValue).isPresent()){
+                    throw error("Invalid default value '" + defaultValue + "'");
+                }
+            }
+            expect('}');
+            return new ConfigurationValue(key, defaultValue);
+        } else {
+            String word = readWord();
+            OptionalLong value = parseNumber(word);
+            if(!value.isPresent()){
+                throw error(word.isEmpty() ? "Expected value" : "Invalid number '" + word + "'");
+            }
+            return new Constant(value.getAsLong());
+        }
+    }
+
+    //Read a run of characters which may make up a number or a configuration key.
+    private String readWord(){
+        skipWhitespace();
+        int start = position;
+        while(position < source.length()){
+            char c = source.charAt(position);
+            if(Character.isLetterOrDigit(c) || c == '.' || c == '_'){
+                position++;
+            } else {
+                break;
+            }
+        }
+        return source.substring(start, position);
+    }
+
+    private boolean consume(char c){
+        skipWhitespace();
+        if(position < source.length() && source.charAt(position) == c){
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c){
+        if(!consume(c)){
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace(){
+        while(position < source.length() && Character.isWhitespace(source.charAt(position))){
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message){
+        return new IllegalArgumentException(message + " at position " + position + " of \"" + source + "\"");
+    }
+
+    /**
+     * Parse a number literal.
+     * If the string starts with 0x, it is treated as hex. If the string begins with 0b, it is treated
+     * as binary. Else, it is treated as decimal.
+     * @param value The literal
+     * @return The value, or an empty optional if it could not be parsed
+     */
+    static OptionalLong parseNumber(String value){
+        String trimmed = value.trim();
+        if(trimmed.startsWith("0x") || trimmed.startsWith("0X")){
+            return MathUtils.parseLong(trimmed.substring(2), 16);
+        } else if(trimmed.startsWith("0b") || trimmed.startsWith("0B")){
+            return MathUtils.parseLong(trimmed.substring(2), 2);
+        }
+        return MathUtils.parseLong(trimmed, 10);
+    }
+
+    //Combine two expressions, folding them into a constant if both sides are constant.
+    private static Expression binary(Expression left, Expression right, char operator){
+        Expression combined = new BinaryOperation(left, right, operator);
+        if(left.isConstant() && right.isConstant()){
+            OptionalLong value = combined.evaluate(null);
+            if(value.isPresent()){
+                return new Constant(value.getAsLong());
+            }
+        }
+        return combined;
+    }
+
+    private static class Constant implements Expression {
+        private final OptionalLong value;
+
+        private Constant(long value){
+            this.value = OptionalLong.of(value);
+        }
+
+        @Override
+        public OptionalLong evaluate(Configuration configuration) {
+            return value;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+    }
+
+    private static class ConfigurationValue implements Expression {
+        private final String key;
+        private final String defaultValue;
+
+        private ConfigurationValue(String key, String defaultValue){
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public OptionalLong evaluate(Configuration configuration) {
+            Optional<String> value = configuration.get(key);
+            if(value.isPresent()){
+                return parseNumber(value.get());
+            } else if(defaultValue != null){
+                return parseNumber(defaultValue);
+            }
+            return OptionalLong.empty();
+        }
+    }
+
+    private static class BinaryOperation implements Expression {
+        private final Expression left;
+        private final Expression right;
+        private final char operator;
+
+        private BinaryOperation(Expression left, Expression right, char operator){
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        public OptionalLong evaluate(Configuration configuration) {
+            OptionalLong l = left.evaluate(configuration);
+            OptionalLong r = right.evaluate(configuration);
+            if(!l.isPresent() || !r.isPresent()){
+                return OptionalLong.empty();
+            }
+            switch(operator){
+                case '+': return OptionalLong.of(l.getAsLong() + r.getAsLong());
+                case '-': return OptionalLong.of(l.getAsLong() - r.getAsLong());
+                case '*': return OptionalLong.of(l.getAsLong() * r.getAsLong());
+                case '/': return r.getAsLong() == 0 ? OptionalLong.empty() : OptionalLong.of(l.getAsLong() / r.getAsLong());
+                default: throw new IllegalStateException("Unknown operator " + operator);
+            }
+        }
+    }
+}
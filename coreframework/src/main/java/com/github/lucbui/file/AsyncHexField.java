@@ -0,0 +1,433 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.exception.HexerException;
+import com.github.lucbui.utility.Try;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A hex field derived from a file, which can be read and written asynchronously.
+ *
+ * {@code readAsync()} and {@code writeAsync()} return immediately, with a CompletableFuture which completes once the
+ * operation does, so many requests can be outstanding against the file at once. The field's iterators are a
+ * synchronous adapter, which wait for each read and write to complete, so existing hexers work unchanged.
+ *
+ * {@code prefetch()} starts reading a range in the background, such as the target of a pointer which is about to be
+ * followed. Later synchronous reads which lie entirely inside a prefetched range wait for it, rather than making a
+ * read of their own. Writes through this field discard any prefetched range they overlap, and no range overlapping
+ * a write is prefetched until the write completes. A synchronous read made before an asynchronous write completes
+ * may not see it.
+ */
+public class AsyncHexField implements HexField, Closeable {
+
+    /**
+     * The largest range prefetched, 64KB. Longer hints are ignored.
+     */
+    public static final int MAX_PREFETCH_LENGTH = 0x10000;
+
+    /**
+     * The largest number of ranges held at once. The least-recently used range is discarded to make room.
+     */
+    public static final int MAX_PREFETCHES = 64;
+
+    private final AsynchronousFileChannel channel;
+    //Guarded by this. Both maps hold the same ranges; one ordered by position, the other by last use.
+    private final NavigableMap<Long, Prefetch> prefetches = new TreeMap<>();
+    private final LinkedHashMap<Long, Prefetch> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<long[]> pendingWrites = new ArrayList<>();
+
+    private AsyncHexField(AsynchronousFileChannel channel){
+        this.channel = channel;
+    }
+
+    /**
+     * Create an AsyncHexField from a File object.
+     * @param file The file to use.
+     * @param options The options to use when opening the file.
+     * @return A Try containing the created AsyncHexField, or an empty Try if an IOException occured.
+     */
+    public static Try<AsyncHexField> get(File file, OpenOption... options){
+        return get(file.toPath(), options);
+    }
+
+    /**
+     * Create an AsyncHexField from a Path object.
+     * @param path The path to use.
+     * @param options Options to use when opening the file.
+     * @return A Try containing the created AsyncHexField, or an empty Try if an IOException occured.
+     */
+    public static Try<AsyncHexField> get(Path path, OpenOption... options){
+        return Try.running(() -> new AsyncHexField(AsynchronousFileChannel.open(path, options)), "Error creating AsyncHexField");
+    }
+
+    @Override
+    public HexFieldIterator iterator(Pointer position) {
+        return new Iterator(this, position.getLocation());
+    }
+
+    /**
+     * Read bytes asynchronously.
+     * The future fails if fewer bytes could be read, such as at the end of the file.
+     * @param position The position of the first byte.
+     * @param length The number of bytes to read.
+     * @return A future holding a buffer of the bytes read, positioned at the first byte
+     */
+    public CompletableFuture<ByteBuffer> readAsync(long position, int length){
+        if(position < 0 || length < 0){
+            throw new IllegalArgumentException("Position and length must not be negative");
+        }
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        readFully(position, ByteBuffer.allocate(length), future);
+        return future;
+    }
+
+    //Keep reading until the buffer is full, since the channel may read fewer bytes than asked.
+    private void readFully(long position, ByteBuffer buffer, CompletableFuture<ByteBuffer> future){
+        if(!buffer.hasRemaining()){
+            ((Buffer) buffer).flip();
+            future.complete(buffer);
+            return;
+        }
+        try {
+            channel.read(buffer, position + buffer.position(), null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer count, Void attachment) {
+                    if(count <= 0){
+                        future.completeExceptionally(new IllegalStateException("Error reading bytes, expected " +
+                                buffer.capacity() + " bytes, got " + buffer.position()));
+                    } else {
+                        readFully(position, buffer, future);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable exc, Void attachment) {
+                    future.completeExceptionally(exc);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Write bytes asynchronously.
+     * Any prefetched range the bytes overlap is discarded, and the bytes are not prefetched again until the write
+     * completes.
+     * @param position The position of the first byte.
+     * @param bytes The bytes to write, from the buffer's position to its limit. The buffer must not be modified until
+     *              the write completes.
+     * @return A future holding the number of bytes written
+     */
+    public CompletableFuture<Integer> writeAsync(long position, ByteBuffer bytes){
+        if(position < 0){
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        int length = bytes.remaining();
+        long[] range = {position, length};
+        synchronized (this){
+            discard(position, length);
+            pendingWrites.add(range);
+        }
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        writeFully(position, bytes, length, future);
+        return future.whenComplete((count, e) -> {
+            synchronized (this){
+                pendingWrites.remove(range);
+            }
+        });
+    }
+
+    /**
+     * Write bytes asynchronously.
+     * @param position The position of the first byte.
+     * @param src The array to write from. The array must not be modified until the write completes.
+     * @param off The offset in the array to start writing from.
+     * @param len The number of bytes to write.
+     * @return A future holding the number of bytes written
+     */
+    public CompletableFuture<Integer> writeAsync(long position, byte[] src, int off, int len){
+        return writeAsync(position, ByteBuffer.wrap(src, off, len));
+    }
+
+    private void writeFully(long position, ByteBuffer bytes, int length, CompletableFuture<Integer> future){
+        if(!bytes.hasRemaining()){
+            future.complete(length);
+            return;
+        }
+        long start = position + length - bytes.remaining();
+        try {
+            channel.write(bytes, start, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer count, Void attachment) {
+                    writeFully(position, bytes, length, future);
+                }
+
+                @Override
+                public void failed(Throwable exc, Void attachment) {
+                    future.completeExceptionally(exc);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Start reading a range in the background, so a later read of it need not wait as long.
+     * Ranges which are empty, longer than MAX_PREFETCH_LENGTH, already prefetched, or being written are ignored.
+     * @param position The position of the first byte.
+     * @param length The number of bytes.
+     */
+    @Override
+    public void prefetch(long position, int length){
+        if(position < 0 || length <= 0 || length > MAX_PREFETCH_LENGTH){
+            return;
+        }
+        synchronized (this){
+            if(find(position, length) != null || isBeingWritten(position, length)){
+                return;
+            }
+            while(recent.size() >= MAX_PREFETCHES){
+                java.util.Iterator<Prefetch> eldest = recent.values().iterator();
+                prefetches.remove(eldest.next().position);
+                eldest.remove();
+            }
+            Prefetch prefetch = new Prefetch(position, length, readAsync(position, length));
+            prefetches.put(position, prefetch);
+            recent.put(position, prefetch);
+        }
+    }
+
+    /**
+     * Discard every prefetched range.
+     * This should be called if the file may have been changed by something other than this field.
+     */
+    public synchronized void invalidate(){
+        prefetches.clear();
+        recent.clear();
+    }
+
+    //Test if a write to any of [position, position + length) has not completed. Must hold this.
+    private boolean isBeingWritten(long position, int length){
+        for(long[] write : pendingWrites){
+            if(write[0] < position + length && write[0] + write[1] > position){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Find a prefetched range which holds [position, position + length), or null if there is none. Must hold this.
+    private Prefetch find(long position, int length){
+        Map.Entry<Long, Prefetch> entry = prefetches.floorEntry(position);
+        if(entry == null || entry.getValue().position + entry.getValue().length < position + length){
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    //Discard every prefetched range which overlaps [position, position + length). Must hold this.
+    private void discard(long position, int length){
+        Long from = prefetches.floorKey(position);
+        List<Prefetch> overlapping = new ArrayList<>();
+        for(Prefetch prefetch : prefetches.subMap(from == null ? position : from, true, position + length, false).values()){
+            if(prefetch.position + prefetch.length > position){
+                overlapping.add(prefetch);
+            }
+        }
+        overlapping.forEach(this::remove);
+    }
+
+    //Discard a prefetched range, if it is still held. Must hold this.
+    private void remove(Prefetch prefetch){
+        if(prefetches.remove(prefetch.position, prefetch)){
+            recent.remove(prefetch.position);
+        }
+    }
+
+    //Read bytes into an array, waiting for a prefetched range if one holds them.
+    //A range which failed, such as one reaching past the end of the file, is discarded, and the bytes read directly.
+    private void read(long position, byte[] dst, int offset, int length){
+        Prefetch prefetch;
+        synchronized (this){
+            prefetch = find(position, length);
+            if(prefetch != null){
+                //Mark the range as recently used.
+                recent.get(prefetch.position);
+            }
+        }
+        ByteBuffer prefetched = prefetch == null ? null : prefetch.future.exceptionally(e -> null).join();
+        if(prefetched != null){
+            ByteBuffer bytes = prefetched.duplicate();
+            ((Buffer) bytes).position((int)(position - prefetch.position));
+            bytes.get(dst, offset, length);
+            return;
+        } else if(prefetch != null){
+            synchronized (this){
+                remove(prefetch);
+            }
+        }
+        readAsync(position, length).join().get(dst, offset, length);
+    }
+
+    private byte[] read(long position, int length){
+        byte[] bytes = new byte[length];
+        read(position, bytes, 0, length);
+        return bytes;
+    }
+
+    private void write(long position, byte[] src, int offset, int length){
+        writeAsync(position, src, offset, length).join();
+    }
+
+    /**
+     * Close the file.
+     * Outstanding asynchronous operations may fail.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        invalidate();
+        channel.close();
+    }
+
+    /**
+     * A range being read in the background.
+     */
+    private static class Prefetch {
+        private final long position;
+        private final int length;
+        private final CompletableFuture<ByteBuffer> future;
+
+        private Prefetch(long position, int length, CompletableFuture<ByteBuffer> future){
+            this.position = position;
+            this.length = length;
+            this.future = future;
+        }
+    }
+
+    /**
+     * An iterator which reads and writes an AsyncHexField synchronously.
+     */
+    private static class Iterator implements HexFieldIterator {
+
+        private final AsyncHexField hex;
+        private long currentPosition;
+
+        private Iterator(AsyncHexField hex, long position){
+            this.hex = hex;
+            this.currentPosition = position;
+        }
+
+        @Override
+        public HexFieldIterator copy() {
+            return new Iterator(hex, currentPosition);
+        }
+
+        @Override
+        public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+            return Try.running(() -> new ByteWindow(ByteBuffer.wrap(hex.read(currentPosition + distance, numberOfBytes))),
+                    "Error retrieving byte");
+        }
+
+        @Override
+        public Try<Byte> getByte(long distance) {
+            return Try.running(() -> hex.read(currentPosition + distance, 1)[0], "Error retrieving byte");
+        }
+
+        @Override
+        public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+            return Try.running(() -> {
+                bytes.forEachRun((pos, bites, offset, length) -> hex.write(currentPosition + distance + pos, bites, offset, length));
+                return 1;
+            }, "Error writing to iterator");
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            if(off < 0 || len < 0 || off + len > dst.length){
+                throw new IndexOutOfBoundsException("Invalid offset or length for array of size " + dst.length);
+            }
+            try {
+                hex.read(currentPosition, dst, off, len);
+            } catch (CompletionException e) {
+                throw new HexerException("Error retrieving bytes", e.getCause());
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            if(off < 0 || len < 0 || off + len > src.length){
+                throw new IndexOutOfBoundsException("Invalid offset or length for array of size " + src.length);
+            }
+            try {
+                hex.write(currentPosition, src, off, len);
+            } catch (CompletionException e) {
+                throw new HexerException("Error writing bytes", e.getCause());
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public int readU8() {
+            byte[] b = new byte[1];
+            readBytes(b, 0, 1);
+            return b[0] & 0xFF;
+        }
+
+        @Override
+        public int readU16LE() {
+            byte[] b = new byte[2];
+            readBytes(b, 0, 2);
+            return (b[0] & 0xFF) | (b[1] & 0xFF) << 8;
+        }
+
+        @Override
+        public int readS32LE() {
+            byte[] b = new byte[4];
+            readBytes(b, 0, 4);
+            return (b[0] & 0xFF) | (b[1] & 0xFF) << 8 | (b[2] & 0xFF) << 16 | (b[3] & 0xFF) << 24;
+        }
+
+        @Override
+        public void writeU8(int value) {
+            writeBytes(new byte[]{(byte)value}, 0, 1);
+        }
+
+        @Override
+        public void advanceRelative(long distance) {
+            currentPosition += distance;
+        }
+
+        @Override
+        public void advanceTo(long pointer) {
+            currentPosition = pointer;
+        }
+
+        @Override
+        public long getPosition() {
+            return currentPosition;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.exception.HexerException;
+import com.github.lucbui.utility.Try;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A hex field held entirely in memory, as a single byte array.
+ * Each byte costs exactly one byte of heap, so a whole ROM can be loaded and edited without touching the disk.
+ *
+ * Writes past the end of the field grow it, up to a maximum size (32MB by default, the largest GBA ROM). Use
+ * {@code expand()} to grow the field with a specific fill byte, such as 0xFF for free space. Reads past the end
+ * are errors.
+ *
+ * A field created with {@code load()} remembers its file. {@code flush()} saves it back there, if it has been
+ * changed since it was loaded or last flushed. Saves are atomic: the bytes are written to a temporary file next to
+ * the target, which is then moved into place. The temporary file is given the target's permissions first, so saving
+ * doesn't change them.
+ *
+ * This class is not thread-safe.
+ */
+public class ByteArrayHexField implements HexField, Flushable {
+
+    /**
+     * The default maximum size, 32MB.
+     */
+    public static final int DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+    private byte[] bytes;
+    private int size;
+    private final int maxSize;
+    private final Path source;
+    private boolean dirty;
+
+    /**
+     * Create an empty ByteArrayHexField.
+     * @param size The initial size of the field. Every byte starts as 0.
+     */
+    public ByteArrayHexField(int size){
+        this(new byte[size], size, DEFAULT_MAX_SIZE, null);
+    }
+
+    /**
+     * Create a ByteArrayHexField from existing bytes.
+     * The array is copied, so later changes to it are not seen by this field.
+     * @param bytes The bytes to use.
+     */
+    public ByteArrayHexField(byte[] bytes){
+        this(bytes.clone(), bytes.length, Math.max(DEFAULT_MAX_SIZE, bytes.length), null);
+    }
+
+    private ByteArrayHexField(byte[] bytes, int size, int maxSize, Path source){
+        if(size < 0 || size > maxSize){
+            throw new IllegalArgumentException("Size must be between 0 and " + maxSize);
+        }
+        this.bytes = bytes;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.source = source;
+    }
+
+    /**
+     * Load a file into a ByteArrayHexField.
+     * @param file The file to load.
+     * @return A Try containing the created ByteArrayHexField, or an error if an IOException occured.
+     */
+    public static Try<ByteArrayHexField> load(File file){
+        Objects.requireNonNull(file);
+        return load(file.toPath());
+    }
+
+    /**
+     * Load a file into a ByteArrayHexField.
+     * @param path The file to load.
+     * @return A Try containing the created ByteArrayHexField, or an error if an IOException occured.
+     */
+    public static Try<ByteArrayHexField> load(Path path){
+        Objects.requireNonNull(path);
+        return Try.running(() -> {
+            byte[] bites = Files.readAllBytes(path);
+            return new ByteArrayHexField(bites, bites.length, Math.max(DEFAULT_MAX_SIZE, bites.length), path);
+        }, "Error creating ByteArrayHexField");
+    }
+
+    /**
+     * Get the current size of this field.
+     * @return The number of bytes in the field.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the largest size this field can grow to.
+     * @return The maximum number of bytes.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the file this field was loaded from.
+     * @return The file, or null if the field was not loaded from one.
+     */
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * Grow the field, filling the new bytes with a value.
+     * Nothing happens if the field is already at least as large.
+     * @param newSize The new size of the field.
+     * @param fill The value of each new byte.
+     * @throws IllegalArgumentException newSize is larger than the maximum size.
+     */
+    public void expand(int newSize, byte fill){
+        if(newSize > maxSize){
+            throw new IllegalArgumentException("Can't expand past " + maxSize + " bytes");
+        }
+        if(newSize > size){
+            ensureCapacity(newSize);
+            Arrays.fill(bytes, size, newSize, fill);
+            size = newSize;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get a copy of the bytes in this field.
+     * @return A new array, of length {@code size()}.
+     */
+    public byte[] toByteArray(){
+        return Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * Save this field to a file, atomically.
+     * The bytes are written to a temporary file in the same directory, which then replaces the target. If the file
+     * system can't move atomically, the temporary file is moved over the target normally. If the target exists on a
+     * file system with POSIX permissions, the saved file keeps its permissions.
+     * @param path The file to save to.
+     * @return A Try indicating success, or an error if an IOException occured.
+     */
+    public Try<Void> save(Path path){
+        Objects.requireNonNull(path);
+        return Try.running(() -> {
+            Path absolute = path.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    out.write(bytes, 0, size);
+                }
+                //Temporary files are only readable by their owner, which would otherwise replace the target's permissions.
+                if(Files.exists(absolute) && Files.getFileAttributeView(absolute, PosixFileAttributeView.class) != null){
+                    Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(absolute));
+                }
+                try {
+                    Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return null;
+        }, "Error saving ByteArrayHexField");
+    }
+
+    /**
+     * Save this field back to the file it was loaded from.
+     * Nothing happens if the field was not loaded from a file, or nothing has been written since the last flush.
+     * @throws IOException The save failed.
+     */
+    @Override
+    public void flush() throws IOException {
+        if(source != null && dirty){
+            Try<Void> saved = save(source);
+            if(saved.isError()){
+                throw new IOException(saved.getCause(), saved.getException());
+            }
+            dirty = false;
+        }
+    }
+
+    @Override
+    public HexFieldIterator iterator(Pointer position) {
+        return new Iterator(this, position.getLocation());
+    }
+
+    //Throw if [position, position + length) isn't inside the field.
+    private void checkRead(long position, int length){
+        if(position < 0 || length < 0 || position + length > size){
+            throw new IndexOutOfBoundsException("Position " + position + " with length " + length + " is outside the field of size " + size);
+        }
+    }
+
+    //Throw if [position, position + length) can't be written, growing the field if it's past the end.
+    private void checkWrite(long position, int length){
+        if(position < 0 || length < 0 || position + length > maxSize){
+            throw new IndexOutOfBoundsException("Position " + position + " with length " + length + " is outside the maximum size " + maxSize);
+        }
+        dirty = true;
+        int end = (int)(position + length);
+        if(end > size){
+            ensureCapacity(end);
+            size = end;
+        }
+    }
+
+    //Grow the backing array to hold at least capacity bytes.
+    private void ensureCapacity(int capacity){
+        if(capacity > bytes.length){
+            int grown = (int)Math.min(maxSize, Math.max(capacity, bytes.length + ((long)bytes.length >> 1)));
+            bytes = Arrays.copyOf(bytes, grown);
+        }
+    }
+
+    /**
+     * An iterator which allows manipulating and reading a ByteArrayHexField.
+     */
+    private static class Iterator implements HexFieldIterator {
+
+        private long currentPosition;
+        private ByteArrayHexField hex;
+
+        private Iterator(ByteArrayHexField hex, long position){
+            this.currentPosition = position;
+            this.hex = hex;
+        }
+
+        @Override
+        public HexFieldIterator copy() {
+            return new ByteArrayHexField.Iterator(this.hex, this.currentPosition);
+        }
+
+        @Override
+        public Try<Byte> getByte(long distance) {
+            return Try.running(() -> {
+                hex.checkRead(currentPosition + distance, 1);
+                return hex.bytes[(int)(currentPosition + distance)];
+            }, "Error retrieving byte");
+        }
+
+        @Override
+        public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+            return Try.running(() -> {
+                long start = currentPosition + distance;
+                hex.checkRead(start, numberOfBytes);
+                return ByteWindow.wrap(Arrays.copyOfRange(hex.bytes, (int)start, (int)start + numberOfBytes));
+            }, "Error retrieving byte");
+        }
+
+        @Override
+        public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+            return Try.running(() -> {
+                long start = currentPosition + distance;
+                bytes.forEachRun((pos, bites, offset, length) -> write(start + pos, bites, offset, length));
+                return 1;
+            }, "Error writing to iterator");
+        }
+
+        @Override
+        public int readU8() {
+            try {
+                hex.checkRead(currentPosition, 1);
+                return hex.bytes[(int)currentPosition] & 0xFF;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readU16LE() {
+            try {
+                hex.checkRead(currentPosition, 2);
+                int idx = (int)currentPosition;
+                return (hex.bytes[idx] & 0xFF) | (hex.bytes[idx + 1] & 0xFF) << 8;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readS32LE() {
+            try {
+                hex.checkRead(currentPosition, 4);
+                int idx = (int)currentPosition;
+                return (hex.bytes[idx] & 0xFF) | (hex.bytes[idx + 1] & 0xFF) << 8 |
+                        (hex.bytes[idx + 2] & 0xFF) << 16 | (hex.bytes[idx + 3] & 0xFF) << 24;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            try {
+                hex.checkRead(currentPosition, len);
+                System.arraycopy(hex.bytes, (int)currentPosition, dst, off, len);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void writeU8(int value) {
+            try {
+                hex.checkWrite(currentPosition, 1);
+                hex.bytes[(int)currentPosition] = (byte)value;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeU16LE(int value) {
+            try {
+                hex.checkWrite(currentPosition, 2);
+                int idx = (int)currentPosition;
+                hex.bytes[idx] = (byte)value;
+                hex.bytes[idx + 1] = (byte)(value >>> 8);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeS32LE(int value) {
+            try {
+                hex.checkWrite(currentPosition, 4);
+                int idx = (int)currentPosition;
+                hex.bytes[idx] = (byte)value;
+                hex.bytes[idx + 1] = (byte)(value >>> 8);
+                hex.bytes[idx + 2] = (byte)(value >>> 16);
+                hex.bytes[idx + 3] = (byte)(value >>> 24);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            try {
+                write(currentPosition, src, off, len);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        private void write(long position, byte[] src, int off, int len){
+            hex.checkWrite(position, len);
+            System.arraycopy(src, off, hex.bytes, (int)position, len);
+        }
+
+        @Override
+        public void advanceRelative(long distance) {
+            currentPosition += distance;
+        }
+
+        @Override
+        public void advanceTo(long pointer) {
+            currentPosition = pointer;
+        }
+
+        @Override
+        public long getPosition() {
+            return currentPosition;
+        }
+    }
+}
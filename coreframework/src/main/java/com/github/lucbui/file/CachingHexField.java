@@ -0,0 +1,353 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.exception.HexerException;
+import com.github.lucbui.utility.Try;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A hex field which caches pages of another hex field.
+ * Reads are served from fixed-size pages, which are loaded from the wrapped field in a single read on first access.
+ * The least-recently used pages are evicted once the cache exceeds its byte budget.
+ *
+ * Writes are passed straight through to the wrapped field, and any cached pages they touch are updated to match.
+ * If the wrapped field may be modified by something other than this cache, call {@code invalidate()} to drop
+ * the stale pages.
+ *
+ * A page which can't be read in full, such as the last page of a file, is cached with only the bytes which could be
+ * read. Reads past its end go directly to the wrapped field. A write past its end discards it, so it is read again.
+ */
+public class CachingHexField implements HexField, Flushable, Closeable {
+
+    /**
+     * The smallest page size allowed, 4KB.
+     */
+    public static final int MIN_PAGE_SIZE = 4 * 1024;
+
+    /**
+     * The largest page size allowed, 64KB.
+     */
+    public static final int MAX_PAGE_SIZE = 64 * 1024;
+
+    private final HexField delegate;
+    private final int pageSize;
+    private final int pageShift;
+    private final long byteBudget;
+    private final LinkedHashMap<Long, byte[]> pages;
+    private long hits;
+    private long misses;
+
+    /**
+     * Create a CachingHexField
+     * @param delegate The field to cache.
+     * @param pageSize The size of each page. Must be a power of two, between 4KB and 64KB.
+     * @param byteBudget The maximum number of bytes to hold in the cache. Must hold at least one page.
+     */
+    public CachingHexField(HexField delegate, int pageSize, long byteBudget){
+        this.delegate = Objects.requireNonNull(delegate);
+        if(pageSize < MIN_PAGE_SIZE || pageSize > MAX_PAGE_SIZE || Integer.bitCount(pageSize) != 1){
+            throw new IllegalArgumentException("Page size must be a power of two between " + MIN_PAGE_SIZE + " and " + MAX_PAGE_SIZE);
+        }
+        if(byteBudget < pageSize){
+            throw new IllegalArgumentException("Byte budget must hold at least one page");
+        }
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.byteBudget = byteBudget;
+        long maxPages = byteBudget / pageSize;
+        this.pages = new LinkedHashMap<Long, byte[]>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * Get the field being cached.
+     * @return The wrapped field.
+     */
+    public HexField getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Get the size of each page.
+     * @return The page size, in bytes.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Get the maximum number of bytes this cache can hold.
+     * @return The byte budget.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Get the number of page lookups that were served from the cache.
+     * @return The number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of page lookups that required a read from the wrapped field.
+     * @return The number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Drop all cached pages.
+     */
+    public synchronized void invalidate() {
+        pages.clear();
+    }
+
+    @Override
+    public HexFieldIterator iterator(Pointer position) {
+        return new Iterator(this, position.getLocation());
+    }
+
+    //Cached pages are already in memory, so only hint the wrapped field about ranges which aren't.
+    @Override
+    public void prefetch(long position, int length) {
+        if(length <= 0){
+            return;
+        }
+        synchronized (this){
+            for(long page = position >> pageShift; page <= (position + length - 1) >> pageShift; page++){
+                if(!pages.containsKey(page)){
+                    delegate.prefetch(position, length);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(delegate instanceof Flushable){
+            ((Flushable) delegate).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        invalidate();
+        if(delegate instanceof Closeable){
+            ((Closeable) delegate).close();
+        }
+    }
+
+    //Get the page containing the position, loading it if needed. The page is shorter than pageSize if the wrapped
+    //field ends inside it. Null is returned if none of the page can be read.
+    private synchronized byte[] getPage(long pageNumber){
+        byte[] page = pages.get(pageNumber);
+        if(page != null){
+            hits++;
+            return page;
+        }
+        misses++;
+        HexFieldIterator iterator = delegate.iterator(Pointer.of(pageNumber << pageShift));
+        Try<ByteWindow> read = iterator.getRelative(0, pageSize);
+        int length = pageSize;
+        if(read.isError()){
+            length = getReadableLength(iterator);
+            if(length == 0){
+                return null;
+            }
+            read = iterator.getRelative(0, length);
+            if(read.isError()){
+                return null;
+            }
+        }
+        page = read.get().get(0, length);
+        pages.put(pageNumber, page);
+        return page;
+    }
+
+    //Find how many bytes of a page can be read, when the whole page can't be. This only happens once per short page.
+    private int getReadableLength(HexFieldIterator iterator){
+        int readable = 0;
+        int unreadable = pageSize;
+        while(unreadable - readable > 1){
+            int middle = (readable + unreadable) >>> 1;
+            if(iterator.getRelative(0, middle).isOk()){
+                readable = middle;
+            } else {
+                unreadable = middle;
+            }
+        }
+        return readable;
+    }
+
+    //Read bytes through the cache, falling back to the wrapped field if a page is unavailable.
+    private byte[] read(long position, int length){
+        byte[] bites = new byte[length];
+        read(position, bites, 0, length);
+        return bites;
+    }
+
+    //Read bytes through the cache into dst, falling back to the wrapped field if a page is unavailable.
+    //Pages are modified in place by writes, so they are only copied under the lock.
+    private synchronized void read(long position, byte[] dst, int offset, int length){
+        int copied = 0;
+        while(copied < length){
+            long current = position + copied;
+            byte[] page = current < 0 ? null : getPage(current >> pageShift);
+            int pageOffset = (int)(current & (pageSize - 1));
+            if(page == null || pageOffset >= page.length){
+                ByteWindow window = delegate.iterator(Pointer.of(current)).getRelative(0, length - copied).orThrow();
+                System.arraycopy(window.get(0, length - copied), 0, dst, offset + copied, length - copied);
+                return;
+            }
+            int toCopy = Math.min(page.length - pageOffset, length - copied);
+            System.arraycopy(page, pageOffset, dst, offset + copied, toCopy);
+            copied += toCopy;
+        }
+    }
+
+    //Read a little-endian value of up to four bytes, straight from the page if it holds every byte.
+    private synchronized int readLittleEndian(long position, int length){
+        byte[] page = position < 0 ? null : getPage(position >> pageShift);
+        int pageOffset = (int)(position & (pageSize - 1));
+        if(page == null || pageOffset + length > page.length){
+            page = read(position, length);
+            pageOffset = 0;
+        }
+        int value = 0;
+        for(int idx = length - 1; idx >= 0; idx--){
+            value = (value << 8) | (page[pageOffset + idx] & 0xFF);
+        }
+        return value;
+    }
+
+    //Write bytes to the wrapped field, and bring any cached pages in line with them. Holding the lock throughout
+    //means no page can be loaded between the two.
+    private synchronized Try<Integer> write(long position, ByteWindow bytes){
+        Try<Integer> result = delegate.iterator(Pointer.of(position)).writeRelative(0, bytes);
+        if(result.isError()){
+            //Unknown how much made it to the wrapped field, so nothing cached can be trusted.
+            pages.clear();
+            return result;
+        }
+        bytes.forEachRun((pos, bites, offset, length) -> {
+            int copied = 0;
+            while(copied < length){
+                long current = position + pos + copied;
+                long pageNumber = current >> pageShift;
+                int pageOffset = (int)(current & (pageSize - 1));
+                int toCopy = Math.min(pageSize - pageOffset, length - copied);
+                byte[] page = pages.get(pageNumber);
+                if(page != null && pageOffset + toCopy <= page.length){
+                    System.arraycopy(bites, offset + copied, page, pageOffset, toCopy);
+                } else if(page != null){
+                    //The write extended the field past a short page, which must be read again.
+                    pages.remove(pageNumber);
+                }
+                copied += toCopy;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * An iterator which allows manipulating and reading a CachingHexField.
+     */
+    private static class Iterator implements HexFieldIterator {
+
+        private long currentPosition;
+        private CachingHexField hex;
+
+        private Iterator(CachingHexField hex, long position){
+            this.currentPosition = position;
+            this.hex = hex;
+        }
+
+        @Override
+        public HexFieldIterator copy() {
+            return new CachingHexField.Iterator(this.hex, this.currentPosition);
+        }
+
+        @Override
+        public Try<Byte> getByte(long distance) {
+            return Try.running(() -> hex.read(currentPosition + distance, 1)[0], "Error retrieving byte");
+        }
+
+        @Override
+        public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+            return Try.running(() -> new ByteWindow(ByteBuffer.wrap(hex.read(currentPosition + distance, numberOfBytes))),
+                    "Error retrieving byte");
+        }
+
+        @Override
+        public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+            return hex.write(currentPosition + distance, bytes);
+        }
+
+        @Override
+        public int readU8() {
+            try {
+                return hex.readLittleEndian(currentPosition, 1);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readU16LE() {
+            try {
+                return hex.readLittleEndian(currentPosition, 2);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readS32LE() {
+            try {
+                return hex.readLittleEndian(currentPosition, 4);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            try {
+                hex.read(currentPosition, dst, off, len);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void advanceRelative(long distance) {
+            currentPosition += distance;
+        }
+
+        @Override
+        public void advanceTo(long pointer) {
+            currentPosition = pointer;
+        }
+
+        @Override
+        public long getPosition() {
+            return currentPosition;
+        }
+    }
+}
@@ -1,24 +1,42 @@
 package com.github.lucbui.file;
 
 import com.github.lucbui.bytes.ByteWindow;
-import com.github.lucbui.utility.HexUtils;
+import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.utility.Try;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A hex field derived from a file.
  * Rather than a RandomAccessFile, this field utilizes a FileChannel for arbitrary byte references. This allows us
  * to use the Non-Blocking IO features in Java.
+ *
+ * By default, writes go straight to the file, one write per contiguous run of bytes. In write-back mode, writes
+ * are instead held in a buffer, merged into as few contiguous runs as possible, and written out on {@code flush()},
+ * {@code close()}, or once the buffer grows past a threshold. Reads always see buffered writes, including while they
+ * are being flushed.
  */
-public class FileHexField implements HexField {
+public class FileHexField implements HexField, Flushable, Closeable {
 
     private final FileChannel fileChannel;
+    private volatile WriteBackBuffer writeBackBuffer;
+    private volatile long writeBackThreshold;
+    //In write-back mode, reads hold the read lock, and flushes the write lock, so no read falls between a run leaving
+    //the buffer and reaching the file.
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
 
     /**
      * Create a FileHexField from a File object.
@@ -40,6 +58,11 @@ public class FileHexField implements HexField {
         fileChannel = FileChannel.open(path, options);
     }
 
+    //Create a FileHexField over an open channel.
+    FileHexField(FileChannel fileChannel){
+        this.fileChannel = fileChannel;
+    }
+
     /**
      * Create a FileHexField from a File object.
      * @param file The file to use.
@@ -60,11 +83,139 @@ public class FileHexField implements HexField {
         return Try.running(() -> new FileHexField(path, options), "Error creating FileHexField");
     }
 
+    /**
+     * Switch this field into write-back mode.
+     * Once enabled, writes are buffered until flushed, or until the number of buffered bytes reaches the threshold.
+     * @param threshold The number of buffered bytes which triggers an automatic flush.
+     */
+    public synchronized void enableWriteBack(long threshold){
+        if(threshold <= 0){
+            throw new IllegalArgumentException("Write-back threshold must be positive");
+        }
+        if(writeBackBuffer == null) {
+            writeBackBuffer = new WriteBackBuffer();
+        }
+        writeBackThreshold = threshold;
+    }
+
+    /**
+     * Check if this field is in write-back mode.
+     * @return True if writes are being buffered.
+     */
+    public synchronized boolean isWriteBack(){
+        return writeBackBuffer != null;
+    }
+
     @Override
     public HexFieldIterator iterator(Pointer position) {
         return new Iterator(this, position.getLocation());
     }
 
+    /**
+     * Write any buffered bytes out to the file.
+     * Each contiguous run is written with a single write.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        WriteBackBuffer buffer = this.writeBackBuffer;
+        if(buffer == null){
+            return;
+        }
+        Lock lock = flushLock.writeLock();
+        lock.lock();
+        try {
+            TreeMap<Long, byte[]> runs = buffer.drain();
+            while(!runs.isEmpty()){
+                Map.Entry<Long, byte[]> run = runs.firstEntry();
+                try {
+                    writeFully(run.getKey(), run.getValue(), 0, run.getValue().length);
+                } catch (IOException e){
+                    //Put back whatever couldn't be written. Writes made since the drain are newer, so they stay on top.
+                    runs.forEach((pos, bites) -> buffer.addUnder(pos, bites, 0, bites.length));
+                    throw e;
+                }
+                runs.pollFirstEntry();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write any buffered bytes, and close the file.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    //Read bytes at a position, overlaying any buffered writes.
+    private byte[] read(long position, int numberOfBytes) throws IOException {
+        byte[] bites = new byte[numberOfBytes];
+        read(position, ByteBuffer.wrap(bites), bites, 0, numberOfBytes);
+        return bites;
+    }
+
+    //Read bytes at a position into dst[offset, offset + length), overlaying any buffered writes.
+    //bb must be a buffer wrapping exactly that part of the array.
+    private void read(long position, ByteBuffer bb, byte[] dst, int offset, int length) throws IOException {
+        WriteBackBuffer buffer = this.writeBackBuffer;
+        if(buffer == null){
+            readUnbuffered(position, bb, length, null);
+            return;
+        }
+        Lock lock = flushLock.readLock();
+        lock.lock();
+        try {
+            readUnbuffered(position, bb, length, buffer);
+            buffer.overlay(position, dst, offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Read bytes from the file. Bytes past the end of the file are only allowed if the buffer covers them.
+    private void readUnbuffered(long position, ByteBuffer bb, int length, WriteBackBuffer buffer) throws IOException {
+        int read = 0;
+        while(read < length){
+            int count = fileChannel.read(bb, position + read);
+            if(count <= 0){
+                break;
+            }
+            read += count;
+        }
+        if(read < length && (buffer == null || !buffer.covers(position + read, length - read))){
+            throw new IllegalStateException("Error reading bytes, expected " + length + " bytes, got " + read);
+        }
+    }
+
+    //Write bytes at a position, either directly or into the write-back buffer.
+    private void write(long position, byte[] bites, int offset, int length) throws IOException {
+        WriteBackBuffer buffer = this.writeBackBuffer;
+        if(buffer == null){
+            writeFully(position, bites, offset, length);
+        } else {
+            buffer.add(position, bites, offset, length);
+            if(buffer.size() >= writeBackThreshold){
+                flush();
+            }
+        }
+    }
+
+    private void writeFully(long position, byte[] bites, int offset, int length) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(bites, offset, length);
+        long current = position;
+        while(bb.hasRemaining()){
+            current += fileChannel.write(bb, current);
+        }
+    }
+
     /**
      * An iterator which allows manipulating and reading a FileHexField.
      * Note: This class is very much not optimized for parallelization. I'm
@@ -74,12 +225,90 @@ public class FileHexField implements HexField {
 
         private long currentPosition;
         private FileHexField hex;
+        //Reused for primitive reads and writes, so they don't allocate.
+        private final byte[] scratch = new byte[4];
+        private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
 
         private Iterator(FileHexField hex, long position){
             this.currentPosition = position;
             this.hex = hex;
         }
 
+        //Read into the first length bytes of the scratch array.
+        private void readScratch(int length){
+            Buffer buffer = scratchBuffer;
+            buffer.clear();
+            buffer.limit(length);
+            try {
+                hex.read(currentPosition, scratchBuffer, scratch, 0, length);
+            } catch (IOException | RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        //Write the first length bytes of the scratch array.
+        private void writeScratch(int length){
+            writeBytes(scratch, 0, length);
+        }
+
+        @Override
+        public int readU8() {
+            readScratch(1);
+            return scratch[0] & 0xFF;
+        }
+
+        @Override
+        public int readU16LE() {
+            readScratch(2);
+            return (scratch[0] & 0xFF) | (scratch[1] & 0xFF) << 8;
+        }
+
+        @Override
+        public int readS32LE() {
+            readScratch(4);
+            return (scratch[0] & 0xFF) | (scratch[1] & 0xFF) << 8 | (scratch[2] & 0xFF) << 16 | (scratch[3] & 0xFF) << 24;
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            try {
+                hex.read(currentPosition, ByteBuffer.wrap(dst, off, len), dst, off, len);
+            } catch (IOException | RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void writeU8(int value) {
+            scratch[0] = (byte)value;
+            writeScratch(1);
+        }
+
+        @Override
+        public void writeU16LE(int value) {
+            scratch[0] = (byte)value;
+            scratch[1] = (byte)(value >>> 8);
+            writeScratch(2);
+        }
+
+        @Override
+        public void writeS32LE(int value) {
+            scratch[0] = (byte)value;
+            scratch[1] = (byte)(value >>> 8);
+            scratch[2] = (byte)(value >>> 16);
+            scratch[3] = (byte)(value >>> 24);
+            writeScratch(4);
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            try {
+                hex.write(currentPosition, src, off, len);
+            } catch (IOException | RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
         @Override
         public HexFieldIterator copy() {
             return new FileHexField.Iterator(this.hex, this.currentPosition);
@@ -87,40 +316,27 @@ public class FileHexField implements HexField {
 
         @Override
         public Try<Byte> getByte(long distance){
-            return Try.running(() -> {
-                ByteBuffer bite = ByteBuffer.allocate(1);
-                int read = hex.fileChannel.read(bite, currentPosition + distance);
-                if (read != 1) {
-                    throw new IllegalStateException("Error reading bytes, expected " + 1 + " byte, got " + read);
-                }
-                return bite.get(0);
-            }, "Error retrieving byte");
+            return Try.running(() -> hex.read(currentPosition + distance, 1)[0], "Error retrieving byte");
         }
 
         @Override
         public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
-            return Try.running(() -> {
-                ByteBuffer bite = ByteBuffer.allocate(numberOfBytes);
-                int read = hex.fileChannel.read(bite, currentPosition + distance);
-                if(read != numberOfBytes){
-                    throw new IllegalStateException("Error reading bytes, expected " + numberOfBytes + " byte, got " + read);
-                }
-                return new ByteWindow(bite);
-            }, "Error retrieving byte");
+            return Try.running(() -> new ByteWindow(ByteBuffer.wrap(hex.read(currentPosition + distance, numberOfBytes))),
+                    "Error retrieving byte");
         }
 
         @Override
         public Try<Integer> writeRelative(long distance, ByteWindow bytes){
             return Try.running(() -> {
-                bytes.forEach((pos, bite) -> {
+                bytes.forEachRun((pos, bites, offset, length) -> {
                     try {
-                        hex.fileChannel.write(HexUtils.toByteBuffer(bite), currentPosition + distance + pos);
+                        hex.write(currentPosition + distance + pos, bites, offset, length);
                     } catch (IOException e) {
                         throw new RuntimeException("Error writing to iterator", e);
                     }
                 });
                 return 1;
-            }, "");
+            }, "Error writing to iterator");
         }
 
         @Override
@@ -20,4 +20,14 @@ public interface HexField {
     default HexFieldIterator iterator(){
         return iterator(Pointer.of(0));
     }
+
+    /**
+     * Hint that a range of bytes will be read soon.
+     * Fields which can read in the background, such as an AsyncHexField, may start reading the range now, so the
+     * later read need not wait as long. By default, this does nothing.
+     * @param position The position of the first byte.
+     * @param length The number of bytes.
+     */
+    default void prefetch(long position, int length){
+    }
 }
@@ -1,14 +1,22 @@
 package com.github.lucbui.file;
 
 import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.utility.Try;
 
+import java.util.Arrays;
+
 /**
  * A custom iterator, modified to better handle fields of data.
  *
  * The traditional iterator follows a "get-and-advance" approach. This doesn't lend itself
  * particularly well to parsing bytes. This approach separates the "get" and "advance" steps, allowing the
  * user to look forwards or backwards relative from their current location before advancing onwards.
+ *
+ * The primitive methods ({@code readU8()}, {@code writeU16LE()}, {@code readBytes()}, etc.) read and write at the
+ * current position without wrapping their results in a Try or ByteWindow, and throw a HexerException on failure.
+ * Like {@code get()} and {@code write()}, they do not advance the iterator. Implementations are encouraged to
+ * override them with allocation-free versions.
  */
 public interface HexFieldIterator {
 
@@ -82,6 +90,112 @@ public interface HexFieldIterator {
      */
     default Try<Integer> write(ByteWindow bytes){return writeRelative(0, bytes);}
 
+    /**
+     * Read an unsigned byte at the current position.
+     * @return The byte, between 0 and 0xFF.
+     * @throws HexerException The byte could not be read.
+     */
+    default int readU8(){
+        return getByte(0).orThrow(HexerException::new) & 0xFF;
+    }
+
+    /**
+     * Read a little-endian unsigned short at the current position.
+     * @return The short, between 0 and 0xFFFF.
+     * @throws HexerException The bytes could not be read.
+     */
+    default int readU16LE(){
+        return (getByte(0).orThrow(HexerException::new) & 0xFF) |
+                (getByte(1).orThrow(HexerException::new) & 0xFF) << 8;
+    }
+
+    /**
+     * Read a little-endian unsigned word at the current position.
+     * @return The word, between 0 and 0xFFFFFFFF.
+     * @throws HexerException The bytes could not be read.
+     */
+    default long readU32LE(){
+        return readS32LE() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Read a little-endian signed word at the current position.
+     * @return The word.
+     * @throws HexerException The bytes could not be read.
+     */
+    default int readS32LE(){
+        return (getByte(0).orThrow(HexerException::new) & 0xFF) |
+                (getByte(1).orThrow(HexerException::new) & 0xFF) << 8 |
+                (getByte(2).orThrow(HexerException::new) & 0xFF) << 16 |
+                (getByte(3).orThrow(HexerException::new) & 0xFF) << 24;
+    }
+
+    /**
+     * Read a number of bytes at the current position into an array.
+     * @param dst The array to read into.
+     * @param off The offset in the array to start reading into.
+     * @param len The number of bytes to read.
+     * @throws HexerException The bytes could not be read.
+     */
+    default void readBytes(byte[] dst, int off, int len){
+        if(off < 0 || len < 0 || off + len > dst.length){
+            throw new IndexOutOfBoundsException("Invalid offset or length for array of size " + dst.length);
+        }
+        ByteWindow window = get(len).orThrow(HexerException::new);
+        for(int idx = 0; idx < len; idx++){
+            dst[off + idx] = window.get(idx);
+        }
+    }
+
+    /**
+     * Write an unsigned byte at the current position.
+     * @param value The byte to write. Only the lowest 8 bits are written.
+     * @throws HexerException The byte could not be written.
+     */
+    default void writeU8(int value){
+        write(ByteWindow.of(0, (byte)value)).orThrow(HexerException::new);
+    }
+
+    /**
+     * Write a little-endian unsigned short at the current position.
+     * @param value The short to write. Only the lowest 16 bits are written.
+     * @throws HexerException The bytes could not be written.
+     */
+    default void writeU16LE(int value){
+        writeBytes(new byte[]{(byte)value, (byte)(value >>> 8)}, 0, 2);
+    }
+
+    /**
+     * Write a little-endian unsigned word at the current position.
+     * @param value The word to write. Only the lowest 32 bits are written.
+     * @throws HexerException The bytes could not be written.
+     */
+    default void writeU32LE(long value){
+        writeS32LE((int)value);
+    }
+
+    /**
+     * Write a little-endian signed word at the current position.
+     * @param value The word to write.
+     * @throws HexerException The bytes could not be written.
+     */
+    default void writeS32LE(int value){
+        writeBytes(new byte[]{(byte)value, (byte)(value >>> 8), (byte)(value >>> 16), (byte)(value >>> 24)}, 0, 4);
+    }
+
+    /**
+     * Write a number of bytes from an array at the current position.
+     * @param src The array to write from.
+     * @param off The offset in the array to start writing from.
+     * @param len The number of bytes to write.
+     * @throws HexerException The bytes could not be written.
+     */
+    default void writeBytes(byte[] src, int off, int len){
+        ByteWindow window = new ByteWindow();
+        window.set(0, Arrays.copyOfRange(src, off, off + len));
+        write(window).orThrow(HexerException::new);
+    }
+
     /**
      * Advances the iterator forward some amount.
      * A positive distance should indicate moving forward past the iterator. A negative distance
@@ -0,0 +1,387 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.exception.HexerException;
+import com.github.lucbui.utility.Try;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A hex field derived from a memory-mapped file.
+ * Rather than issuing a read for every access, the whole file is mapped into memory once, and bytes are
+ * retrieved directly from the mapping. A single mapping is limited to 2GB, so the file is mapped in segments;
+ * accesses that straddle two segments are stitched together byte-by-byte.
+ *
+ * The size of the field is fixed to the size of the file when it was mapped. Reads or writes past the end of the
+ * file fail.
+ */
+public class MappedHexField implements HexField, Flushable, Closeable {
+
+    /**
+     * The default size of each mapped segment, 1GB.
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel fileChannel;
+    private final FileChannel.MapMode mapMode;
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    private final long size;
+
+    /**
+     * Create a MappedHexField from a Path object.
+     * @param path The path to use.
+     * @param mapMode The mode to map the file in. Only READ_ONLY and READ_WRITE are supported.
+     * @param segmentSize The size of each mapped segment.
+     * @throws IOException
+     */
+    MappedHexField(Path path, FileChannel.MapMode mapMode, int segmentSize) throws IOException {
+        if(mapMode != FileChannel.MapMode.READ_ONLY && mapMode != FileChannel.MapMode.READ_WRITE) {
+            throw new IllegalArgumentException("Unsupported map mode: " + mapMode);
+        }
+        if(segmentSize <= 0){
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.mapMode = mapMode;
+        this.segmentSize = segmentSize;
+        if(mapMode == FileChannel.MapMode.READ_ONLY) {
+            this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        } else {
+            this.fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        try {
+            this.size = fileChannel.size();
+            int numberOfSegments = (int)((size + segmentSize - 1) / segmentSize);
+            this.segments = new MappedByteBuffer[numberOfSegments];
+            for(int idx = 0; idx < numberOfSegments; idx++){
+                long start = (long)idx * segmentSize;
+                segments[idx] = fileChannel.map(mapMode, start, Math.min(segmentSize, size - start));
+                segments[idx].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException | RuntimeException e) {
+            //Don't leak the channel if the file can't be mapped.
+            try {
+                fileChannel.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Create a MappedHexField from a File object.
+     * @param file The file to use.
+     * @param mapMode The mode to map the file in. Only READ_ONLY and READ_WRITE are supported.
+     * @return A Try containing the created MappedHexField, or an empty Try if an IOException occured.
+     */
+    public static Try<MappedHexField> get(File file, FileChannel.MapMode mapMode){
+        return get(file.toPath(), mapMode);
+    }
+
+    /**
+     * Create a MappedHexField from a Path object.
+     * @param path The path to use.
+     * @param mapMode The mode to map the file in. Only READ_ONLY and READ_WRITE are supported.
+     * @return A Try containing the created MappedHexField, or an empty Try if an IOException occured.
+     */
+    public static Try<MappedHexField> get(Path path, FileChannel.MapMode mapMode){
+        return Try.running(() -> new MappedHexField(path, mapMode, DEFAULT_SEGMENT_SIZE), "Error creating MappedHexField");
+    }
+
+    /**
+     * Create a MappedHexField from a Path object, mapping it in the mode its open options imply.
+     * The file is mapped READ_WRITE if the options include WRITE, and READ_ONLY otherwise.
+     * @param path The path to use.
+     * @param options Options the file would be opened with.
+     * @return A Try containing the created MappedHexField, or an empty Try if an IOException occured.
+     */
+    public static Try<MappedHexField> get(Path path, OpenOption... options){
+        return get(path, getMapMode(options));
+    }
+
+    /**
+     * Get the mode a file opened with some options should be mapped in.
+     * @param options The options the file would be opened with.
+     * @return READ_WRITE if the options include WRITE, or READ_ONLY otherwise
+     */
+    public static FileChannel.MapMode getMapMode(OpenOption... options){
+        return Arrays.asList(options).contains(StandardOpenOption.WRITE) ?
+                FileChannel.MapMode.READ_WRITE :
+                FileChannel.MapMode.READ_ONLY;
+    }
+
+    /**
+     * Get the size of the mapped file, in bytes.
+     * @return The size of the file.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Get the mode this file was mapped with.
+     * @return The map mode.
+     */
+    public FileChannel.MapMode getMapMode() {
+        return mapMode;
+    }
+
+    @Override
+    public HexFieldIterator iterator(Pointer position) {
+        return new Iterator(this, position.getLocation());
+    }
+
+    /**
+     * Force any changes made to the mapped segments out to the file.
+     */
+    @Override
+    public void flush() {
+        if(mapMode == FileChannel.MapMode.READ_WRITE) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Flush any changes, and close the underlying channel.
+     * The mapping itself remains valid until it is garbage collected.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        fileChannel.close();
+    }
+
+    //Throws an IndexOutOfBoundsException if [position, position + length) is not inside the file.
+    private void checkBounds(long position, long length){
+        if(position < 0 || length < 0 || position + length > size){
+            throw new IndexOutOfBoundsException("Range " + position + "-" + (position + length) + " outside of mapped file of size " + size);
+        }
+    }
+
+    private byte getAt(long position){
+        return segments[(int)(position / segmentSize)].get((int)(position % segmentSize));
+    }
+
+    private void putAt(long position, byte bite){
+        segments[(int)(position / segmentSize)].put((int)(position % segmentSize), bite);
+    }
+
+    //Read length bytes at the position.
+    private byte[] read(long position, int length){
+        byte[] bites = new byte[length];
+        read(position, bites, 0, length);
+        return bites;
+    }
+
+    //Read length bytes at the position into dst. Reads contained in one segment are copied in bulk.
+    private void read(long position, byte[] dst, int offset, int length){
+        checkBounds(position, length);
+        int segment = (int)(position / segmentSize);
+        int segmentPosition = (int)(position % segmentSize);
+        if(segmentPosition + length <= segments[segment].limit()){
+            ByteBuffer view = segments[segment].duplicate();
+            //Cast keeps this callable on Java 8, where ByteBuffer does not override position(int)
+            ((Buffer) view).position(segmentPosition);
+            view.get(dst, offset, length);
+        } else {
+            for(int idx = 0; idx < length; idx++){
+                dst[offset + idx] = getAt(position + idx);
+            }
+        }
+    }
+
+    //Write length bytes from src at the position. Writes contained in one segment are copied in bulk.
+    private void write(long position, byte[] src, int offset, int length){
+        checkBounds(position, length);
+        int segment = (int)(position / segmentSize);
+        int segmentPosition = (int)(position % segmentSize);
+        if(segmentPosition + length <= segments[segment].limit()){
+            ByteBuffer view = segments[segment].duplicate();
+            ((Buffer) view).position(segmentPosition);
+            view.put(src, offset, length);
+        } else {
+            for(int idx = 0; idx < length; idx++){
+                putAt(position + idx, src[offset + idx]);
+            }
+        }
+    }
+
+    //Get the segment holding [position, position + length), or null if the range straddles two segments.
+    private MappedByteBuffer segmentFor(long position, int length){
+        checkBounds(position, length);
+        MappedByteBuffer segment = segments[(int)(position / segmentSize)];
+        return (position % segmentSize) + length <= segment.limit() ? segment : null;
+    }
+
+    /**
+     * An iterator which allows manipulating and reading a MappedHexField.
+     */
+    private static class Iterator implements HexFieldIterator {
+
+        private long currentPosition;
+        private MappedHexField hex;
+
+        private Iterator(MappedHexField hex, long position){
+            this.currentPosition = position;
+            this.hex = hex;
+        }
+
+        @Override
+        public HexFieldIterator copy() {
+            return new MappedHexField.Iterator(this.hex, this.currentPosition);
+        }
+
+        @Override
+        public Try<Byte> getByte(long distance) {
+            return Try.running(() -> {
+                hex.checkBounds(currentPosition + distance, 1);
+                return hex.getAt(currentPosition + distance);
+            }, "Error retrieving byte");
+        }
+
+        @Override
+        public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+            return Try.running(() -> new ByteWindow(ByteBuffer.wrap(hex.read(currentPosition + distance, numberOfBytes))),
+                    "Error retrieving byte");
+        }
+
+        @Override
+        public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+            return Try.running(() -> {
+                long start = currentPosition + distance;
+                bytes.forEachRun((pos, bites, offset, length) -> hex.write(start + pos, bites, offset, length));
+                return 1;
+            }, "Error writing to iterator");
+        }
+
+        @Override
+        public int readU8() {
+            try {
+                hex.checkBounds(currentPosition, 1);
+                return hex.getAt(currentPosition) & 0xFF;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readU16LE() {
+            try {
+                MappedByteBuffer segment = hex.segmentFor(currentPosition, 2);
+                if(segment != null){
+                    return segment.getShort((int)(currentPosition % hex.segmentSize)) & 0xFFFF;
+                }
+                return (hex.getAt(currentPosition) & 0xFF) | (hex.getAt(currentPosition + 1) & 0xFF) << 8;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public int readS32LE() {
+            try {
+                MappedByteBuffer segment = hex.segmentFor(currentPosition, 4);
+                if(segment != null){
+                    return segment.getInt((int)(currentPosition % hex.segmentSize));
+                }
+                int value = 0;
+                for(int idx = 3; idx >= 0; idx--){
+                    value = (value << 8) | (hex.getAt(currentPosition + idx) & 0xFF);
+                }
+                return value;
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            try {
+                hex.read(currentPosition, dst, off, len);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error retrieving bytes", e);
+            }
+        }
+
+        @Override
+        public void writeU8(int value) {
+            try {
+                hex.checkBounds(currentPosition, 1);
+                hex.putAt(currentPosition, (byte)value);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeU16LE(int value) {
+            try {
+                MappedByteBuffer segment = hex.segmentFor(currentPosition, 2);
+                if(segment != null){
+                    segment.putShort((int)(currentPosition % hex.segmentSize), (short)value);
+                } else {
+                    hex.putAt(currentPosition, (byte)value);
+                    hex.putAt(currentPosition + 1, (byte)(value >>> 8));
+                }
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeS32LE(int value) {
+            try {
+                MappedByteBuffer segment = hex.segmentFor(currentPosition, 4);
+                if(segment != null){
+                    segment.putInt((int)(currentPosition % hex.segmentSize), value);
+                } else {
+                    for(int idx = 0; idx < 4; idx++){
+                        hex.putAt(currentPosition + idx, (byte)(value >>> (8 * idx)));
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            try {
+                hex.write(currentPosition, src, off, len);
+            } catch (RuntimeException e) {
+                throw new HexerException("Error writing bytes", e);
+            }
+        }
+
+        @Override
+        public void advanceRelative(long distance) {
+            currentPosition += distance;
+        }
+
+        @Override
+        public void advanceTo(long pointer) {
+            currentPosition = pointer;
+        }
+
+        @Override
+        public long getPosition() {
+            return currentPosition;
+        }
+    }
+}
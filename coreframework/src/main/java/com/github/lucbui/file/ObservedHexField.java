@@ -0,0 +1,185 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.utility.Try;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A hex field which reports every write made through it.
+ * Reads and writes are passed straight through to the wrapped field. After each write, the listener is told which
+ * range of bytes was written, whether or not the write succeeded, so it can discard anything derived from them.
+ */
+public class ObservedHexField implements HexField, Flushable, Closeable {
+
+    private final HexField delegate;
+    private final WriteListener listener;
+
+    /**
+     * Create an ObservedHexField
+     * @param delegate The field to observe.
+     * @param listener The listener to tell about writes.
+     */
+    public ObservedHexField(HexField delegate, WriteListener listener){
+        this.delegate = Objects.requireNonNull(delegate);
+        this.listener = Objects.requireNonNull(listener);
+    }
+
+    /**
+     * Get the field being observed.
+     * @return The wrapped field.
+     */
+    public HexField getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public HexFieldIterator iterator(Pointer position) {
+        return new Iterator(this, delegate.iterator(position));
+    }
+
+    @Override
+    public void prefetch(long position, int length) {
+        delegate.prefetch(position, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(delegate instanceof Flushable){
+            ((Flushable) delegate).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(delegate instanceof Closeable){
+            ((Closeable) delegate).close();
+        }
+    }
+
+    /**
+     * Listens for writes to an ObservedHexField.
+     */
+    @FunctionalInterface
+    public interface WriteListener {
+        /**
+         * Called after a range of bytes was written.
+         * @param position The position of the first byte written.
+         * @param length The number of bytes written.
+         */
+        void written(long position, long length);
+    }
+
+    /**
+     * An iterator which reports its writes to the field's listener.
+     */
+    private static class Iterator implements HexFieldIterator {
+
+        private final ObservedHexField hex;
+        private final HexFieldIterator delegate;
+
+        private Iterator(ObservedHexField hex, HexFieldIterator delegate){
+            this.hex = hex;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HexFieldIterator copy() {
+            return new Iterator(hex, delegate.copy());
+        }
+
+        @Override
+        public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+            return delegate.getRelative(distance, numberOfBytes);
+        }
+
+        @Override
+        public Try<Byte> getByte(long distance) {
+            return delegate.getByte(distance);
+        }
+
+        @Override
+        public int readU8() {
+            return delegate.readU8();
+        }
+
+        @Override
+        public int readU16LE() {
+            return delegate.readU16LE();
+        }
+
+        @Override
+        public int readS32LE() {
+            return delegate.readS32LE();
+        }
+
+        @Override
+        public void readBytes(byte[] dst, int off, int len) {
+            delegate.readBytes(dst, off, len);
+        }
+
+        @Override
+        public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+            long start = delegate.getPosition() + distance;
+            try {
+                return delegate.writeRelative(distance, bytes);
+            } finally {
+                bytes.forEachRun((pos, bites, offset, length) -> hex.listener.written(start + pos, length));
+            }
+        }
+
+        @Override
+        public void writeU8(int value) {
+            try {
+                delegate.writeU8(value);
+            } finally {
+                hex.listener.written(delegate.getPosition(), 1);
+            }
+        }
+
+        @Override
+        public void writeU16LE(int value) {
+            try {
+                delegate.writeU16LE(value);
+            } finally {
+                hex.listener.written(delegate.getPosition(), 2);
+            }
+        }
+
+        @Override
+        public void writeS32LE(int value) {
+            try {
+                delegate.writeS32LE(value);
+            } finally {
+                hex.listener.written(delegate.getPosition(), 4);
+            }
+        }
+
+        @Override
+        public void writeBytes(byte[] src, int off, int len) {
+            try {
+                delegate.writeBytes(src, off, len);
+            } finally {
+                hex.listener.written(delegate.getPosition(), len);
+            }
+        }
+
+        @Override
+        public void advanceRelative(long distance) {
+            delegate.advanceRelative(distance);
+        }
+
+        @Override
+        public void advanceTo(long pointer) {
+            delegate.advanceTo(pointer);
+        }
+
+        @Override
+        public long getPosition() {
+            return delegate.getPosition();
+        }
+    }
+}
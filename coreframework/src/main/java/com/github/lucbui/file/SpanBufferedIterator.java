@@ -0,0 +1,297 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.utility.Try;
+
+import java.util.Arrays;
+
+/**
+ * An iterator which serves reads of a span of bytes from memory.
+ *
+ * The span is fetched with a single bulk read when the iterator is created. Reads which lie entirely inside the span
+ * are decoded from the buffer; anything else, such as an absolute field or a pointer elsewhere in the file, falls
+ * back to the underlying iterator. Copies share the span, so every field and nested structure read through them
+ * benefits from it.
+ *
+ * Writes to a prefetched span go to the underlying iterator, and end the span, since the buffer no longer matches the
+ * field. A staged span instead takes writes into the buffer, and writes the whole span back with a single bulk write
+ * when {@code flush()} is called. Writes which reach outside a staged span also go to the underlying iterator.
+ * Once {@code release()} is called, the span ends, and the buffer can be reused. Iterators which outlive the
+ * span continue to work, reading from the underlying field.
+ */
+public class SpanBufferedIterator implements HexFieldIterator {
+
+    private final Span span;
+    private final HexFieldIterator delegate;
+    private long position;
+
+    private SpanBufferedIterator(Span span, HexFieldIterator delegate, long position){
+        this.span = span;
+        this.delegate = delegate;
+        this.position = position;
+    }
+
+    /**
+     * Prefetch a span of bytes, starting at an iterator's position.
+     * @param source The iterator to read from. Its position is not changed.
+     * @param length The number of bytes to prefetch
+     * @param buffer A buffer to hold the span. If null or too small, a new buffer is allocated.
+     * @return A Try containing the prefetching iterator, or an error if the span could not be read
+     */
+    public static Try<SpanBufferedIterator> prefetch(HexFieldIterator source, int length, byte[] buffer){
+        return create(source, length, buffer, false);
+    }
+
+    /**
+     * Prefetch a span of bytes, starting at an iterator's position, and take writes to it in memory.
+     * Nothing is written to the underlying field until {@code flush()} is called.
+     * @param source The iterator to read from. Its position is not changed.
+     * @param length The number of bytes to prefetch
+     * @param buffer A buffer to hold the span. If null or too small, a new buffer is allocated.
+     * @return A Try containing the staging iterator, or an error if the span could not be read
+     */
+    public static Try<SpanBufferedIterator> stage(HexFieldIterator source, int length, byte[] buffer){
+        return create(source, length, buffer, true);
+    }
+
+    /**
+     * Take writes to a span of bytes in memory, starting at an iterator's position, without reading it first.
+     * This is useful when the span's contents are already known, such as from an earlier read.
+     * @param source The iterator to write to. Its position is not changed.
+     * @param contents The span's current contents. The array is copied.
+     * @return The staging iterator
+     */
+    public static SpanBufferedIterator stage(HexFieldIterator source, byte[] contents){
+        Span span = new Span(contents.clone(), source.getPosition(), contents.length, true);
+        return new SpanBufferedIterator(span, source.copy(), source.getPosition());
+    }
+
+    private static Try<SpanBufferedIterator> create(HexFieldIterator source, int length, byte[] buffer, boolean writable){
+        return Try.running(() -> {
+            byte[] bytes = buffer == null || buffer.length < length ? new byte[length] : buffer;
+            source.readBytes(bytes, 0, length);
+            Span span = new Span(bytes, source.getPosition(), length, writable);
+            return new SpanBufferedIterator(span, source.copy(), source.getPosition());
+        }, "Error prefetching " + length + " bytes");
+    }
+
+    /**
+     * Get the buffer holding the span.
+     * @return The buffer
+     */
+    public byte[] getBuffer(){
+        return span.buffer;
+    }
+
+    /**
+     * End the span.
+     * This iterator, and all its copies, read from the underlying iterator from now on.
+     */
+    public void release(){
+        span.active = false;
+    }
+
+    /**
+     * Write a staged span back to the underlying field, with a single bulk write, and end the span.
+     * Nothing is written if the span was not staged, or nothing in it was written to.
+     * @return A Try indicating success, or an error if the span could not be written
+     */
+    public Try<Void> flush(){
+        return flush(null);
+    }
+
+    /**
+     * Write the bytes of a staged span which differ from its original contents, and end the span.
+     * Each run of changed bytes is written with a single write. Nothing is written if the span was not staged, or
+     * nothing in it changed.
+     * @param original The span's original contents, or null to write the entire span if it was written to
+     * @return A Try indicating success, or an error if the span could not be written
+     */
+    public Try<Void> flush(byte[] original){
+        return Try.running(() -> {
+            if(span.writable && span.dirty && span.active){
+                if(original == null){
+                    delegate.copy(span.start).writeBytes(span.buffer, 0, span.length);
+                } else {
+                    writeChanges(original);
+                }
+            }
+            release();
+            return null;
+        }, "Error writing " + span.length + " bytes");
+    }
+
+    //Write each run of bytes which differs from the original.
+    private void writeChanges(byte[] original){
+        int idx = 0;
+        while(idx < span.length){
+            if(idx < original.length && span.buffer[idx] == original[idx]){
+                idx++;
+                continue;
+            }
+            int runStart = idx;
+            while(idx < span.length && (idx >= original.length || span.buffer[idx] != original[idx])){
+                idx++;
+            }
+            delegate.copy(span.start + runStart).writeBytes(span.buffer, runStart, idx - runStart);
+        }
+    }
+
+    //Get the index into the buffer of [pos, pos + length), or -1 if it's not entirely inside the span.
+    private int indexOf(long pos, int length){
+        long index = pos - span.start;
+        if(span.active && index >= 0 && length >= 0 && index + length <= span.length){
+            return (int) index;
+        }
+        return -1;
+    }
+
+    //Position the underlying iterator where this one is, for operations outside the span.
+    private HexFieldIterator delegate(){
+        delegate.advanceTo(position);
+        return delegate;
+    }
+
+    @Override
+    public HexFieldIterator copy() {
+        return new SpanBufferedIterator(span, delegate.copy(), position);
+    }
+
+    @Override
+    public Try<ByteWindow> getRelative(long distance, int numberOfBytes) {
+        int index = indexOf(position + distance, numberOfBytes);
+        if(index < 0){
+            return delegate().getRelative(distance, numberOfBytes);
+        }
+        ByteWindow window = new ByteWindow();
+        window.set(0, Arrays.copyOfRange(span.buffer, index, index + numberOfBytes));
+        return Try.ok(window);
+    }
+
+    @Override
+    public Try<Byte> getByte(long distance) {
+        int index = indexOf(position + distance, 1);
+        return index < 0 ? delegate().getByte(distance) : Try.ok(span.buffer[index]);
+    }
+
+    @Override
+    public int readU8() {
+        int index = indexOf(position, 1);
+        return index < 0 ? delegate().readU8() : span.buffer[index] & 0xFF;
+    }
+
+    @Override
+    public int readU16LE() {
+        int index = indexOf(position, 2);
+        if(index < 0){
+            return delegate().readU16LE();
+        }
+        byte[] b = span.buffer;
+        return (b[index] & 0xFF) | (b[index + 1] & 0xFF) << 8;
+    }
+
+    @Override
+    public int readS32LE() {
+        int index = indexOf(position, 4);
+        if(index < 0){
+            return delegate().readS32LE();
+        }
+        byte[] b = span.buffer;
+        return (b[index] & 0xFF) | (b[index + 1] & 0xFF) << 8 | (b[index + 2] & 0xFF) << 16 | (b[index + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int off, int len) {
+        if(off < 0 || len < 0 || off + len > dst.length){
+            throw new IndexOutOfBoundsException("Invalid offset or length for array of size " + dst.length);
+        }
+        int index = indexOf(position, len);
+        if(index < 0){
+            delegate().readBytes(dst, off, len);
+        } else {
+            System.arraycopy(span.buffer, index, dst, off, len);
+        }
+    }
+
+    //Copy a write into the span, if it is staged. Returns true if the span holds all of the write.
+    private boolean writeToSpan(long pos, byte[] src, int off, int len){
+        if(!span.writable || !span.active){
+            release();
+            return false;
+        }
+        long from = Math.max(pos, span.start);
+        long to = Math.min(pos + len, span.start + span.length);
+        if(from < to){
+            System.arraycopy(src, off + (int)(from - pos), span.buffer, (int)(from - span.start), (int)(to - from));
+            span.dirty = true;
+        }
+        return from == pos && to == pos + len;
+    }
+
+    @Override
+    public Try<Integer> writeRelative(long distance, ByteWindow bytes) {
+        long start = position + distance;
+        boolean[] contained = {true};
+        bytes.forEachRun((pos, bites, offset, length) -> contained[0] &= writeToSpan(start + pos, bites, offset, length));
+        return contained[0] ? Try.ok(1) : delegate().writeRelative(distance, bytes);
+    }
+
+    @Override
+    public void writeU8(int value) {
+        writeBytes(new byte[]{(byte)value}, 0, 1);
+    }
+
+    @Override
+    public void writeU16LE(int value) {
+        writeBytes(new byte[]{(byte)value, (byte)(value >>> 8)}, 0, 2);
+    }
+
+    @Override
+    public void writeS32LE(int value) {
+        writeBytes(new byte[]{(byte)value, (byte)(value >>> 8), (byte)(value >>> 16), (byte)(value >>> 24)}, 0, 4);
+    }
+
+    @Override
+    public void writeBytes(byte[] src, int off, int len) {
+        if(off < 0 || len < 0 || off + len > src.length){
+            throw new IndexOutOfBoundsException("Invalid offset or length for array of size " + src.length);
+        }
+        if(!writeToSpan(position, src, off, len)){
+            delegate().writeBytes(src, off, len);
+        }
+    }
+
+    @Override
+    public void advanceRelative(long distance) {
+        position += distance;
+    }
+
+    @Override
+    public void advanceTo(long pointer) {
+        position = pointer;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * The prefetched bytes, shared between an iterator and its copies.
+     */
+    private static class Span {
+        private final byte[] buffer;
+        private final long start;
+        private final int length;
+        private final boolean writable;
+        private volatile boolean active = true;
+        private volatile boolean dirty = false;
+
+        private Span(byte[] buffer, long start, int length, boolean writable){
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+            this.writable = writable;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.lucbui.file;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A buffer of pending writes, stored as contiguous runs of bytes.
+ * Runs which overlap or touch are merged as they are added, so the buffer always holds the fewest
+ * runs possible. Later writes win where runs overlap.
+ */
+class WriteBackBuffer {
+
+    private final TreeMap<Long, byte[]> runs = new TreeMap<>();
+    private long size;
+
+    /**
+     * Add bytes to the buffer.
+     * @param position The position of the first byte.
+     * @param bytes The array containing the bytes.
+     * @param offset The offset of the first byte in the array.
+     * @param length The number of bytes to add.
+     */
+    synchronized void add(long position, byte[] bytes, int offset, int length){
+        add(position, bytes, offset, length, false);
+    }
+
+    /**
+     * Add bytes to the buffer, underneath any bytes already buffered.
+     * Only bytes which aren't buffered yet are added, so this never overwrites a later write.
+     * @param position The position of the first byte.
+     * @param bytes The array containing the bytes.
+     * @param offset The offset of the first byte in the array.
+     * @param length The number of bytes to add.
+     */
+    synchronized void addUnder(long position, byte[] bytes, int offset, int length){
+        add(position, bytes, offset, length, true);
+    }
+
+    private void add(long position, byte[] bytes, int offset, int length, boolean under){
+        if(length == 0){
+            return;
+        }
+        long start = position;
+        long end = position + length;
+        //Find every run which overlaps or touches [start, end), and widen the range to cover them.
+        Map.Entry<Long, byte[]> before = runs.floorEntry(position);
+        if(before != null && before.getKey() + before.getValue().length >= position){
+            start = before.getKey();
+        }
+        Map<Long, byte[]> touching = runs.subMap(start, true, end, true);
+        for(Map.Entry<Long, byte[]> run : touching.entrySet()){
+            end = Math.max(end, run.getKey() + run.getValue().length);
+        }
+        byte[] merged = new byte[(int)(end - start)];
+        if(under){
+            System.arraycopy(bytes, offset, merged, (int)(position - start), length);
+        }
+        for(Map.Entry<Long, byte[]> run : touching.entrySet()){
+            System.arraycopy(run.getValue(), 0, merged, (int)(run.getKey() - start), run.getValue().length);
+            size -= run.getValue().length;
+        }
+        if(!under){
+            System.arraycopy(bytes, offset, merged, (int)(position - start), length);
+        }
+        touching.clear();
+        runs.put(start, merged);
+        size += merged.length;
+    }
+
+    /**
+     * Copy any buffered bytes in [position, position + length) over the top of an array.
+     * @param position The position of the first byte in the array.
+     * @param dst The array to copy into.
+     * @param offset The offset in the array which corresponds to position.
+     * @param length The number of bytes in the array to consider.
+     */
+    synchronized void overlay(long position, byte[] dst, int offset, int length){
+        if(runs.isEmpty()){
+            return;
+        }
+        long end = position + length;
+        Long from = runs.floorKey(position);
+        for(Map.Entry<Long, byte[]> run : runs.subMap(from == null ? position : from, true, end, false).entrySet()){
+            long runStart = run.getKey();
+            long runEnd = runStart + run.getValue().length;
+            long copyStart = Math.max(runStart, position);
+            long copyEnd = Math.min(runEnd, end);
+            if(copyStart < copyEnd){
+                System.arraycopy(run.getValue(), (int)(copyStart - runStart), dst, offset + (int)(copyStart - position), (int)(copyEnd - copyStart));
+            }
+        }
+    }
+
+    /**
+     * Test if [position, position + length) is completely covered by buffered bytes.
+     * @param position The first position.
+     * @param length The number of bytes.
+     * @return True if every byte in the range is buffered.
+     */
+    synchronized boolean covers(long position, long length){
+        Map.Entry<Long, byte[]> run = runs.floorEntry(position);
+        return run != null && run.getKey() + run.getValue().length >= position + length;
+    }
+
+    /**
+     * Get the number of bytes currently buffered.
+     * @return The number of bytes.
+     */
+    synchronized long size(){
+        return size;
+    }
+
+    /**
+     * Remove every run from the buffer, in order of position.
+     * @return The runs, keyed by their starting position.
+     */
+    synchronized TreeMap<Long, byte[]> drain(){
+        TreeMap<Long, byte[]> drained = new TreeMap<>(runs);
+        runs.clear();
+        size = 0;
+        return drained;
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A table read into columns by a ColumnarTableReader.
+ *
+ * Each column is an array with one element per row, named after the field it was read from. UnsignedByte and
+ * UnsignedShort fields are held in {@code byte[]} and {@code short[]} columns, as their raw bits; use
+ * {@code Byte.toUnsignedInt()} and {@code Short.toUnsignedInt()}, or {@code getLong()}, to get their values.
+ * UnsignedWord fields are held in {@code long[]} columns. Every other field is held in an {@code Object[]} column.
+ *
+ * The columns are the table's own arrays, not copies, so changes to them are seen by every accessor.
+ * @param <T> The class of each row
+ * @see ColumnarTableReader
+ */
+public class ColumnarTable<T> {
+
+    private final StructureLayout layout;
+    private final int size;
+    private final Map<String, Object> columns;
+
+    ColumnarTable(StructureLayout layout, int size, Map<String, Object> columns){
+        this.layout = layout;
+        this.size = size;
+        this.columns = Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Get the layout of the class each row was read as.
+     * @return The layout
+     */
+    public StructureLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Get the number of rows.
+     * @return The number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the name of every column, in the order the fields are declared.
+     * @return An unmodifiable set of names
+     */
+    public Set<String> getColumnNames(){
+        return columns.keySet();
+    }
+
+    /**
+     * Get a column.
+     * @param name The name of the field
+     * @return The column's array
+     * @throws IllegalArgumentException There is no column with that name
+     */
+    public Object getColumn(String name){
+        Object column = columns.get(name);
+        if(column == null){
+            throw new IllegalArgumentException("No column " + name + " in " + layout.getType().getName());
+        }
+        return column;
+    }
+
+    private <C> C getColumn(String name, Class<C> type){
+        Object column = getColumn(name);
+        if(!type.isInstance(column)){
+            throw new IllegalArgumentException("Column " + name + " is a " + column.getClass().getSimpleName() +
+                    ", not a " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * Get an UnsignedByte column, as raw bits.
+     * @param name The name of the field
+     * @return The column
+     * @throws IllegalArgumentException There is no such column, or it is not a byte[]
+     */
+    public byte[] getBytes(String name){
+        return getColumn(name, byte[].class);
+    }
+
+    /**
+     * Get an UnsignedShort column, as raw bits.
+     * @param name The name of the field
+     * @return The column
+     * @throws IllegalArgumentException There is no such column, or it is not a short[]
+     */
+    public short[] getShorts(String name){
+        return getColumn(name, short[].class);
+    }
+
+    /**
+     * Get an UnsignedWord column.
+     * @param name The name of the field
+     * @return The column
+     * @throws IllegalArgumentException There is no such column, or it is not a long[]
+     */
+    public long[] getLongs(String name){
+        return getColumn(name, long[].class);
+    }
+
+    /**
+     * Get a column of objects.
+     * @param name The name of the field
+     * @return The column
+     * @throws IllegalArgumentException There is no such column, or it is not an Object[]
+     */
+    public Object[] getObjects(String name){
+        return getColumn(name, Object[].class);
+    }
+
+    /**
+     * Get the numeric value of a field in a row.
+     * @param name The name of the field
+     * @param row The index of the row
+     * @return The unsigned value
+     * @throws IllegalArgumentException There is no such column, or it is an object column
+     */
+    public long getLong(String name, int row){
+        Object column = getColumn(name);
+        if(column instanceof byte[]){
+            return Byte.toUnsignedLong(((byte[]) column)[row]);
+        } else if(column instanceof short[]){
+            return Short.toUnsignedLong(((short[]) column)[row]);
+        } else if(column instanceof long[]){
+            return ((long[]) column)[row];
+        }
+        throw new IllegalArgumentException("Column " + name + " is not numeric");
+    }
+
+    /**
+     * Get the value of a field in a row, as the object the field would hold.
+     * Numeric columns create an UnsignedByte, UnsignedShort or UnsignedWord.
+     * @param name The name of the field
+     * @param row The index of the row
+     * @return The value
+     * @throws IllegalArgumentException There is no such column
+     */
+    public Object get(String name, int row){
+        Object column = getColumn(name);
+        if(column instanceof byte[]){
+            return UnsignedByte.valueOf(Byte.toUnsignedInt(((byte[]) column)[row]));
+        } else if(column instanceof short[]){
+            return UnsignedShort.valueOf(Short.toUnsignedInt(((short[]) column)[row]));
+        } else if(column instanceof long[]){
+            return UnsignedWord.valueOf(((long[]) column)[row]);
+        }
+        return ((Object[]) column)[row];
+    }
+
+    /**
+     * Get an accessor for a single row.
+     * @param row The index of the row
+     * @return The row
+     * @throws IndexOutOfBoundsException The index is outside the table
+     */
+    public Row row(int row){
+        if(row < 0 || row >= size){
+            throw new IndexOutOfBoundsException("Row " + row + " is outside a table of " + size + " rows");
+        }
+        return new Row(row);
+    }
+
+    /**
+     * A single row of a ColumnarTable, which reads its fields from the table's columns.
+     */
+    public class Row {
+        private final int index;
+
+        private Row(int index){
+            this.index = index;
+        }
+
+        /**
+         * Get the index of this row.
+         * @return The index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Get the numeric value of a field.
+         * @param name The name of the field
+         * @return The unsigned value
+         * @see ColumnarTable#getLong(String, int)
+         */
+        public long getLong(String name){
+            return ColumnarTable.this.getLong(name, index);
+        }
+
+        /**
+         * Get the value of a field, as the object the field would hold.
+         * @param name The name of the field
+         * @return The value
+         * @see ColumnarTable#get(String, int)
+         */
+        public Object get(String name){
+            return ColumnarTable.this.get(name, index);
+        }
+    }
+}
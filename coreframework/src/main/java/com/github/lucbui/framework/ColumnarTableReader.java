@@ -0,0 +1,297 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.file.SpanBufferedIterator;
+import com.github.lucbui.pipeline.ArrayFieldCodec;
+import com.github.lucbui.pipeline.exceptions.ReadPipeException;
+import com.github.lucbui.utility.HexerUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a fixed-stride table into columns, one per field, rather than one object per row.
+ *
+ * The table's region is read with a single bulk read. Fields of UnsignedByte, UnsignedShort and UnsignedWord are
+ * decoded straight from the bytes read, into {@code byte[]}, {@code short[]} and {@code long[]} columns, so scanning
+ * a column touches no objects. Every other field is decoded into an {@code Object[]} column, with its hexer, or
+ * reflectively if its class is a @DataStructure. PointerFields hold their Pointer, and are not followed.
+ *
+ * Absolute fields are not part of a row, so they have no column. Fields with a custom hexer for an unsigned class
+ * are decoded into an object column with that hexer. Rows are not decoded into objects, so @ArrayFields must have a
+ * count expression, not a count held by another field.
+ *
+ * The columns are resolved once, when the reader is created, so a reader can be reused for many tables.
+ * @param <T> The class of each row
+ * @see ColumnarTable
+ */
+public class ColumnarTableReader<T> {
+
+    private final HexFramework hexFramework;
+    private final StructureLayout layout;
+    private final List<ColumnReader> columns = new ArrayList<>();
+    private final int rowExtent;
+
+    /**
+     * Create a reader for tables of a class.
+     * @param hexFramework The framework whose field and hexers are used
+     * @param clazz The class of each row
+     * @throws IllegalArgumentException A relative field's offset could not be evaluated, or an @ArrayField's count
+     * is another field
+     */
+    public ColumnarTableReader(HexFramework hexFramework, Class<T> clazz){
+        this.hexFramework = hexFramework;
+        this.layout = hexFramework.getLayout(clazz);
+        Hexer<Pointer> pointerHexer = HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class).orElse(null);
+        for(StructureLayout.FieldLayout field : layout.getFields()){
+            if(field.isAbsolute()){
+                continue;
+            } else if(field.getOffset() < 0){
+                throw new IllegalArgumentException("Offset of field " + field.getField().getName() + " could not be evaluated");
+            }
+            columns.add(createColumn(field, pointerHexer));
+        }
+        int extent = layout.isFixedSize() ? layout.getSize() : 0;
+        for(ColumnReader column : columns){
+            extent = Math.max(extent, column.offset + column.getSize());
+        }
+        this.rowExtent = extent;
+    }
+
+    private ColumnReader createColumn(StructureLayout.FieldLayout field, Hexer<Pointer> pointerHexer){
+        FieldSchema schema = field.getField();
+        int offset = (int) field.getOffset();
+        if(schema.isPointerField()){
+            if(pointerHexer == null){
+                throw new ReadPipeException("Attempted to read PointerField without Pointer hexer registered");
+            }
+            return new ObjectColumn(schema, offset, pointerHexer);
+        } else if(schema.isArrayField()){
+            if(ArrayFieldCodec.of(schema).isCountField()){
+                throw new IllegalArgumentException("Array field " + schema.getName() + " takes its count from another " +
+                        "field, so it can't be read into a column");
+            }
+            return new ArrayColumn(schema, offset);
+        }
+        Hexer<?> hexer = schema.getHexer(hexFramework.getHexers()).orElse(null);
+        Class<?> type = schema.getFieldClass();
+        if(type.equals(UnsignedByte.class) && (hexer == null || hexer == UnsignedByte.HEXER)){
+            return new ByteColumn(schema, offset);
+        } else if(type.equals(UnsignedShort.class) && (hexer == null || hexer == UnsignedShort.HEXER)){
+            return new ShortColumn(schema, offset);
+        } else if(type.equals(UnsignedWord.class) && (hexer == null || hexer == UnsignedWord.HEXER)){
+            return new LongColumn(schema, offset);
+        }
+        return new ObjectColumn(schema, offset, hexer);
+    }
+
+    /**
+     * Read a table into columns.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @return The table's columns
+     * @throws IllegalArgumentException The stride is not positive, the count is negative, or the table is too large
+     * to read in one go
+     */
+    public ColumnarTable<T> read(Pointer start, int stride, int count){
+        if(stride <= 0){
+            throw new IllegalArgumentException("Stride must be positive");
+        }
+        if(count < 0){
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        if(count == 0){
+            columns.forEach(column -> data.put(column.field.getName(), column.allocate(0)));
+            return new ColumnarTable<>(layout, 0, data);
+        }
+        //The last row only needs its own bytes, if its size is known.
+        long extent = (long)(count - 1) * stride + (layout.isFixedSize() ? rowExtent : Math.max(rowExtent, stride));
+        if(extent > HexFramework.MAX_TABLE_SPAN_SIZE){
+            throw new IllegalArgumentException("Table spans too many bytes: " + extent);
+        }
+        HexFieldIterator iterator = hexFramework.getIterator(start);
+        SpanBufferedIterator span = SpanBufferedIterator.prefetch(iterator, (int) extent, null).orThrow(ReadPipeException::new);
+        try {
+            for(ColumnReader column : columns){
+                Object values = column.allocate(count);
+                column.decode(values, span, stride, count);
+                data.put(column.field.getName(), values);
+            }
+        } finally {
+            span.release();
+        }
+        return new ColumnarTable<>(layout, count, data);
+    }
+
+    /**
+     * Read a table into columns.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @return The table's columns
+     * @see #read(Pointer, int, int)
+     */
+    public ColumnarTable<T> read(long start, int stride, int count){
+        return read(Pointer.of(start), stride, count);
+    }
+
+    /**
+     * Decodes one field of every row into a column.
+     */
+    private abstract static class ColumnReader {
+        protected final FieldSchema field;
+        protected final int offset;
+
+        private ColumnReader(FieldSchema field, int offset){
+            this.field = field;
+            this.offset = offset;
+        }
+
+        //The number of bytes decoded straight from the span, or 0 if the field is decoded from an iterator.
+        int getSize(){
+            return 0;
+        }
+
+        abstract Object allocate(int count);
+
+        //Decode every row. The span holds the table's bytes, starting at the span iterator's position.
+        abstract void decode(Object values, SpanBufferedIterator span, int stride, int count);
+    }
+
+    private static class ByteColumn extends ColumnReader {
+        private ByteColumn(FieldSchema field, int offset){
+            super(field, offset);
+        }
+
+        @Override
+        int getSize() {
+            return 1;
+        }
+
+        @Override
+        Object allocate(int count) {
+            return new byte[count];
+        }
+
+        @Override
+        void decode(Object values, SpanBufferedIterator span, int stride, int count) {
+            byte[] column = (byte[]) values;
+            byte[] b = span.getBuffer();
+            for(int row = 0, idx = offset; row < count; row++, idx += stride){
+                column[row] = b[idx];
+            }
+        }
+    }
+
+    private static class ShortColumn extends ColumnReader {
+        private ShortColumn(FieldSchema field, int offset){
+            super(field, offset);
+        }
+
+        @Override
+        int getSize() {
+            return 2;
+        }
+
+        @Override
+        Object allocate(int count) {
+            return new short[count];
+        }
+
+        @Override
+        void decode(Object values, SpanBufferedIterator span, int stride, int count) {
+            short[] column = (short[]) values;
+            byte[] b = span.getBuffer();
+            for(int row = 0, idx = offset; row < count; row++, idx += stride){
+                column[row] = (short)((b[idx] & 0xFF) | (b[idx + 1] & 0xFF) << 8);
+            }
+        }
+    }
+
+    private static class LongColumn extends ColumnReader {
+        private LongColumn(FieldSchema field, int offset){
+            super(field, offset);
+        }
+
+        @Override
+        int getSize() {
+            return 4;
+        }
+
+        @Override
+        Object allocate(int count) {
+            return new long[count];
+        }
+
+        @Override
+        void decode(Object values, SpanBufferedIterator span, int stride, int count) {
+            long[] column = (long[]) values;
+            byte[] b = span.getBuffer();
+            for(int row = 0, idx = offset; row < count; row++, idx += stride){
+                column[row] = ((b[idx] & 0xFF) | (b[idx + 1] & 0xFF) << 8 | (b[idx + 2] & 0xFF) << 16 | (b[idx + 3] & 0xFF) << 24) & 0xFFFFFFFFL;
+            }
+        }
+    }
+
+    private class ObjectColumn extends ColumnReader {
+        private final Hexer<?> hexer;
+
+        private ObjectColumn(FieldSchema field, int offset, Hexer<?> hexer){
+            super(field, offset);
+            this.hexer = hexer;
+        }
+
+        @Override
+        Object allocate(int count) {
+            return new Object[count];
+        }
+
+        @Override
+        void decode(Object values, SpanBufferedIterator span, int stride, int count) {
+            Object[] column = (Object[]) values;
+            long start = span.getPosition();
+            for(int row = 0; row < count; row++){
+                HexFieldIterator iterator = span.copy(start + (long) row * stride + offset);
+                if(hexer != null){
+                    column[row] = hexer.read(iterator);
+                } else if(field.isFieldClassDataStructure()){
+                    column[row] = hexFramework.read(iterator, field.getFieldClass());
+                } else {
+                    throw new ReadPipeException("Unable to parse object of type: " + field.getFieldClass() + ". You need " +
+                            "to register this type's hexer, or annotate its declaration with @DataStructure.");
+                }
+            }
+        }
+    }
+
+    //Arrays are read without their row's object, so their count can't be another field. The constructor checks this.
+    private class ArrayColumn extends ColumnReader {
+        private ArrayColumn(FieldSchema field, int offset){
+            super(field, offset);
+        }
+
+        @Override
+        Object allocate(int count) {
+            return new Object[count];
+        }
+
+        @Override
+        void decode(Object values, SpanBufferedIterator span, int stride, int count) {
+            Object[] column = (Object[]) values;
+            ArrayFieldCodec codec = ArrayFieldCodec.of(field);
+            long start = span.getPosition();
+            for(int row = 0; row < count; row++){
+                column[row] = codec.read(null, span.copy(start + (long) row * stride + offset), hexFramework);
+            }
+        }
+    }
+}
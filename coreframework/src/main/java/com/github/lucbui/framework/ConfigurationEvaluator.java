@@ -2,20 +2,27 @@ package com.github.lucbui.framework;
 
 import com.github.lucbui.config.Configuration;
 import com.github.lucbui.evaluator.Evaluator;
-import com.github.lucbui.utility.MathUtils;
+import com.github.lucbui.evaluator.Expression;
+import com.github.lucbui.utility.Try;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * An evaluator which evaluates based on a configuration.
+ * Numeric evaluations are compiled into Expressions, and their results cached.
  */
 public class ConfigurationEvaluator implements Evaluator {
 
-    private Configuration configuration;
+    private volatile Configuration configuration;
+    private final Map<String, Try<Expression>> expressions = new ConcurrentHashMap<>();
+    //Replaced, not cleared, on invalidate(), so an evaluation racing it can only fill the discarded map.
+    private volatile Map<String, OptionalLong> values = new ConcurrentHashMap<>();
     private static final Pattern matchPattern = Pattern.compile("\\$\\{([A-Za-z0-9.]+)(?:\\|([A-Za-z0-9.]+))?}");
 
     public ConfigurationEvaluator(Configuration configuration){
@@ -45,39 +52,70 @@ public class ConfigurationEvaluator implements Evaluator {
 
     /**
      * Evaluate a string as a long.
-     * If the string starts with 0x, it is treated as hex. If the string begins with 0b, it is treated
-     * as binary. Else, it is treated as decimal.
-     * @param evalString
-     * @return
+     * The string is compiled as an Expression, so it may be a number literal, a configuration value, or arithmetic
+     * combining them, such as {@code ${base} + 4 * ${stride}}. Numbers starting with 0x are treated as hex, and
+     * numbers starting with 0b are treated as binary. Else, they are treated as decimal.
+     *
+     * Each string is compiled the first time it is evaluated, and its value is cached until {@code invalidate()}
+     * is called.
+     * @param evalString The string to evaluate
+     * @return The value, or an empty optional if the string is not a valid expression, or could not be evaluated
      */
     @Override
     public OptionalLong evaluateLong(String evalString){
         Objects.requireNonNull(evalString);
-        String evaluated = evaluate(evalString);
-        if(evaluated.startsWith("0x")){
-            return MathUtils.parseLong(evaluated.substring(2), 16);
-        } else if(evalString.startsWith("0b")){
-            return MathUtils.parseLong(evaluated.substring(2), 2);
+        Map<String, OptionalLong> current = values;
+        OptionalLong value = current.get(evalString);
+        if(value == null){
+            value = compile(evalString).map(expression -> expression.evaluate(configuration)).or(OptionalLong.empty());
+            current.put(evalString, value);
         }
-        return MathUtils.parseLong(evaluated, 10);
+        return value;
     }
 
     /**
      * Evaluate a string as an int.
-     * If the string starts with 0x, it is treated as hex. If the string begins with 0b, it is treated
-     * as binary. Else, it is treated as decimal.
-     * @param evalString
-     * @return
+     * This is evaluated identically to {@code evaluateLong()}.
+     * @param evalString The string to evaluate
+     * @return The value, or an empty optional if the string could not be evaluated, or does not fit in an int
      */
     @Override
     public OptionalInt evaluateInt(String evalString){
-        Objects.requireNonNull(evalString);
-        String evaluated = evaluate(evalString);
-        if(evaluated.startsWith("0x")){
-            return MathUtils.parseInt(evaluated.substring(2), 16);
-        } else if(evalString.startsWith("0b")){
-            return MathUtils.parseInt(evaluated.substring(2), 2);
+        OptionalLong value = evaluateLong(evalString);
+        if(value.isPresent() && value.getAsLong() == (int) value.getAsLong()){
+            return OptionalInt.of((int) value.getAsLong());
         }
-        return MathUtils.parseInt(evaluated, 10);
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Compile a string into an Expression.
+     * Compiled expressions are kept even when the evaluator is invalidated, since they don't depend on the
+     * configuration.
+     * @param evalString The string to compile
+     * @return A Try containing the compiled expression, or an error if the string is not a valid expression
+     */
+    public Try<Expression> compile(String evalString){
+        return expressions.computeIfAbsent(evalString, Expression::parse);
+    }
+
+    /**
+     * Set the configuration to evaluate with.
+     * Every cached value is discarded. If this is a framework's evaluator, use {@code HexFramework.setConfiguration()}
+     * instead, so values the framework derived from the old configuration are discarded too.
+     * @param configuration The new configuration
+     */
+    public void setConfiguration(Configuration configuration){
+        this.configuration = Objects.requireNonNull(configuration);
+        invalidate();
+    }
+
+    /**
+     * Discard every cached value.
+     * This should be called if the configuration's contents change.
+     */
+    @Override
+    public void invalidate(){
+        values = new ConcurrentHashMap<>();
     }
 }
@@ -0,0 +1,159 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached reflective metadata for a class.
+ * The first time a class is used, its fields are walked and their annotations resolved into FieldSchemas. Every later
+ * read or write of that class reuses the same schema, rather than repeating the reflection.
+ *
+ * Schemas are held in a ClassValue, so they are released along with their class.
+ */
+public class DataStructureSchema {
+
+    private static final ClassValue<DataStructureSchema> SCHEMAS = new ClassValue<DataStructureSchema>() {
+        @Override
+        protected DataStructureSchema computeValue(Class<?> type) {
+            return new DataStructureSchema(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final DataStructure dataStructure;
+    private final List<FieldSchema> fields;
+    private final List<FieldSchema> offsetFields;
+    private final Map<Class<? extends Annotation>, List<FieldSchema>> fieldsByAnnotation = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, List<Method>> methodsByAnnotation = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, List<LifecycleHook>> hooksByAnnotation = new ConcurrentHashMap<>();
+
+    private DataStructureSchema(Class<?> type){
+        this.type = type;
+        this.dataStructure = type.getAnnotation(DataStructure.class);
+        List<FieldSchema> allFields = new ArrayList<>();
+        for(Field field : FieldUtils.getAllFieldsList(type)){
+            allFields.add(new FieldSchema(field));
+        }
+        this.fields = Collections.unmodifiableList(allFields);
+        this.offsetFields = getFieldsWithAnnotation(Offset.class);
+    }
+
+    /**
+     * Get the schema for a class.
+     * @param type The class to describe
+     * @return The class's schema
+     */
+    public static DataStructureSchema of(Class<?> type){
+        return SCHEMAS.get(type);
+    }
+
+    /**
+     * Get the class this schema describes.
+     * @return The class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Test if the class is annotated with @DataStructure.
+     * @return True, if the class is a data structure
+     */
+    public boolean isDataStructure() {
+        return dataStructure != null;
+    }
+
+    /**
+     * Get the size declared by the class's @DataStructure annotation.
+     * @return The size, or -1 if the class does not declare one
+     */
+    public int getStaticSize() {
+        return dataStructure == null ? -1 : dataStructure.size();
+    }
+
+    /**
+     * Get every field of the class, including inherited ones.
+     * Fields are ordered as declared, with the class's own fields before its superclasses'.
+     * @return An unmodifiable list of fields
+     */
+    public List<FieldSchema> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get every field annotated with @Offset.
+     * @return An unmodifiable list of fields, in the same order as getFields()
+     */
+    public List<FieldSchema> getOffsetFields() {
+        return offsetFields;
+    }
+
+    /**
+     * Get every field with a specific annotation.
+     * @param annotation The annotation to search for
+     * @return An unmodifiable list of fields, in the same order as getFields()
+     */
+    public List<FieldSchema> getFieldsWithAnnotation(Class<? extends Annotation> annotation){
+        return fieldsByAnnotation.computeIfAbsent(annotation, a -> {
+            List<FieldSchema> matching = new ArrayList<>();
+            for(FieldSchema field : fields){
+                if(field.isAnnotationPresent(a)){
+                    matching.add(field);
+                }
+            }
+            return Collections.unmodifiableList(matching);
+        });
+    }
+
+    /**
+     * Get every public method with a specific annotation.
+     * @param annotation The annotation to search for
+     * @return An unmodifiable list of methods
+     */
+    public List<Method> getMethodsWithAnnotation(Class<? extends Annotation> annotation){
+        return methodsByAnnotation.computeIfAbsent(annotation, a -> {
+            List<Method> methods = MethodUtils.getMethodsListWithAnnotation(type, a);
+            return methods.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(methods);
+        });
+    }
+
+    /**
+     * Get every public method with a specific annotation, as invokable hooks.
+     * This is used for lifecycle annotations such as @AfterRead and @BeforeWrite. Most classes have no hooks, in
+     * which case the same empty list is always returned.
+     * @param annotation The annotation to search for
+     * @return An unmodifiable list of hooks
+     */
+    public List<LifecycleHook> getHooks(Class<? extends Annotation> annotation){
+        return hooksByAnnotation.computeIfAbsent(annotation, a -> {
+            List<Method> methods = getMethodsWithAnnotation(a);
+            if(methods.isEmpty()){
+                return Collections.emptyList();
+            }
+            List<LifecycleHook> hooks = new ArrayList<>();
+            for(Method method : methods){
+                hooks.add(new LifecycleHook(method));
+            }
+            return Collections.unmodifiableList(hooks);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "DataStructureSchema{" +
+                "type=" + type.getName() +
+                ", fields=" + fields +
+                '}';
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.ByteWindow;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A bounded record of the bytes each object was read from.
+ *
+ * A snapshot is taken when an object is read, and belongs to that exact instance; a different object written to the
+ * same location has no snapshot. When an object with a snapshot is written, only bytes which differ from it need to
+ * be written. The least-recently used snapshots are dropped once the tracker holds its maximum number, and objects
+ * without a snapshot are written in full.
+ *
+ * A HexFramework discards every snapshot overlapping the bytes of each write made through it, through
+ * {@code invalidate()}, so a snapshot never hides a change made since it was taken. Writes made to the underlying
+ * field directly, not through the framework, are not seen; if the field is changed that way, {@code clear()} should
+ * be called.
+ */
+public class DirtyTracker {
+
+    private final int maxSnapshots;
+    private final LinkedHashMap<Long, Snapshot> snapshots;
+    private final NavigableMap<Long, Snapshot> byLocation = new TreeMap<>();
+    private int largestSize = 0;
+
+    /**
+     * Create a DirtyTracker
+     * @param maxSnapshots The maximum number of snapshots to hold. Must be positive.
+     */
+    public DirtyTracker(int maxSnapshots){
+        if(maxSnapshots <= 0){
+            throw new IllegalArgumentException("Maximum snapshots must be positive");
+        }
+        this.maxSnapshots = maxSnapshots;
+        this.snapshots = new LinkedHashMap<Long, Snapshot>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+                if(size() > DirtyTracker.this.maxSnapshots || eldest.getValue().object.get() == null){
+                    byLocation.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Record the bytes an object was read from.
+     * @param location The position the object was read from.
+     * @param object The object.
+     * @param bytes The bytes the object was read from. The array is kept, so it should not be modified afterwards.
+     */
+    public synchronized void record(long location, Object object, byte[] bytes){
+        Snapshot snapshot = new Snapshot(object, bytes);
+        snapshots.put(location, snapshot);
+        byLocation.put(location, snapshot);
+        largestSize = Math.max(largestSize, bytes.length);
+    }
+
+    /**
+     * Get the bytes an object was read from.
+     * @param location The position the object was read from.
+     * @param object The object.
+     * @return The bytes, or null if there is no snapshot of this object at that location. The array must not be
+     * modified.
+     */
+    public synchronized byte[] getSnapshot(long location, Object object){
+        Snapshot snapshot = snapshots.get(location);
+        return snapshot != null && snapshot.object.get() == object ? snapshot.bytes : null;
+    }
+
+    /**
+     * Test if an object encodes to the same bytes it was read from.
+     * @param location The position the object was read from.
+     * @param object The object.
+     * @param encoded The object's current encoding, at the same positions it would be written to.
+     * @return True, if the object has a snapshot at that location, and the encoding is exactly the snapshot
+     */
+    public boolean isUnchanged(long location, Object object, ByteWindow encoded){
+        byte[] snapshot = getSnapshot(location, object);
+        if(snapshot == null || encoded.getNumberOfBytes() != snapshot.length){
+            return false;
+        }
+        boolean[] unchanged = {true};
+        encoded.forEachRun((position, bytes, offset, length) -> {
+            long start = position - location;
+            if(start < 0 || start + length > snapshot.length){
+                unchanged[0] = false;
+                return;
+            }
+            for(int idx = 0; idx < length && unchanged[0]; idx++){
+                unchanged[0] = bytes[offset + idx] == snapshot[(int)start + idx];
+            }
+        });
+        return unchanged[0];
+    }
+
+    /**
+     * Discard every snapshot which overlaps a range of bytes.
+     * This should be called whenever the range is written.
+     * @param position The first byte of the range.
+     * @param length The number of bytes in the range.
+     */
+    public synchronized void invalidate(long position, long length){
+        if(length <= 0 || snapshots.isEmpty()){
+            return;
+        }
+        //No snapshot starting more than largestSize bytes before the range can overlap it.
+        List<Long> overlapping = new ArrayList<>();
+        byLocation.subMap(position - largestSize, false, position + length, false).forEach((location, snapshot) -> {
+            if(location + snapshot.bytes.length > position){
+                overlapping.add(location);
+            }
+        });
+        for(Long location : overlapping){
+            snapshots.remove(location);
+            byLocation.remove(location);
+        }
+    }
+
+    /**
+     * Discard every snapshot.
+     */
+    public synchronized void clear(){
+        snapshots.clear();
+        byLocation.clear();
+        largestSize = 0;
+    }
+
+    /**
+     * Get the number of snapshots currently held.
+     * @return The number of snapshots
+     */
+    public synchronized int size(){
+        return snapshots.size();
+    }
+
+    /**
+     * Get the maximum number of snapshots this tracker holds.
+     * @return The maximum number of snapshots
+     */
+    public int getMaxSnapshots() {
+        return maxSnapshots;
+    }
+
+    private static class Snapshot {
+        private final WeakReference<Object> object;
+        private final byte[] bytes;
+
+        private Snapshot(Object object, byte[] bytes){
+            this.object = new WeakReference<>(object);
+            this.bytes = bytes;
+        }
+    }
+}
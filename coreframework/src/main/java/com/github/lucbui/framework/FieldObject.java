@@ -1,9 +1,7 @@
 package com.github.lucbui.framework;
 
-import com.github.lucbui.annotations.PointerField;
 import com.github.lucbui.file.Pointer;
 import com.github.lucbui.utility.Try;
-import org.apache.commons.lang3.reflect.FieldUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -15,12 +13,14 @@ import java.util.Optional;
 public class FieldObject {
     private Pointer pointer;
     private Object parent;
+    private FieldSchema schema;
     private Field field;
     private Object referent;
 
-    private FieldObject(Object parent, Field field, Object referent) {
+    private FieldObject(Object parent, FieldSchema schema, Object referent) {
         this.parent = parent;
-        this.field = field;
+        this.schema = schema;
+        this.field = schema.getField();
         this.referent = referent;
     }
 
@@ -31,10 +31,25 @@ public class FieldObject {
      * @return Either a FieldObject created successfully, or an empty Optional
      */
     public static Optional<FieldObject> get(Object obj, Field field) {
+        for(FieldSchema schema : DataStructureSchema.of(field.getDeclaringClass()).getFields()){
+            if(schema.getField().equals(field)){
+                return get(obj, schema);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get a FieldObject from an object and cached field definition
+     * @param obj The object to use
+     * @param schema The field to use
+     * @return Either a FieldObject created successfully, or an empty Optional
+     */
+    public static Optional<FieldObject> get(Object obj, FieldSchema schema) {
         try {
-            Object referent = FieldUtils.readField(field, obj, true);
-            return Optional.of(new FieldObject(obj, field, referent));
-        } catch (IllegalAccessException e) {
+            Object referent = schema.get(obj);
+            return Optional.of(new FieldObject(obj, schema, referent));
+        } catch (IllegalAccessException | RuntimeException e) {
             return Optional.empty();
         }
     }
@@ -61,7 +76,7 @@ public class FieldObject {
      * @return True, if the annotation is present
      */
     public boolean isAnnotationPresent(Class<? extends Annotation> annotation){
-        return field.isAnnotationPresent(annotation);
+        return schema.isAnnotationPresent(annotation);
     }
 
     /**
@@ -71,7 +86,15 @@ public class FieldObject {
      * @return The annotation instance
      */
     public <T extends Annotation> T getAnnotation(Class<T> annotation){
-        return field.getAnnotation(annotation);
+        return schema.getAnnotation(annotation);
+    }
+
+    /**
+     * Get the cached metadata for the enclosed field
+     * @return The field's schema
+     */
+    public FieldSchema getSchema() {
+        return schema;
     }
 
     /**
@@ -80,10 +103,7 @@ public class FieldObject {
      * @return
      */
     public Class<?> getFieldClass(){
-        if(field.isAnnotationPresent(PointerField.class)){
-            return field.getAnnotation(PointerField.class).objectType();
-        }
-        return field.getType();
+        return schema.getFieldClass();
     }
 
     /**
@@ -97,7 +117,7 @@ public class FieldObject {
 
     public void syncReferent(){
         try {
-            referent = FieldUtils.readField(field, parent, true);
+            referent = schema.get(parent);
         } catch (IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -112,9 +132,9 @@ public class FieldObject {
      */
     public Try<Object> set(){
         try {
-            FieldUtils.writeDeclaredField(getParent(), field.getName(), this.referent, true);
+            schema.set(getParent(), this.referent);
             return Try.ok(this.referent);
-        } catch (IllegalAccessException e) {
+        } catch (IllegalAccessException | RuntimeException e) {
             return Try.error("Error writing field:" + e.getMessage());
         }
     }
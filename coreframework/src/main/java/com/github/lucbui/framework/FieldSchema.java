@@ -0,0 +1,291 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.ArrayField;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.utility.HexerUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Pre-resolved metadata for a single field of a data structure.
+ * Everything the pipes need to know about a field is looked up once, when the field's DataStructureSchema is
+ * first created, rather than on every read or write. This includes MethodHandles for getting and setting the field.
+ * @see DataStructureSchema
+ */
+public class FieldSchema {
+
+    private final Field field;
+    private final Map<Class<? extends Annotation>, Annotation> annotations;
+    private final Offset offset;
+    private final boolean absolute;
+    private final PointerField pointerField;
+    private final ArrayField arrayField;
+    private final Class<?> fieldClass;
+    private final boolean fieldClassDataStructure;
+    private final int staticSize;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Map<Object, Object> attachments = new ConcurrentHashMap<>();
+
+    FieldSchema(Field field){
+        this.field = Objects.requireNonNull(field);
+        try {
+            this.field.setAccessible(true);
+        } catch (RuntimeException e) {
+            //Inaccessible fields (such as those in JDK classes) fail when used, as they would without a schema.
+        }
+        Map<Class<? extends Annotation>, Annotation> annotationMap = new HashMap<>();
+        for(Annotation annotation : field.getAnnotations()){
+            annotationMap.put(annotation.annotationType(), annotation);
+        }
+        this.annotations = Collections.unmodifiableMap(annotationMap);
+        this.offset = field.getAnnotation(Offset.class);
+        this.absolute = field.isAnnotationPresent(Absolute.class);
+        this.pointerField = field.getAnnotation(PointerField.class);
+        this.arrayField = field.getAnnotation(ArrayField.class);
+        this.fieldClass = pointerField == null ? field.getType() : pointerField.objectType();
+        DataStructure dataStructure = fieldClass.getAnnotation(DataStructure.class);
+        this.fieldClassDataStructure = dataStructure != null;
+        this.staticSize = dataStructure == null ? -1 : dataStructure.size();
+        this.getter = createGetter(field);
+        this.setter = createSetter(field);
+    }
+
+    //Create a (Object)Object handle which reads the field, or null if the field can't be read through a handle.
+    private static MethodHandle createGetter(Field field){
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+            if(Modifier.isStatic(field.getModifiers())){
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    //Create a (Object, Object)void handle which writes the field, or null if the field can't be written through a handle.
+    //Final fields can only be written reflectively, so they always use the fallback.
+    private static MethodHandle createSetter(Field field){
+        if(Modifier.isFinal(field.getModifiers())){
+            return null;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+            if(Modifier.isStatic(field.getModifiers())){
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the field this schema describes.
+     * @return The field
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Read the field from an object.
+     * A MethodHandle created with the schema is used where possible, falling back to reflection.
+     * @param obj The object to read from
+     * @return The value of the field
+     * @throws IllegalAccessException The field could not be accessed
+     */
+    public Object get(Object obj) throws IllegalAccessException {
+        if(getter == null){
+            return field.get(obj);
+        }
+        try {
+            return (Object) getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Error reading field " + field.getName(), t);
+        }
+    }
+
+    /**
+     * Write the field in an object.
+     * A MethodHandle created with the schema is used where possible, falling back to reflection.
+     * @param obj The object to write to
+     * @param value The new value of the field
+     * @throws IllegalAccessException The field could not be accessed
+     */
+    public void set(Object obj, Object value) throws IllegalAccessException {
+        if(setter == null){
+            field.set(obj, value);
+            return;
+        }
+        try {
+            setter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Error writing field " + field.getName(), t);
+        }
+    }
+
+    /**
+     * Get the name of the field.
+     * @return The field's name
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * Test if an annotation is present on the field
+     * @param annotation The annotation to check
+     * @return True, if the annotation is present
+     */
+    public boolean isAnnotationPresent(Class<? extends Annotation> annotation){
+        return annotations.containsKey(annotation);
+    }
+
+    /**
+     * Get an Annotation from the field
+     * @param annotation The annotation to get
+     * @param <T> The type of annotation
+     * @return The annotation instance, or null if not present
+     */
+    public <T extends Annotation> T getAnnotation(Class<T> annotation){
+        return annotation.cast(annotations.get(annotation));
+    }
+
+    /**
+     * Get the @Offset annotation on the field.
+     * @return The annotation, or null if not present
+     */
+    public Offset getOffset() {
+        return offset;
+    }
+
+    /**
+     * Test if the field's offset is absolute.
+     * @return True, if the field is annotated with @Absolute
+     */
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    /**
+     * Get the @PointerField annotation on the field.
+     * @return The annotation, or null if not present
+     */
+    public PointerField getPointerField() {
+        return pointerField;
+    }
+
+    /**
+     * Test if the field is a PointerField.
+     * @return True, if the field is annotated with @PointerField
+     */
+    public boolean isPointerField() {
+        return pointerField != null;
+    }
+
+    /**
+     * Test if the field is a PointerField whose object should be read lazily.
+     * @param hexFramework The framework being used
+     * @return True, if the field is a PointerField, and either it or the framework asks for lazy reads
+     */
+    public boolean isLazyPointerField(HexFramework hexFramework) {
+        return pointerField != null && (pointerField.lazy() || hexFramework.isLazyPointers());
+    }
+
+    /**
+     * Get the @ArrayField annotation on the field.
+     * @return The annotation, or null if not present
+     */
+    public ArrayField getArrayField() {
+        return arrayField;
+    }
+
+    /**
+     * Test if the field is an ArrayField.
+     * @return True, if the field is annotated with @ArrayField
+     */
+    public boolean isArrayField() {
+        return arrayField != null;
+    }
+
+    /**
+     * Get the class of the field.
+     * If @PointerField annotation is present, the objectType is returned.
+     * @return The class of object the field holds
+     */
+    public Class<?> getFieldClass() {
+        return fieldClass;
+    }
+
+    /**
+     * Test if the field's class is annotated with @DataStructure.
+     * @return True, if the field's class can be read reflectively
+     */
+    public boolean isFieldClassDataStructure() {
+        return fieldClassDataStructure;
+    }
+
+    /**
+     * Get the size of the field's class, as declared by its @DataStructure annotation.
+     * @return The size, or -1 if the class does not declare one
+     */
+    public int getStaticSize() {
+        return staticSize;
+    }
+
+    /**
+     * Get the hexer registered for the field's class.
+     * A HexerRegistry, which every framework holds its hexers in, resolves this with a single lookup. Other maps are
+     * searched on every call.
+     * @param hexers The hexers to search
+     * @return The hexer, or an empty Optional if none were found
+     * @throws IllegalArgumentException Multiple hexers match the field's class
+     */
+    public Optional<Hexer<?>> getHexer(Map<Class<?>, Hexer<?>> hexers){
+        Hexer<?> hexer = HexerUtils.getHexerFor(hexers, fieldClass).orElse(null);
+        return Optional.ofNullable(hexer);
+    }
+
+    /**
+     * Get a value derived from this field, computing it the first time it is requested.
+     * This allows pipes to cache their own per-field data, such as a hexer built from the field's annotations.
+     * @param key The key identifying the value. Usually the class of the pipe which uses it.
+     * @param factory The function which computes the value from this schema
+     * @param <T> The type of value
+     * @return The value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getAttachment(Object key, Function<? super FieldSchema, ? extends T> factory){
+        return (T) attachments.computeIfAbsent(key, k -> factory.apply(this));
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSchema{" +
+                "field=" + field.getName() +
+                ", fieldClass=" + fieldClass.getName() +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.lucbui.framework;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Chooses which @Offset fields of an object are read.
+ *
+ * A projected read, such as {@code HexFramework.read(pointer, clazz, selector)}, only reads the fields this selects.
+ * Every other field is left as the class's create strategy made it, and is not read, decoded, or followed if it is a
+ * PointerField. Fields of nested structures are read in full, if their parent field is selected.
+ */
+@FunctionalInterface
+public interface FieldSelector {
+
+    /**
+     * Test if a field should be read.
+     * @param field The field
+     * @return True, if the field is read
+     */
+    boolean isSelected(FieldSchema field);
+
+    /**
+     * Get a selector which reads every field.
+     * @return The selector
+     */
+    static FieldSelector all(){
+        return field -> true;
+    }
+
+    /**
+     * Get a selector which reads only fields with certain names.
+     * @param names The names of the fields to read
+     * @return The selector
+     */
+    static FieldSelector of(String... names){
+        Set<String> selected = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+        return field -> selected.contains(field.getName());
+    }
+}
@@ -1,39 +1,80 @@
 package com.github.lucbui.framework;
 
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.ByteWindow;
 import com.github.lucbui.bytes.HexReader;
 import com.github.lucbui.bytes.HexWriter;
 import com.github.lucbui.bytes.Hexer;
 import com.github.lucbui.config.Configuration;
 import com.github.lucbui.config.MapConfig;
 import com.github.lucbui.evaluator.Evaluator;
+import com.github.lucbui.file.AsyncHexField;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.CachingHexField;
 import com.github.lucbui.file.FileHexField;
 import com.github.lucbui.file.HexField;
 import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.MappedHexField;
+import com.github.lucbui.file.ObservedHexField;
 import com.github.lucbui.file.Pointer;
+import com.github.lucbui.file.SpanBufferedIterator;
+import com.github.lucbui.pipeline.ArrayFieldCodec;
 import com.github.lucbui.pipeline.Pipeline;
+import com.github.lucbui.pipeline.exceptions.WritePipeException;
 import com.github.lucbui.strategy.CreateStrategy;
 import com.github.lucbui.strategy.EmptyConstructorCreateStrategy;
 import com.github.lucbui.utility.HexerUtils;
 import com.github.lucbui.utility.PipeUtils;
 import com.github.lucbui.utility.Try;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Hex Framework, which facilitates easier parsing of hex files.
  */
 public class HexFramework {
 
+    /**
+     * The largest structure which is prefetched, in bytes.
+     */
+    public static final int MAX_PREFETCH_SIZE = 0x10000;
+
+    /**
+     * The largest table which is read or written with a single bulk operation, in bytes.
+     */
+    public static final int MAX_TABLE_SPAN_SIZE = 0x1000000;
+
     private CreateStrategy createStrategy = null;
     private HexField hexField = null;
-    private Configuration configuration = null;
+    private volatile Configuration configuration = null;
     private Evaluator evaluator = null;
     private Pipeline<Object> pipeline = null;
     private Map<Class<?>, Hexer<?>> hexers;
+    private final Map<Class<?>, StructureLayout> layouts = new ConcurrentHashMap<>();
+    private final Map<Object, Map<Class<?>, ?>> plans = new ConcurrentHashMap<>();
+    private boolean prefetch = false;
+    private final ThreadLocal<byte[]> prefetchBuffers = new ThreadLocal<>();
+    private int parallelTableThreshold = 0;
+    private boolean lazyPointers = false;
+    //The field, before any caching or observation, if it reads asynchronously. Pointer targets are hinted to it.
+    private AsyncHexField asyncHexField = null;
+    private ObjectCache objectCache = null;
+    private DirtyTracker dirtyTracker = null;
+    private final ThreadLocal<Projection> projection = new ThreadLocal<>();
 
     /**
      * Start creating the framework.
@@ -123,9 +164,8 @@ public class HexFramework {
      * @return The extracted object
      */
     public <T> T read(Pointer pointer, Class<T> clazz){
-        T object = createStrategy.create(clazz);
-        pipeline.modify(hexField.iterator(pointer), object, this);
-        return object;
+        HexFieldIterator iterator = hexField.iterator(pointer);
+        return readShared(iterator, clazz, pipeline, () -> read(iterator, clazz));
     }
 
     /**
@@ -136,11 +176,453 @@ public class HexFramework {
      * @return The extracted object
      */
     public <T> T read(long pointer, Class<T> clazz){
+        return read(Pointer.of(pointer), clazz);
+    }
+
+    /**
+     * Read only some fields of an object reflectively from a pointer.
+     *
+     * Fields which are not selected are not read, decoded, or followed, and keep the value the create strategy gave
+     * them. The selected fields' bytes are fetched with a single bulk read, if their extent is known. Since the
+     * object is incomplete, it is never shared through the object cache or tracked for changes, and its @AfterRead
+     * methods are not run.
+     * @param pointer The pointer to read.
+     * @param clazz The class to read.
+     * @param selector Chooses the fields to read.
+     * @param <T> The object to extract
+     * @return The extracted object
+     * @see FieldSelector
+     */
+    public <T> T read(Pointer pointer, Class<T> clazz, FieldSelector selector){
+        Objects.requireNonNull(selector);
+        HexFieldIterator iterator = hexField.iterator(pointer);
         T object = createStrategy.create(clazz);
-        pipeline.modify(hexField.iterator(Pointer.of(pointer)), object, this);
+        SpanBufferedIterator span = prefetch(iterator, clazz, selector);
+        Projection previous = projection.get();
+        projection.set(new Projection(object, selector));
+        try {
+            pipeline.modify(span == null ? iterator : span, object, this);
+        } finally {
+            projection.set(previous);
+            if(span != null){
+                span.release();
+                prefetchBuffers.set(span.getBuffer());
+            }
+        }
         return object;
     }
 
+    /**
+     * Read only some fields of an object reflectively from a pointer.
+     * @param pointer The pointer to read.
+     * @param clazz The class to read.
+     * @param selector Chooses the fields to read.
+     * @param <T> The object to extract
+     * @return The extracted object
+     * @see #read(Pointer, Class, FieldSelector)
+     */
+    public <T> T read(long pointer, Class<T> clazz, FieldSelector selector){
+        return read(Pointer.of(pointer), clazz, selector);
+    }
+
+    /**
+     * Get the fields being read of an object, if it is being read by a projected read.
+     * Pipes which iterate over an object's fields skip those which are not selected.
+     * @param object The object being read
+     * @return The selector in use, or an empty Optional if every field of the object is read
+     */
+    public Optional<FieldSelector> getProjection(Object object){
+        Projection current = projection.get();
+        return current != null && current.object == object ? Optional.of(current.selector) : Optional.empty();
+    }
+
+    /**
+     * Read an object which may be shared, through the object cache.
+     * If the framework has no object cache, the object is always read.
+     * @param iterator An iterator at the object's location.
+     * @param clazz The class of the object.
+     * @param reader A value identifying how the object is decoded, such as its hexer.
+     * @param loader A function which reads the object.
+     * @param <T> The object to extract
+     * @return The cached or newly read object
+     * @see ObjectCache
+     */
+    public <T> T readShared(HexFieldIterator iterator, Class<T> clazz, Object reader, Supplier<? extends T> loader){
+        if(objectCache == null){
+            return loader.get();
+        }
+        Optional<List<long[]>> ranges = this.<Optional<List<long[]>>>getPlans(objectCache)
+                .computeIfAbsent(clazz, this::getAbsoluteRanges);
+        if(!ranges.isPresent()){
+            //A write to an absolute field couldn't be detected.
+            return loader.get();
+        }
+        return objectCache.get(iterator.getPosition(), clazz, reader, loader, object -> getSize(object).orElse(-1), ranges.get());
+    }
+
+    /**
+     * Wrap the loader of an object which is read later, such as a lazy PointerField's.
+     * The objects it reads through the object cache become dependencies of the object being read now, so writing to them
+     * discards that object, even if it was cached before they were read.
+     * If the framework has no object cache, the loader is returned unchanged.
+     * @param loader A function which reads the object.
+     * @param <T> The object to extract
+     * @return The wrapped loader
+     * @see ObjectCache#bind(Supplier)
+     */
+    public <T> Supplier<T> bindShared(Supplier<T> loader){
+        return objectCache == null ? loader : objectCache.bind(loader);
+    }
+
+    //Get the ranges a class's absolute fields are read from, including those of structures nested in it.
+    //Empty if any of them has an unknown offset or size.
+    private Optional<List<long[]>> getAbsoluteRanges(Class<?> clazz){
+        List<long[]> ranges = new ArrayList<>();
+        return addAbsoluteRanges(clazz, ranges, new HashSet<>()) ? Optional.of(ranges) : Optional.empty();
+    }
+
+    private boolean addAbsoluteRanges(Class<?> clazz, List<long[]> ranges, Set<Class<?>> visiting){
+        if(!visiting.add(clazz)){
+            return true;
+        }
+        for(StructureLayout.FieldLayout field : getLayout(clazz).getFields()){
+            FieldSchema schema = field.getField();
+            if(field.isAbsolute()){
+                if(field.getOffset() < 0 || field.getSize() < 0){
+                    return false;
+                }
+                ranges.add(new long[]{field.getOffset(), field.getSize()});
+            }
+            //Objects behind a PointerField are read through the cache, so they are dependencies instead.
+            if(schema.isPointerField()){
+                continue;
+            }
+            Class<?> nested = schema.isArrayField() ? ArrayFieldCodec.of(schema).getElementClass() : schema.getFieldClass();
+            if(!addAbsoluteRanges(nested, ranges, visiting)){
+                return false;
+            }
+        }
+        visiting.remove(clazz);
+        return true;
+    }
+
+    //Run the pipeline on a newly created object, prefetching its span first if enabled or needed for a snapshot.
+    private void readInto(HexFieldIterator iterator, Object object, Class<?> clazz){
+        SpanBufferedIterator span = prefetch || dirtyTracker != null ? prefetch(iterator, clazz) : null;
+        if(asyncHexField != null){
+            hintPointers(span == null ? iterator : span, clazz);
+        }
+        if(span == null){
+            pipeline.modify(iterator, object, this);
+            track(iterator, object);
+            return;
+        }
+        try {
+            pipeline.modify(span, object, this);
+            track(span, object);
+        } finally {
+            span.release();
+            prefetchBuffers.set(span.getBuffer());
+        }
+    }
+
+    //Tell the field where an object's eager PointerFields point, so their objects are read while it is decoded.
+    private void hintPointers(HexFieldIterator iterator, Class<?> clazz){
+        Hexer<Pointer> pointerHexer = null;
+        for(StructureLayout.FieldLayout field : getLayout(clazz).getFields()){
+            FieldSchema schema = field.getField();
+            if(!schema.isPointerField() || schema.isLazyPointerField(this) || field.getOffset() < 0){
+                continue;
+            }
+            OptionalInt size = getSize(schema.getFieldClass());
+            if(!size.isPresent()){
+                continue;
+            }
+            if(pointerHexer == null){
+                pointerHexer = HexerUtils.getHexerFor(hexers, Pointer.class).orElse(null);
+                if(pointerHexer == null){
+                    return;
+                }
+            }
+            long location = field.isAbsolute() ? field.getOffset() : iterator.getPosition() + field.getOffset();
+            try {
+                hexField.prefetch(pointerHexer.read(iterator.copy(location)).getLocation(), size.getAsInt());
+            } catch (RuntimeException e) {
+                //Hints are only advice. The pipeline reports the error when it reads the field.
+            }
+        }
+    }
+
+    //Read a fixed-size class's span in one go. Nested reads on this thread allocate their own buffer.
+    private SpanBufferedIterator prefetch(HexFieldIterator iterator, Class<?> clazz){
+        return prefetch(iterator, 0, getLayout(clazz).getSize());
+    }
+
+    //Read the extent of a class's selected relative fields in one go, if every one has a known offset and size.
+    private SpanBufferedIterator prefetch(HexFieldIterator iterator, Class<?> clazz, FieldSelector selector){
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for(StructureLayout.FieldLayout field : getLayout(clazz).getFields()){
+            if(field.isAbsolute() || !selector.isSelected(field.getField())){
+                continue;
+            } else if(field.getOffset() < 0 || field.getSize() < 0){
+                return null;
+            }
+            from = Math.min(from, field.getOffset());
+            to = Math.max(to, field.getOffset() + field.getSize());
+        }
+        return from < to && to - from <= MAX_PREFETCH_SIZE ? prefetch(iterator, from, (int)(to - from)) : null;
+    }
+
+    //Prefetch a number of bytes some distance after an iterator, returning an iterator at the original position.
+    private SpanBufferedIterator prefetch(HexFieldIterator iterator, long distance, int length){
+        if(length <= 0 || length > MAX_PREFETCH_SIZE){
+            return null;
+        }
+        byte[] buffer = prefetchBuffers.get();
+        prefetchBuffers.set(null);
+        Try<SpanBufferedIterator> span = SpanBufferedIterator.prefetch(iterator.copy(iterator.getPosition() + distance), length, buffer);
+        if(span.isError()){
+            prefetchBuffers.set(buffer);
+            return null;
+        }
+        span.get().advanceTo(iterator.getPosition());
+        return span.get();
+    }
+
+    /**
+     * Read a table of objects reflectively.
+     * The table's region is read with a single bulk read, and each row is decoded from memory. Large tables may be
+     * decoded in parallel, if the framework was built with a parallel table threshold. Parallel decoding needs a field
+     * which can be read from several threads at once, so it is skipped for a FileHexField in write-back mode, and for
+     * an AsyncHexField.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @return The extracted objects, in order, as a fixed-size list
+     */
+    public <T> List<T> readTable(Pointer start, int stride, int count, Class<T> clazz){
+        @SuppressWarnings("unchecked")
+        T[] rows = (T[]) new Object[count];
+        readTable(hexField.iterator(start), stride, rows, clazz);
+        return Arrays.asList(rows);
+    }
+
+    //Test if the field can be read from several threads at once. A write-back FileHexField or an AsyncHexField can't,
+    //since its reads may race with a flush or a pending write.
+    private boolean isConcurrentReadSafe(){
+        HexField field = hexField;
+        while(field instanceof ObservedHexField || field instanceof CachingHexField){
+            field = field instanceof ObservedHexField ?
+                    ((ObservedHexField) field).getDelegate() :
+                    ((CachingHexField) field).getDelegate();
+        }
+        return !(field instanceof AsyncHexField) && !(field instanceof FileHexField && ((FileHexField) field).isWriteBack());
+    }
+
+    /**
+     * Read a table of objects reflectively.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @return The extracted objects, in order
+     * @see #readTable(Pointer, int, int, Class)
+     */
+    public <T> List<T> readTable(long start, int stride, int count, Class<T> clazz){
+        return readTable(Pointer.of(start), stride, count, clazz);
+    }
+
+    /**
+     * Read a table of objects reflectively into an array.
+     * One row is read for each element of the array.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param destination The array to fill.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @see #readTable(Pointer, int, int, Class)
+     */
+    public <T> void readTable(Pointer start, int stride, T[] destination, Class<T> clazz){
+        readTable(hexField.iterator(start), stride, destination, clazz);
+    }
+
+    /**
+     * Read a table of objects reflectively into an array.
+     * One row is read for each element of the array.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param destination The array to fill.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @see #readTable(Pointer, int, int, Class)
+     */
+    public <T> void readTable(long start, int stride, T[] destination, Class<T> clazz){
+        readTable(Pointer.of(start), stride, destination, clazz);
+    }
+
+    private <T> void readTable(HexFieldIterator start, int stride, T[] destination, Class<T> clazz){
+        checkTable(stride, destination.length);
+        int count = destination.length;
+        if(count == 0){
+            return;
+        }
+        OptionalInt rowSize = getSize(clazz);
+        long extent = (long)(count - 1) * stride + (rowSize.isPresent() ? rowSize.getAsInt() : stride);
+        SpanBufferedIterator span = extent <= MAX_TABLE_SPAN_SIZE ?
+                SpanBufferedIterator.prefetch(start, (int)extent, null).or(null) :
+                null;
+        IntStream rows = IntStream.range(0, count);
+        if(parallelTableThreshold > 0 && count >= parallelTableThreshold && isConcurrentReadSafe()){
+            rows = rows.parallel();
+        }
+        try {
+            rows.forEach(idx -> {
+                T object = createStrategy.create(clazz);
+                if(span == null){
+                    readInto(start.copyRelative((long)idx * stride), object, clazz);
+                } else {
+                    HexFieldIterator row = span.copyRelative((long)idx * stride);
+                    pipeline.modify(row, object, this);
+                    track(row, object);
+                }
+                destination[idx] = object;
+            });
+        } finally {
+            if(span != null){
+                span.release();
+            }
+        }
+    }
+
+    /**
+     * Write a table of objects reflectively.
+     * The table's region is read with a single bulk read, each row is encoded into memory, and the region is written
+     * back with a single bulk write. Fields outside the table, such as absolute fields, are written directly.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param objects The objects to write, in order.
+     * @param <T> The object to write
+     */
+    public <T> void writeTable(Pointer start, int stride, List<? extends T> objects){
+        checkTable(stride, objects.size());
+        HexFieldIterator iterator = hexField.iterator(start);
+        long extent = 0;
+        for(int idx = 0; idx < objects.size(); idx++){
+            long rowSize = getSize(objects.get(idx)).orElse(stride);
+            extent = Math.max(extent, (long)idx * stride + rowSize);
+        }
+        SpanBufferedIterator span = extent > 0 && extent <= MAX_TABLE_SPAN_SIZE ?
+                SpanBufferedIterator.stage(iterator, (int)extent, null).or(null) :
+                null;
+        HexFieldIterator rows = span == null ? iterator : span;
+        //With dirty tracking, only the bytes which changed are written.
+        byte[] original = span != null && dirtyTracker != null ? Arrays.copyOf(span.getBuffer(), (int)extent) : null;
+        try {
+            for(int idx = 0; idx < objects.size(); idx++){
+                pipeline.write(rows.copyRelative((long)idx * stride), objects.get(idx), this);
+            }
+            if(span != null){
+                span.flush(original).orThrow(WritePipeException::new);
+            }
+        } finally {
+            if(span != null){
+                span.release();
+            }
+        }
+    }
+
+    /**
+     * Write a table of objects reflectively.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param objects The objects to write, in order.
+     * @param <T> The object to write
+     * @see #writeTable(Pointer, int, List)
+     */
+    public <T> void writeTable(long start, int stride, List<? extends T> objects){
+        writeTable(Pointer.of(start), stride, objects);
+    }
+
+    /**
+     * Stream a table of objects reflectively.
+     * Each row is only read when the stream consumes it, so large tables can be filtered or mapped without
+     * holding every row in memory. Parallel streams split the table by row range, unless the field can't be read from
+     * several threads at once, such as an AsyncHexField or a write-back FileHexField. Those tables are always read
+     * sequentially, on the thread consuming the stream.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @return A lazy, sequential stream of the rows, in order
+     */
+    public <T> Stream<T> stream(Pointer start, int stride, int count, Class<T> clazz){
+        checkTable(stride, count);
+        return StreamSupport.stream(new TableSpliterator<>(this, hexField.iterator(start), stride, 0, count, clazz,
+                isConcurrentReadSafe()), false);
+    }
+
+    /**
+     * Stream a table of objects reflectively.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param count The number of rows.
+     * @param clazz The class of each row.
+     * @param <T> The object to extract
+     * @return A lazy, sequential stream of the rows, in order
+     * @see #stream(Pointer, int, int, Class)
+     */
+    public <T> Stream<T> stream(long start, int stride, int count, Class<T> clazz){
+        return stream(Pointer.of(start), stride, count, clazz);
+    }
+
+    /**
+     * Create a reusable view over a table, which decodes fields without creating objects.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param clazz The class of each row.
+     * @param <T> The class of each row
+     * @return A view, positioned on the first row
+     * @see StructView
+     */
+    public <T> StructView<T> view(Pointer start, int stride, Class<T> clazz){
+        checkTable(stride, 0);
+        return new StructView<>(this, clazz, hexField.iterator(start), stride);
+    }
+
+    /**
+     * Create a reusable view over a table, which decodes fields without creating objects.
+     * @param start The pointer to the first row.
+     * @param stride The distance between the start of each row, in bytes.
+     * @param clazz The class of each row.
+     * @param <T> The class of each row
+     * @return A view, positioned on the first row
+     * @see StructView
+     */
+    public <T> StructView<T> view(long start, int stride, Class<T> clazz){
+        return view(Pointer.of(start), stride, clazz);
+    }
+
+    //Read an object at an iterator's position.
+    <T> T read(HexFieldIterator iterator, Class<T> clazz){
+        T object = createStrategy.create(clazz);
+        readInto(iterator, object, clazz);
+        return object;
+    }
+
+    private static void checkTable(int stride, int count){
+        if(stride <= 0){
+            throw new IllegalArgumentException("Stride must be positive");
+        }
+        if(count < 0){
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+    }
+
     /**
      * Write an object reflectively from a pointer.
      *
@@ -152,7 +634,7 @@ public class HexFramework {
      * @param <T> The object to write
      */
     public <T> void write(Pointer pointer, T object) {
-        pipeline.write(hexField.iterator(pointer), object, this);
+        writeFrom(hexField.iterator(pointer), object);
     }
 
     /**
@@ -166,7 +648,111 @@ public class HexFramework {
      * @param <T> The object to write
      */
     public <T> void write(long pointer, T object) {
-        pipeline.write(hexField.iterator(Pointer.of(pointer)), object, this);
+        write(Pointer.of(pointer), object);
+    }
+
+    //Run the write pipeline on an object. If it has a snapshot, it is encoded in memory, and only changes are written.
+    private void writeFrom(HexFieldIterator iterator, Object object){
+        byte[] original = dirtyTracker == null ? null : dirtyTracker.getSnapshot(iterator.getPosition(), object);
+        if(original == null){
+            pipeline.write(iterator, object, this);
+            return;
+        }
+        SpanBufferedIterator span = SpanBufferedIterator.stage(iterator, original);
+        try {
+            pipeline.write(span, object, this);
+            span.flush(original).orThrow(WritePipeException::new);
+            dirtyTracker.record(iterator.getPosition(), object, span.getBuffer());
+        } finally {
+            span.release();
+        }
+    }
+
+    //Discard cached objects and snapshots of bytes written through the framework's field.
+    private void written(long position, long length){
+        if(objectCache != null){
+            objectCache.invalidate(position, length);
+        }
+        if(dirtyTracker != null){
+            dirtyTracker.invalidate(position, length);
+        }
+    }
+
+    /**
+     * Record the bytes an object was read from, so later writes of it only write the bytes which changed.
+     * This does nothing if dirty tracking is disabled, or the object's size can't be determined.
+     * @param iterator An iterator at the position the object was read from.
+     * @param object The object which was read.
+     * @param <T> The object's type
+     * @return The object
+     * @see DirtyTracker
+     */
+    public <T> T track(HexFieldIterator iterator, T object){
+        if(dirtyTracker == null || object == null){
+            return object;
+        }
+        OptionalInt size = getSize(object);
+        if(size.isPresent()){
+            byte[] bytes = new byte[size.getAsInt()];
+            Try<Void> read = Try.running(() -> {
+                iterator.copy().readBytes(bytes, 0, bytes.length);
+                return null;
+            }, "Error reading snapshot");
+            if(read.isOk()){
+                dirtyTracker.record(iterator.getPosition(), object, bytes);
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Test if an object would be written exactly as it was read.
+     * @param pointer The pointer the object was read from.
+     * @param object The object.
+     * @param encoder A function which writes the object to an iterator.
+     * @return True, if dirty tracking is enabled, and the object has a snapshot which matches its encoding
+     */
+    public boolean isUnchanged(Pointer pointer, Object object, Consumer<HexFieldIterator> encoder){
+        if(dirtyTracker == null){
+            return false;
+        }
+        long location = hexField.iterator(pointer).getPosition();
+        if(dirtyTracker.getSnapshot(location, object) == null){
+            return false;
+        }
+        ByteWindow encoded = new ByteWindow();
+        encoder.accept(encoded.iterator(Pointer.of(location)));
+        return dirtyTracker.isUnchanged(location, object, encoded);
+    }
+
+    /**
+     * Flush any pending writes out to the hex field.
+     * This is only necessary if the hex field buffers writes, such as a FileHexField in write-back mode.
+     * @return A Try describing if the flush was successful.
+     */
+    public Try<Void> flush(){
+        return Try.running(() -> {
+            if(hexField instanceof Flushable){
+                ((Flushable) hexField).flush();
+            }
+            return null;
+        }, "Error flushing HexFramework");
+    }
+
+    /**
+     * Flush any pending writes, and close the hex field.
+     * The framework should not be used after it is closed.
+     * @return A Try describing if the close was successful.
+     */
+    public Try<Void> close(){
+        return Try.running(() -> {
+            if(hexField instanceof Closeable){
+                ((Closeable) hexField).close();
+            } else if(hexField instanceof Flushable){
+                ((Flushable) hexField).flush();
+            }
+            return null;
+        }, "Error closing HexFramework");
     }
 
     /**
@@ -207,6 +793,68 @@ public class HexFramework {
         return HexerUtils.calculateSizeOfObject(this, obj);
     }
 
+    /**
+     * Get the size of every object of a class.
+     * The size is computed from the class's layout, which is cached, so this is a single lookup after the first call.
+     * @param clazz The class to calculate
+     * @return The size, or an empty OptionalInt if objects of the class vary in size.
+     * @see StructureLayout
+     */
+    public OptionalInt getSize(Class<?> clazz){
+        StructureLayout layout = getLayout(clazz);
+        return layout.isFixedSize() ? OptionalInt.of(layout.getSize()) : OptionalInt.empty();
+    }
+
+    /**
+     * Get the layout of a class, computing it the first time it is requested.
+     * @param clazz The class
+     * @return The class's layout
+     */
+    public StructureLayout getLayout(Class<?> clazz){
+        StructureLayout layout = layouts.get(clazz);
+        if(layout == null){
+            layout = StructureLayout.compute(clazz, this);
+            layouts.put(clazz, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Get the map a pipe keeps its compiled per-class plans in, for this framework.
+     * Plans may depend on the framework's hexers and configuration, so each framework holds its own, and
+     * {@code invalidate()} discards them.
+     * @param owner The pipe which owns the plans.
+     * @param <T> The type of plan
+     * @return A thread-safe map of plans, keyed by class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<Class<?>, T> getPlans(Object owner){
+        Map<Class<?>, ?> ownerPlans = plans.get(owner);
+        if(ownerPlans == null){
+            ownerPlans = plans.computeIfAbsent(owner, k -> new ConcurrentHashMap<>());
+        }
+        return (Map<Class<?>, T>) ownerPlans;
+    }
+
+    /**
+     * Discard every cached layout, evaluation, compiled plan, shared object, snapshot, and prefetched range.
+     * This should be called if the configuration's contents change, since offsets may depend on it.
+     */
+    public void invalidate(){
+        evaluator.invalidate();
+        layouts.clear();
+        plans.clear();
+        if(objectCache != null){
+            objectCache.clear();
+        }
+        if(dirtyTracker != null){
+            dirtyTracker.clear();
+        }
+        if(asyncHexField != null){
+            asyncHexField.invalidate();
+        }
+    }
+
     /**
      * Get a value from the configuration provided.
      * If no configuration was provided, the default is provided.
@@ -219,6 +867,20 @@ public class HexFramework {
         return configuration == null ? Optional.empty() : configuration.get(key, converter);
     }
 
+    /**
+     * Replace the configuration used in this framework.
+     * If the evaluator is a ConfigurationEvaluator, it evaluates with the new configuration from now on. Everything
+     * derived from the old configuration is discarded, as by {@code invalidate()}.
+     * @param configuration The new configuration
+     */
+    public void setConfiguration(Configuration configuration){
+        this.configuration = Objects.requireNonNull(configuration);
+        if(evaluator instanceof ConfigurationEvaluator){
+            ((ConfigurationEvaluator) evaluator).setConfiguration(configuration);
+        }
+        invalidate();
+    }
+
     /**
      * Get the evaluator used in this framework.
      * @return
@@ -229,7 +891,7 @@ public class HexFramework {
 
     /**
      * Get the hexers registered to this framework.
-     * @return
+     * @return An unmodifiable HexerRegistry of the hexers
      */
     public Map<Class<?>, Hexer<?>> getHexers() {
         return hexers;
@@ -243,6 +905,47 @@ public class HexFramework {
         return pipeline;
     }
 
+    /**
+     * Test if this framework prefetches fixed-size structures.
+     * @return True, if prefetching is enabled
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Get the number of rows at which tables are decoded in parallel.
+     * Tables are still decoded sequentially if the field can't be read from several threads at once.
+     * @return The threshold, or 0 if tables are always decoded sequentially
+     */
+    public int getParallelTableThreshold() {
+        return parallelTableThreshold;
+    }
+
+    /**
+     * Test if every PointerField's object is read lazily.
+     * @return True, if PointerFields are always lazy
+     */
+    public boolean isLazyPointers() {
+        return lazyPointers;
+    }
+
+    /**
+     * Get the object cache of this framework.
+     * @return The cache, or an empty Optional if objects are not shared
+     */
+    public Optional<ObjectCache> getObjectCache() {
+        return Optional.ofNullable(objectCache);
+    }
+
+    /**
+     * Get the dirty tracker of this framework.
+     * @return The tracker, or an empty Optional if every write is made in full
+     */
+    public Optional<DirtyTracker> getDirtyTracker() {
+        return Optional.ofNullable(dirtyTracker);
+    }
+
     /**
      * Get the createstrategy of this framework.
      * @return
@@ -251,6 +954,19 @@ public class HexFramework {
         return createStrategy;
     }
 
+    /**
+     * The object being read by a projected read on this thread, and the fields being read.
+     */
+    private static class Projection {
+        private final Object object;
+        private final FieldSelector selector;
+
+        private Projection(Object object, FieldSelector selector){
+            this.object = object;
+            this.selector = selector;
+        }
+    }
+
     public static class Builder {
         private File path;
         private HexField hexField;
@@ -258,6 +974,18 @@ public class HexFramework {
         private Evaluator evaluator;
         private Pipeline<Object> pipeline;
         private CreateStrategy createStrategy;
+        private boolean compiledPipeline;
+        private boolean memoryMapped;
+        private boolean inMemory;
+        private int pageSize;
+        private long pageCacheBudget;
+        private long writeBackThreshold;
+        private boolean prefetch;
+        private int parallelTableThreshold;
+        private boolean lazyPointers;
+        private boolean async;
+        private int objectCacheSize;
+        private int dirtyTrackingSize;
 
         Map<Class<?>, Hexer<?>> hexers;
 
@@ -308,6 +1036,171 @@ public class HexFramework {
             return this;
         }
 
+        /**
+         * Set whether the default pipeline should compile each class's fields, rather than interpret them.
+         * A compiled pipeline resolves each class's offsets and hexers once, the first time it is used, and reads
+         * and writes identically afterwards. This has no effect if a pipeline was set.
+         * @param compiledPipeline True if the compiled pipeline should be used.
+         * @return This builder
+         * @see PipeUtils#getCompiledPipeline()
+         */
+        public Builder setCompiledPipeline(boolean compiledPipeline){
+            this.compiledPipeline = compiledPipeline;
+            return this;
+        }
+
+        /**
+         * Set whether the file should be read through an AsyncHexField.
+         * While an object is decoded, the objects its PointerFields point to are read in the background, so their
+         * reads overlap. This has no effect if the file is memory-mapped or held in memory, but a framework
+         * initialized with an AsyncHexField always reads this way.
+         * @param async True if the file should be read asynchronously.
+         * @return This builder
+         */
+        public Builder setAsync(boolean async){
+            this.async = async;
+            return this;
+        }
+
+        /**
+         * Set whether the file should be memory-mapped, rather than read through a FileChannel.
+         * Memory-mapping is considerably faster when reading large portions of the file, but the size of the
+         * file is fixed once mapped. Files which can't be written are mapped read-only. This has no effect if the
+         * framework was initialized with a HexField.
+         * @param memoryMapped True if the file should be memory-mapped.
+         * @return This builder
+         */
+        public Builder setMemoryMapped(boolean memoryMapped){
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
+        /**
+         * Set whether the whole file should be loaded into memory, rather than read through a FileChannel.
+         * Every read and write then works on a single byte array, and the file is only written when the framework
+         * is flushed or closed. Saves replace the file atomically. This has no effect if the framework was
+         * initialized with a HexField, and takes precedence over memory-mapping and write-back.
+         * @param inMemory True if the file should be loaded into memory.
+         * @return This builder
+         * @see ByteArrayHexField
+         */
+        public Builder setInMemory(boolean inMemory){
+            this.inMemory = inMemory;
+            return this;
+        }
+
+        /**
+         * Buffer writes to the file, rather than writing them immediately.
+         * Buffered writes are merged into contiguous runs, and written when the framework is flushed or closed,
+         * or when the number of buffered bytes reaches the threshold. This has no effect if the framework was
+         * initialized with a HexField, or is memory-mapped.
+         * @param threshold The number of buffered bytes which triggers an automatic flush.
+         * @return This builder
+         * @see FileHexField#enableWriteBack(long)
+         */
+        public Builder setWriteBack(long threshold){
+            if(threshold <= 0){
+                throw new IllegalArgumentException("Write-back threshold must be positive");
+            }
+            this.writeBackThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Place a page cache in front of the hex field.
+         * Reads are served from cached pages of the field, which are loaded with a single read each. This is useful
+         * when memory-mapping is not an option.
+         * @param pageSize The size of each page. Must be a power of two, between 4KB and 64KB.
+         * @param byteBudget The maximum number of bytes the cache may hold.
+         * @return This builder
+         * @see CachingHexField
+         */
+        public Builder setPageCache(int pageSize, long byteBudget){
+            this.pageSize = pageSize;
+            this.pageCacheBudget = byteBudget;
+            return this;
+        }
+
+        /**
+         * Set whether structures should be prefetched before they are read.
+         * When a class has a fixed size, its bytes are fetched with a single bulk read, and every field within
+         * them is decoded from memory. Fields outside the structure, such as absolute fields or pointed-to objects,
+         * are read from the hex field as usual. This helps most when each read of the hex field is expensive, such
+         * as a FileHexField without a page cache.
+         * @param prefetch True if structures should be prefetched.
+         * @return This builder
+         * @see SpanBufferedIterator
+         */
+        public Builder setPrefetch(boolean prefetch){
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        /**
+         * Decode large tables in parallel.
+         * Tables with at least this many rows are decoded on the common fork/join pool. The pipeline, create strategy,
+         * and any hexers used must be safe to use from several threads, and so must the hex field. Tables are always
+         * decoded sequentially from a FileHexField in write-back mode, or from an AsyncHexField.
+         * @param threshold The number of rows which triggers parallel decoding, or 0 to always decode sequentially.
+         * @return This builder
+         * @see HexFramework#readTable(Pointer, int, int, Class)
+         */
+        public Builder setParallelTables(int threshold){
+            if(threshold < 0){
+                throw new IllegalArgumentException("Parallel table threshold must not be negative");
+            }
+            this.parallelTableThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Set whether every PointerField's object should be read lazily.
+         * When true, reading a structure only reads its pointers, and each object pointed to is read the first time
+         * {@code PointerObject.getObject()} is called, as if every @PointerField had {@code lazy = true}.
+         * @param lazyPointers True if PointerFields should be read lazily.
+         * @return This builder
+         * @see PointerField#lazy()
+         */
+        public Builder setLazyPointers(boolean lazyPointers){
+            this.lazyPointers = lazyPointers;
+            return this;
+        }
+
+        /**
+         * Share objects which are read from the same place.
+         * Reading a class, or following a PointerField, first checks a cache keyed by location, class, and reader,
+         * so repeated reads return the same instance. The least-recently used objects are evicted once the cache is
+         * full, and any write to an object's bytes made through this framework discards it.
+         * @param maxEntries The maximum number of objects to cache.
+         * @return This builder
+         * @see ObjectCache
+         */
+        public Builder setObjectCache(int maxEntries){
+            if(maxEntries <= 0){
+                throw new IllegalArgumentException("Object cache size must be positive");
+            }
+            this.objectCacheSize = maxEntries;
+            return this;
+        }
+
+        /**
+         * Only write the bytes of an object which changed since it was read.
+         * Reading an object takes a snapshot of the bytes it was read from. Writing the same instance back encodes it
+         * in memory, and writes only the runs of bytes which differ. PointerFields whose objects are unchanged are
+         * not repointed. Objects without a snapshot, such as new objects, are written in full. Any write made through
+         * the framework discards the snapshots of the bytes it changes.
+         * @param maxSnapshots The maximum number of snapshots to hold.
+         * @return This builder
+         * @see DirtyTracker
+         */
+        public Builder setDirtyTracking(int maxSnapshots){
+            if(maxSnapshots <= 0){
+                throw new IllegalArgumentException("Dirty tracking size must be positive");
+            }
+            this.dirtyTrackingSize = maxSnapshots;
+            return this;
+        }
+
         /**
          * Applies a FrameworkFactory
          * A framework factory can apply certain presets to this Builder, such as standard hexers or pipelines.
@@ -328,12 +1221,43 @@ public class HexFramework {
         public Try<HexFramework> build(){
             return Try.running(() -> {
                 HexFramework framework = new HexFramework();
-                framework.hexers = Collections.unmodifiableMap(hexers);
-                if (hexField == null) {
-                    framework.hexField = FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow(RuntimeException::new);
+                HexerRegistry registry = new HexerRegistry(hexers);
+                registry.validate(Collections.singleton(Pointer.class)).orThrow();
+                framework.hexers = registry;
+                if (hexField == null && inMemory) {
+                    framework.hexField = ByteArrayHexField.load(path).orThrow(RuntimeException::new);
+                } else if (hexField == null && memoryMapped) {
+                    //Read-only files are mapped read-only, rather than failing to open.
+                    OpenOption[] options = Files.isWritable(path.toPath()) ?
+                            new OpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE} :
+                            new OpenOption[]{StandardOpenOption.READ};
+                    framework.hexField = MappedHexField.get(path.toPath(), options).orThrow(RuntimeException::new);
+                } else if (hexField == null && async) {
+                    framework.hexField = AsyncHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow(RuntimeException::new);
+                } else if (hexField == null) {
+                    FileHexField fileHexField = FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow(RuntimeException::new);
+                    if (writeBackThreshold > 0) {
+                        fileHexField.enableWriteBack(writeBackThreshold);
+                    }
+                    framework.hexField = fileHexField;
                 } else {
                     framework.hexField = hexField;
                 }
+                if (framework.hexField instanceof AsyncHexField) {
+                    framework.asyncHexField = (AsyncHexField) framework.hexField;
+                }
+                if (pageSize > 0) {
+                    framework.hexField = new CachingHexField(framework.hexField, pageSize, pageCacheBudget);
+                }
+                if (objectCacheSize > 0) {
+                    framework.objectCache = new ObjectCache(objectCacheSize);
+                }
+                if (dirtyTrackingSize > 0) {
+                    framework.dirtyTracker = new DirtyTracker(dirtyTrackingSize);
+                }
+                if (framework.objectCache != null || framework.dirtyTracker != null) {
+                    framework.hexField = new ObservedHexField(framework.hexField, framework::written);
+                }
                 if (configuration == null) {
                     configuration = new MapConfig();
                 }
@@ -343,13 +1267,16 @@ public class HexFramework {
                 }
                 framework.evaluator = evaluator;
                 if (pipeline == null) {
-                    pipeline = PipeUtils.getDefaultPipeline();
+                    pipeline = compiledPipeline ? PipeUtils.getCompiledPipeline() : PipeUtils.getDefaultPipeline();
                 }
                 framework.pipeline = pipeline;
                 if (createStrategy == null) {
                     createStrategy = new EmptyConstructorCreateStrategy();
                 }
                 framework.createStrategy = createStrategy;
+                framework.prefetch = prefetch;
+                framework.parallelTableThreshold = parallelTableThreshold;
+                framework.lazyPointers = lazyPointers;
                 return framework;
             }, "Error creating HexFramework");
         }
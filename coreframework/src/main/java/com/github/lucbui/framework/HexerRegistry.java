@@ -0,0 +1,134 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.utility.Try;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable map of hexers, which resolves the hexer for any class with a single lookup.
+ *
+ * A class is resolved to the hexer registered for it exactly. If none is registered, it resolves to the hexer of
+ * the single registered class which extends or implements it. Resolutions for every supertype of every registered
+ * class are computed when the registry is created. A class which is not in the table has no hexer.
+ *
+ * If several registered classes extend the same type, looking up that type is ambiguous, and fails with an
+ * IllegalArgumentException. {@code validate()} can check a set of types up front, reporting every conflict at once.
+ */
+public class HexerRegistry extends AbstractMap<Class<?>, Hexer<?>> {
+
+    private final Map<Class<?>, Hexer<?>> hexers;
+    private final Map<Class<?>, Resolution> resolutions;
+
+    /**
+     * Create a registry from a map of hexers.
+     * The map is copied, so later changes to it are not seen by this registry.
+     * @param hexers The hexers, keyed by the class they read
+     */
+    public HexerRegistry(Map<Class<?>, Hexer<?>> hexers){
+        this.hexers = Collections.unmodifiableMap(new LinkedHashMap<>(hexers));
+        this.resolutions = Collections.unmodifiableMap(resolve(this.hexers));
+    }
+
+    //Build the table of every type a registered class can be looked up by.
+    private static Map<Class<?>, Resolution> resolve(Map<Class<?>, Hexer<?>> hexers){
+        Map<Class<?>, List<Class<?>>> candidates = new HashMap<>();
+        for(Class<?> registered : hexers.keySet()){
+            Set<Class<?>> supertypes = new LinkedHashSet<>();
+            supertypes.addAll(ClassUtils.getAllSuperclasses(registered));
+            supertypes.addAll(ClassUtils.getAllInterfaces(registered));
+            for(Class<?> supertype : supertypes){
+                candidates.computeIfAbsent(supertype, k -> new ArrayList<>()).add(registered);
+            }
+        }
+        Map<Class<?>, Resolution> resolutions = new HashMap<>();
+        candidates.forEach((type, matches) -> {
+            if(matches.size() == 1){
+                resolutions.put(type, new Resolution(hexers.get(matches.get(0)), null));
+            } else {
+                resolutions.put(type, new Resolution(null, Collections.unmodifiableList(matches)));
+            }
+        });
+        //Exact registrations always win, even over a supertype of other registered classes.
+        hexers.forEach((type, hexer) -> resolutions.put(type, new Resolution(hexer, null)));
+        return resolutions;
+    }
+
+    /**
+     * Find the hexer for a class.
+     * @param type The class to find a hexer for
+     * @param <T> The type of class
+     * @return The hexer, or null if there isn't one
+     * @throws IllegalArgumentException Several registered classes extend the class, and none is registered exactly
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Hexer<T> resolve(Class<T> type){
+        Resolution resolution = resolutions.get(type);
+        if(resolution == null){
+            return null;
+        } else if(resolution.conflicts != null){
+            throw new IllegalArgumentException("Error finding reader: " + type + " matches: " + resolution.conflicts + ". Please disambiguate the reader.");
+        }
+        return (Hexer<T>) resolution.hexer;
+    }
+
+    /**
+     * Check that a set of types can each be resolved without ambiguity.
+     * Types without any hexer are not errors.
+     * @param types The types to check
+     * @return A Try indicating success, or an error describing every ambiguous type
+     */
+    public Try<Void> validate(Collection<? extends Class<?>> types){
+        List<String> conflicts = new ArrayList<>();
+        for(Class<?> type : types){
+            Resolution resolution = resolutions.get(type);
+            if(resolution != null && resolution.conflicts != null){
+                conflicts.add(type.getName() + " matches " + resolution.conflicts);
+            }
+        }
+        if(conflicts.isEmpty()){
+            return Try.ok();
+        }
+        return Try.error("Ambiguous hexers: " + String.join("; ", conflicts) + ". Please disambiguate the readers.");
+    }
+
+    @Override
+    public Hexer<?> get(Object key) {
+        return hexers.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return hexers.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return hexers.size();
+    }
+
+    @Override
+    public Set<Entry<Class<?>, Hexer<?>>> entrySet() {
+        return hexers.entrySet();
+    }
+
+    private static class Resolution {
+        private final Hexer<?> hexer;
+        private final List<Class<?>> conflicts;
+
+        private Resolution(Hexer<?> hexer, List<Class<?>> conflicts){
+            this.hexer = hexer;
+            this.conflicts = conflicts;
+        }
+    }
+}
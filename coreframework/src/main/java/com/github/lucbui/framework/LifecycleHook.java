@@ -0,0 +1,95 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.file.HexFieldIterator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A method annotated with a lifecycle annotation, such as @AfterRead or @BeforeWrite.
+ * The method is bound to a MethodHandle once, when its class's schema is created. Zero-argument methods ignore the
+ * iterator they are invoked with.
+ * @see DataStructureSchema#getHooks(Class)
+ */
+public class LifecycleHook {
+
+    private static final MethodType HOOK_TYPE = MethodType.methodType(void.class, Object.class, HexFieldIterator.class);
+
+    private final Method method;
+    private final MethodHandle handle;
+
+    LifecycleHook(Method method){
+        this.method = method;
+        this.handle = createHandle(method);
+    }
+
+    //Create an (Object, HexFieldIterator)void handle, or null if the method can't be used as a hook.
+    private static MethodHandle createHandle(Method method){
+        int parameters = method.getParameterCount();
+        if(parameters > 1 || (parameters == 1 && !method.getParameterTypes()[0].isAssignableFrom(HexFieldIterator.class))){
+            return null;
+        }
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if(parameters == 0){
+                handle = MethodHandles.dropArguments(handle, 1, HexFieldIterator.class);
+            }
+            return handle.asType(HOOK_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the name of the hook method.
+     * @return The method's name
+     */
+    public String getName() {
+        return method.getName();
+    }
+
+    /**
+     * Get the number of parameters the hook method takes.
+     * @return The number of parameters
+     */
+    public int getParameterCount() {
+        return method.getParameterCount();
+    }
+
+    /**
+     * Test if the hook can be invoked.
+     * Hooks must take no parameters, or a single HexFieldIterator.
+     * @return True, if the hook can be invoked
+     */
+    public boolean isValid() {
+        return handle != null;
+    }
+
+    /**
+     * Invoke the hook on an object.
+     * @param obj The object to invoke the hook on
+     * @param iterator The iterator to pass, if the hook takes one
+     * @throws InvocationTargetException The hook threw an exception, or could not be invoked
+     */
+    public void invoke(Object obj, HexFieldIterator iterator) throws InvocationTargetException {
+        if(handle == null){
+            throw new InvocationTargetException(null, "Hook " + method.getName() + " can't be invoked");
+        }
+        try {
+            handle.invokeExact(obj, iterator);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LifecycleHook{" +
+                "method=" + method.getName() +
+                '}';
+    }
+}
@@ -0,0 +1,288 @@
+package com.github.lucbui.framework;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded identity map of objects read from a hex field.
+ *
+ * Objects are keyed by their location, their class, and the reader used to decode them, so reading the same bytes
+ * the same way returns the same instance. The least-recently used objects are evicted once the cache holds its maximum
+ * number of entries. Writing to any byte an object was read from discards it, so the next read decodes it again.
+ * An object may also be read from ranges outside its own bytes, such as its absolute fields; a write to those discards
+ * it too. Objects which were read while loading another object, such as the objects of its PointerFields, are its
+ * dependencies; discarding a dependency because of a write also discards every object which depends on it. A loader
+ * wrapped with {@code bind()}, such as that of a lazy PointerObject, records its objects as dependencies of the object
+ * being loaded when it was wrapped, even if it runs after that object was cached.
+ *
+ * Only objects whose size is known are cached, since otherwise overlapping writes can't be detected.
+ */
+public class ObjectCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries;
+    //The start of every range an object was read from, and the length of the range, for each object.
+    private final NavigableMap<Long, Map<Key, Long>> byPosition = new TreeMap<>();
+    private final ThreadLocal<ArrayDeque<Set<Key>>> loading = ThreadLocal.withInitial(ArrayDeque::new);
+    private long largestLength = 0;
+    private long hits;
+    private long misses;
+
+    /**
+     * Create an ObjectCache
+     * @param maxEntries The maximum number of objects to hold. Must be positive.
+     */
+    public ObjectCache(int maxEntries){
+        if(maxEntries <= 0){
+            throw new IllegalArgumentException("Maximum entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get the object read at a location, reading it if it isn't cached.
+     * The loader is called without holding the cache's lock, so it may read other objects through this cache.
+     * @param location The position the object is read from.
+     * @param type The class of the object.
+     * @param reader The hexer, pipe, or other value which identifies how the object is decoded.
+     * @param loader A function which reads the object.
+     * @param sizer A function which calculates the size of the object, or returns a negative number if unknown.
+     * @param <T> The class of the object
+     * @return The cached or newly read object
+     */
+    public <T> T get(long location, Class<T> type, Object reader, Supplier<? extends T> loader, ToIntFunction<? super T> sizer){
+        return get(location, type, reader, loader, sizer, Collections.emptyList());
+    }
+
+    /**
+     * Get the object read at a location, reading it if it isn't cached.
+     * The loader is called without holding the cache's lock, so it may read other objects through this cache.
+     * @param location The position the object is read from.
+     * @param type The class of the object.
+     * @param reader The hexer, pipe, or other value which identifies how the object is decoded.
+     * @param loader A function which reads the object.
+     * @param sizer A function which calculates the size of the object, or returns a negative number if unknown.
+     * @param ranges Other ranges the object is read from, each as {position, length}.
+     * @param <T> The class of the object
+     * @return The cached or newly read object
+     */
+    public <T> T get(long location, Class<T> type, Object reader, Supplier<? extends T> loader, ToIntFunction<? super T> sizer,
+                     List<long[]> ranges){
+        Key key = new Key(location, type, reader);
+        ArrayDeque<Set<Key>> stack = loading.get();
+        synchronized (this){
+            //A bound loader adds to the dependencies of an object which may already be cached, so this needs the lock.
+            if(!stack.isEmpty()){
+                stack.peek().add(key);
+            }
+            Entry entry = entries.get(key);
+            if(entry != null){
+                hits++;
+                return type.cast(entry.object);
+            }
+            misses++;
+        }
+        Set<Key> dependencies = new HashSet<>();
+        stack.push(dependencies);
+        T object;
+        try {
+            object = loader.get();
+        } finally {
+            stack.pop();
+        }
+        int size = sizer.applyAsInt(object);
+        if(size < 0){
+            return object;
+        }
+        synchronized (this){
+            Entry existing = entries.get(key);
+            if(existing != null){
+                //Another thread read it first. Keep one instance.
+                return type.cast(existing.object);
+            }
+            List<long[]> allRanges = new ArrayList<>(ranges.size() + 1);
+            allRanges.add(new long[]{location, size});
+            allRanges.addAll(ranges);
+            put(key, new Entry(object, allRanges, dependencies));
+        }
+        return object;
+    }
+
+    /**
+     * Wrap a loader, so the objects it reads through this cache are dependencies of the object being loaded now.
+     * This is for loaders which may run after the current object is cached, such as those of lazy PointerObjects.
+     * If no object is being loaded on this thread, the loader is returned unchanged.
+     * @param loader The loader to wrap.
+     * @param <T> The class of object the loader reads
+     * @return A loader which records its reads as dependencies of the current object
+     */
+    public <T> Supplier<T> bind(Supplier<T> loader){
+        Set<Key> dependencies = loading.get().peek();
+        if(dependencies == null){
+            return loader;
+        }
+        return () -> {
+            ArrayDeque<Set<Key>> stack = loading.get();
+            stack.push(dependencies);
+            try {
+                return loader.get();
+            } finally {
+                stack.pop();
+            }
+        };
+    }
+
+    private void put(Key key, Entry entry){
+        entries.put(key, entry);
+        for(long[] range : entry.ranges){
+            byPosition.computeIfAbsent(range[0], k -> new HashMap<>()).merge(key, range[1], Math::max);
+            largestLength = Math.max(largestLength, range[1]);
+        }
+        while(entries.size() > maxEntries){
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private void remove(Key key){
+        Entry entry = entries.remove(key);
+        if(entry == null){
+            return;
+        }
+        for(long[] range : entry.ranges){
+            Map<Key, Long> atPosition = byPosition.get(range[0]);
+            if(atPosition != null){
+                atPosition.remove(key);
+                if(atPosition.isEmpty()){
+                    byPosition.remove(range[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Discard every object read from any byte in a range.
+     * @param position The first byte of the range.
+     * @param length The number of bytes in the range.
+     */
+    public synchronized void invalidate(long position, long length){
+        if(length <= 0 || entries.isEmpty()){
+            return;
+        }
+        //No range starting more than largestLength bytes before the written range can overlap it.
+        long from = position - largestLength;
+        Set<Key> overlapping = new HashSet<>();
+        for(Map.Entry<Long, Map<Key, Long>> atPosition : byPosition.subMap(from, false, position + length, false).entrySet()){
+            long start = atPosition.getKey();
+            atPosition.getValue().forEach((key, rangeLength) -> {
+                if(start + rangeLength > position){
+                    overlapping.add(key);
+                }
+            });
+        }
+        overlapping.forEach(this::remove);
+        //Anything built from a discarded object holds a stale reference to it.
+        Set<Key> removed = new HashSet<>(overlapping);
+        while(!removed.isEmpty()){
+            List<Key> dependents = new ArrayList<>();
+            entries.forEach((key, entry) -> {
+                if(!Collections.disjoint(entry.dependencies, removed)){
+                    dependents.add(key);
+                }
+            });
+            dependents.forEach(this::remove);
+            removed.clear();
+            removed.addAll(dependents);
+        }
+    }
+
+    /**
+     * Discard every cached object.
+     */
+    public synchronized void clear(){
+        entries.clear();
+        byPosition.clear();
+        largestLength = 0;
+    }
+
+    /**
+     * Get the number of objects currently cached.
+     * @return The number of objects
+     */
+    public synchronized int size(){
+        return entries.size();
+    }
+
+    /**
+     * Get the maximum number of objects this cache holds.
+     * @return The maximum number of objects
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Get the number of lookups that returned a cached object.
+     * @return The number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that had to read the object.
+     * @return The number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class Key {
+        private final long location;
+        private final Class<?> type;
+        private final Object reader;
+
+        private Key(long location, Class<?> type, Object reader){
+            this.location = location;
+            this.type = type;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return location == key.location && type.equals(key.type) && Objects.equals(reader, key.reader);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, type, reader);
+        }
+    }
+
+    private static class Entry {
+        private final Object object;
+        private final List<long[]> ranges;
+        private final Set<Key> dependencies;
+
+        private Entry(Object object, List<long[]> ranges, Set<Key> dependencies){
+            this.object = object;
+            this.ranges = ranges;
+            this.dependencies = dependencies;
+        }
+    }
+}
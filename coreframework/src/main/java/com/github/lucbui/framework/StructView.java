@@ -0,0 +1,219 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.file.HexFieldIterator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A reusable view over the rows of a fixed-stride table, which decodes fields directly from the hex field.
+ *
+ * A view is positioned on a single row with {@code wrap()}. Its primitive getters, such as {@code getU16()}, read a
+ * field's bytes at the row's position each time they are called, and allocate nothing, so a table can be scanned
+ * without creating an object per row. This is fastest over a field which holds its bytes in memory, such as a
+ * MappedHexField or ByteArrayHexField.
+ *
+ * Fields are looked up by name, or by the FieldLayout returned from {@code field()}, which avoids the lookup. Offsets
+ * come from the class's StructureLayout, so they are evaluated once, when the view is created.
+ *
+ * A view is not thread-safe. Each thread scanning a table should use its own.
+ * @param <T> The class of each row
+ */
+public class StructView<T> {
+
+    private final HexFramework hexFramework;
+    private final StructureLayout layout;
+    private final Map<String, StructureLayout.FieldLayout> fields = new HashMap<>();
+    private final HexFieldIterator iterator;
+    private final long base;
+    private final int stride;
+    private long row;
+
+    /**
+     * Create a view over a table.
+     * @param hexFramework The framework whose field and hexers are used
+     * @param clazz The class of each row
+     * @param start An iterator at the first row of the table. The view takes ownership of it.
+     * @param stride The distance between the start of each row, in bytes
+     */
+    StructView(HexFramework hexFramework, Class<T> clazz, HexFieldIterator start, int stride){
+        this.hexFramework = hexFramework;
+        this.layout = hexFramework.getLayout(clazz);
+        this.iterator = start;
+        this.base = start.getPosition();
+        this.stride = stride;
+        this.row = base;
+        for(StructureLayout.FieldLayout field : layout.getFields()){
+            fields.putIfAbsent(field.getField().getName(), field);
+        }
+    }
+
+    /**
+     * Position this view on a row of the table.
+     * @param index The index of the row
+     * @return This view
+     */
+    public StructView<T> wrap(long index){
+        this.row = base + index * stride;
+        return this;
+    }
+
+    /**
+     * Get the position of the row this view is on.
+     * @return The position of the row
+     */
+    public long getPosition(){
+        return row;
+    }
+
+    /**
+     * Get the layout of the class this view reads.
+     * @return The layout
+     */
+    public StructureLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Find a field by name.
+     * @param name The name of the field
+     * @return The field's layout
+     * @throws IllegalArgumentException The class has no @Offset field with that name, or its offset can't be evaluated
+     */
+    public StructureLayout.FieldLayout field(String name){
+        StructureLayout.FieldLayout field = fields.get(name);
+        if(field == null){
+            throw new IllegalArgumentException("No field " + name + " in " + layout.getType().getName());
+        } else if(field.getOffset() < 0){
+            throw new IllegalArgumentException("Offset of field " + name + " could not be evaluated");
+        }
+        return field;
+    }
+
+    //Position the iterator at a field of the current row.
+    private HexFieldIterator at(StructureLayout.FieldLayout field){
+        iterator.advanceTo(field.isAbsolute() ? field.getOffset() : row + field.getOffset());
+        return iterator;
+    }
+
+    /**
+     * Read a field of the current row as an unsigned byte.
+     * @param field The field
+     * @return The value
+     */
+    public int getU8(StructureLayout.FieldLayout field){
+        return at(field).readU8();
+    }
+
+    /**
+     * Read a field of the current row as an unsigned byte.
+     * @param name The name of the field
+     * @return The value
+     */
+    public int getU8(String name){
+        return getU8(field(name));
+    }
+
+    /**
+     * Read a field of the current row as an unsigned little-endian short.
+     * @param field The field
+     * @return The value
+     */
+    public int getU16(StructureLayout.FieldLayout field){
+        return at(field).readU16LE();
+    }
+
+    /**
+     * Read a field of the current row as an unsigned little-endian short.
+     * @param name The name of the field
+     * @return The value
+     */
+    public int getU16(String name){
+        return getU16(field(name));
+    }
+
+    /**
+     * Read a field of the current row as a signed little-endian word.
+     * @param field The field
+     * @return The value
+     */
+    public int getS32(StructureLayout.FieldLayout field){
+        return at(field).readS32LE();
+    }
+
+    /**
+     * Read a field of the current row as a signed little-endian word.
+     * @param name The name of the field
+     * @return The value
+     */
+    public int getS32(String name){
+        return getS32(field(name));
+    }
+
+    /**
+     * Read a field of the current row as an unsigned little-endian word.
+     * @param field The field
+     * @return The value
+     */
+    public long getU32(StructureLayout.FieldLayout field){
+        return at(field).readU32LE();
+    }
+
+    /**
+     * Read a field of the current row as an unsigned little-endian word.
+     * @param name The name of the field
+     * @return The value
+     */
+    public long getU32(String name){
+        return getU32(field(name));
+    }
+
+    /**
+     * Copy a field's bytes from the current row.
+     * @param field The field
+     * @param dst The array to copy into
+     * @param off The index in the array to start at
+     * @param len The number of bytes to copy
+     */
+    public void getBytes(StructureLayout.FieldLayout field, byte[] dst, int off, int len){
+        at(field).readBytes(dst, off, len);
+    }
+
+    /**
+     * Decode a field of the current row into an object, with its hexer or the framework's pipeline.
+     * Unlike the primitive getters, this creates an object.
+     * @param field The field
+     * @return The decoded object
+     * @throws IllegalArgumentException The field is a @PointerField, which can only be read as a raw value
+     */
+    public Object get(StructureLayout.FieldLayout field){
+        FieldSchema schema = field.getField();
+        if(schema.isPointerField()){
+            throw new IllegalArgumentException("Pointer field " + schema.getName() + " can only be read as a raw value");
+        }
+        HexFieldIterator fieldIterator = at(field).copy();
+        Hexer<?> hexer = schema.getHexer(hexFramework.getHexers()).orElse(null);
+        return hexer == null ? hexFramework.read(fieldIterator, schema.getFieldClass()) : hexer.read(fieldIterator);
+    }
+
+    /**
+     * Decode a field of the current row into an object.
+     * @param name The name of the field
+     * @return The decoded object
+     * @see #get(StructureLayout.FieldLayout)
+     */
+    public Object get(String name){
+        return get(field(name));
+    }
+
+    /**
+     * Read the entire current row as an object.
+     * @return The object
+     */
+    public T materialize(){
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) layout.getType();
+        return hexFramework.read(iterator.copy(row), type);
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.DataStructureSize;
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.pipeline.ArrayFieldCodec;
+import com.github.lucbui.utility.HexerUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * The static layout of a class, as read by a specific HexFramework.
+ *
+ * The layout records where each @Offset field is, and how large it is, if that can be known without an object.
+ * A class has a fixed size if its hexer has a fixed size, if its @DataStructure annotation declares one, or if
+ * every relative field has a fixed size. In the last case, the size is the furthest extent of any relative field.
+ * Absolute fields are not part of the structure, so they don't count towards its size.
+ *
+ * Layouts are computed once per class by {@code HexFramework.getLayout()}.
+ */
+public class StructureLayout {
+
+    private final Class<?> type;
+    private final int size;
+    private final List<FieldLayout> fields;
+
+    private StructureLayout(Class<?> type, int size, List<FieldLayout> fields){
+        this.type = type;
+        this.size = size;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Compute the layout of a class
+     * @param type The class
+     * @param hexFramework The framework whose hexers and evaluator are used
+     * @return The layout
+     */
+    static StructureLayout compute(Class<?> type, HexFramework hexFramework){
+        return compute(type, hexFramework, new HashSet<>());
+    }
+
+    private static StructureLayout compute(Class<?> type, HexFramework hexFramework, Set<Class<?>> visiting){
+        Hexer<?> hexer = HexerUtils.getHexerFor(hexFramework.getHexers(), type).orElse(null);
+        if(hexer != null){
+            return new StructureLayout(type, hexer.getFixedSize(), Collections.emptyList());
+        }
+        DataStructureSchema schema = DataStructureSchema.of(type);
+        if(!schema.isDataStructure() || !visiting.add(type)){
+            //Recursive structures can't have a fixed size.
+            return new StructureLayout(type, -1, Collections.emptyList());
+        }
+        List<FieldLayout> fields = new ArrayList<>();
+        boolean fixed = true;
+        long extent = 0;
+        for(FieldSchema field : schema.getOffsetFields()){
+            OptionalLong offset = hexFramework.getEvaluator().evaluateLong(field.getOffset().value());
+            int fieldSize = offset.isPresent() ? getFieldSize(field, hexFramework, visiting) : -1;
+            fields.add(new FieldLayout(field, offset.orElse(-1), fieldSize));
+            if(!field.isAbsolute()){
+                if(fieldSize < 0){
+                    fixed = false;
+                } else {
+                    extent = Math.max(extent, offset.getAsLong() + fieldSize);
+                }
+            }
+        }
+        visiting.remove(type);
+
+        int size;
+        if(schema.getStaticSize() > 0){
+            size = schema.getStaticSize();
+        } else if(!schema.getMethodsWithAnnotation(DataStructureSize.class).isEmpty() || !fixed || extent > Integer.MAX_VALUE){
+            size = -1;
+        } else {
+            size = (int) extent;
+        }
+        return new StructureLayout(type, size, fields);
+    }
+
+    //The fixed size of a field, or -1 if it depends on the object. PointerFields only hold the pointer itself.
+    //Arrays only have a fixed size if their count is an expression, not another field.
+    private static int getFieldSize(FieldSchema field, HexFramework hexFramework, Set<Class<?>> visiting){
+        if(field.isPointerField()){
+            return HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class).map(Hexer::getFixedSize).orElse(-1);
+        }
+        if(field.isArrayField()){
+            return ArrayFieldCodec.of(field).getFixedSize(hexFramework);
+        }
+        Hexer<?> hexer = field.getHexer(hexFramework.getHexers()).orElse(null);
+        if(hexer != null){
+            return hexer.getFixedSize();
+        } else if(field.isFieldClassDataStructure()){
+            return compute(field.getFieldClass(), hexFramework, visiting).getSize();
+        }
+        return -1;
+    }
+
+    /**
+     * Get the class this layout describes.
+     * @return The class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Get the size of every object of this class, in bytes.
+     * @return The size, or -1 if it depends on the object
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Test if every object of this class is the same size.
+     * @return True, if getSize() is not -1
+     */
+    public boolean isFixedSize() {
+        return size >= 0;
+    }
+
+    /**
+     * Get the layout of each @Offset field.
+     * Classes read by a hexer have no fields.
+     * @return An unmodifiable list of fields, in the same order as DataStructureSchema.getOffsetFields()
+     */
+    public List<FieldLayout> getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return "StructureLayout{" +
+                "type=" + type.getName() +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * The position and size of a single field.
+     */
+    public static class FieldLayout {
+        private final FieldSchema field;
+        private final long offset;
+        private final int size;
+
+        private FieldLayout(FieldSchema field, long offset, int size){
+            this.field = field;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        /**
+         * Get the field's schema.
+         * @return The field
+         */
+        public FieldSchema getField() {
+            return field;
+        }
+
+        /**
+         * Get the field's evaluated offset.
+         * This is relative to the start of the structure, unless the field is absolute.
+         * @return The offset, or -1 if it could not be evaluated
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Test if the field's offset is absolute.
+         * @return True, if the field is annotated with @Absolute
+         */
+        public boolean isAbsolute() {
+            return field.isAbsolute();
+        }
+
+        /**
+         * Get the size of the field, in bytes.
+         * @return The size, or -1 if it depends on the object
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.file.HexFieldIterator;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator which reads the rows of a fixed-stride table on demand.
+ *
+ * Each row is only read when it is consumed. Splitting divides the remaining rows in half, and gives the new
+ * Spliterator its own copy of the table's iterator, so the halves can be read on different threads. A Spliterator
+ * over a field which can't be read from several threads at once never splits.
+ * @param <T> The class of each row
+ */
+class TableSpliterator<T> implements Spliterator<T> {
+
+    private final HexFramework hexFramework;
+    private final HexFieldIterator start;
+    private final int stride;
+    private final Class<T> clazz;
+    private final boolean splittable;
+    private int from;
+    private final int to;
+
+    /**
+     * Create a Spliterator over a table
+     * @param hexFramework The framework to read rows with
+     * @param start An iterator at the first row of the table
+     * @param stride The distance between the start of each row, in bytes
+     * @param from The index of the first row to read
+     * @param to The index after the last row to read
+     * @param clazz The class of each row
+     * @param splittable True if the rows may be read on different threads
+     */
+    TableSpliterator(HexFramework hexFramework, HexFieldIterator start, int stride, int from, int to, Class<T> clazz,
+                     boolean splittable){
+        this.hexFramework = hexFramework;
+        this.start = start;
+        this.stride = stride;
+        this.from = from;
+        this.to = to;
+        this.clazz = clazz;
+        this.splittable = splittable;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if(from >= to){
+            return false;
+        }
+        action.accept(hexFramework.read(start.copyRelative((long)from * stride), clazz));
+        from++;
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int mid = (from + to) >>> 1;
+        if(!splittable || mid <= from){
+            return null;
+        }
+        Spliterator<T> prefix = new TableSpliterator<>(hexFramework, start.copy(), stride, from, mid, clazz, true);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
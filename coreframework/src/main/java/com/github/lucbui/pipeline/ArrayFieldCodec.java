@@ -0,0 +1,385 @@
+package com.github.lucbui.pipeline;
+
+import com.github.lucbui.annotations.ArrayField;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.bytes.ByteObject;
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.SpanBufferedIterator;
+import com.github.lucbui.framework.DataStructureSchema;
+import com.github.lucbui.framework.FieldSchema;
+import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.pipeline.exceptions.ReadPipeException;
+import com.github.lucbui.pipeline.exceptions.WritePipeException;
+import com.github.lucbui.utility.HexerUtils;
+import com.github.lucbui.utility.Try;
+
+import java.lang.reflect.Array;
+import java.util.OptionalInt;
+
+/**
+ * Reads and writes the elements of an @ArrayField.
+ *
+ * Arrays of bytes, shorts, ints, UnsignedBytes, UnsignedShorts and UnsignedWords are read with a single bulk read,
+ * and decoded straight from the bytes read. Contiguous arrays of them are written with a single bulk write. Other
+ * elements are read in one strided pass over a prefetched span, with their hexer, or reflectively if their class is a
+ * @DataStructure.
+ *
+ * A codec depends only on its field, so it is created once per field, by {@code of()}.
+ * @see ArrayField
+ */
+public class ArrayFieldCodec {
+
+    private final FieldSchema field;
+    private final ArrayField arrayField;
+    private final Class<?> elementClass;
+    private final FieldSchema countField;
+    private final Primitive primitive;
+
+    private ArrayFieldCodec(FieldSchema field){
+        this.field = field;
+        this.arrayField = field.getArrayField();
+        this.elementClass = field.getFieldClass().getComponentType();
+        if(arrayField == null || elementClass == null){
+            throw new IllegalArgumentException("Field " + field.getName() + " must be an array annotated with @ArrayField");
+        }
+        this.countField = DataStructureSchema.of(field.getField().getDeclaringClass()).getFields().stream()
+                .filter(f -> f.getName().equals(arrayField.count().trim()))
+                .findFirst()
+                .orElse(null);
+        this.primitive = Primitive.of(elementClass);
+    }
+
+    /**
+     * Get the codec of a field.
+     * @param field The field, which must be an array annotated with @ArrayField
+     * @return The codec
+     * @throws IllegalArgumentException The field is not an @ArrayField, or not an array
+     */
+    public static ArrayFieldCodec of(FieldSchema field){
+        return field.getAttachment(ArrayFieldCodec.class, ArrayFieldCodec::new);
+    }
+
+    /**
+     * Get the class of each element.
+     * @return The element class
+     */
+    public Class<?> getElementClass() {
+        return elementClass;
+    }
+
+    /**
+     * Test if the number of elements is held by another field of the structure, rather than given by an expression.
+     * @return True if the count is another field
+     */
+    public boolean isCountField(){
+        return countField != null;
+    }
+
+    /**
+     * Get the number of elements to read.
+     * @param parent The object the field belongs to, which holds the count if it is another field
+     * @param hexFramework The framework being used
+     * @return The number of elements
+     * @throws ReadPipeException The count could not be determined
+     */
+    public int getCount(Object parent, HexFramework hexFramework){
+        if(countField == null){
+            return hexFramework.getEvaluator().evaluateInt(arrayField.count())
+                    .orElseThrow(() -> new ReadPipeException("Unable to evaluate count of array field " + field.getName()));
+        }
+        Object count;
+        try {
+            count = countField.get(parent);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new ReadPipeException("Error reading count of array field " + field.getName(), e);
+        }
+        if(count instanceof Number){
+            return ((Number) count).intValue();
+        } else if(count instanceof ByteObject){
+            return (int) ((ByteObject<?>) count).getValue();
+        }
+        throw new ReadPipeException("Count field " + countField.getName() + " of array field " + field.getName() +
+                " must be read first, and be a number");
+    }
+
+    /**
+     * Get the distance between the start of each element.
+     * @param hexFramework The framework being used
+     * @return The stride, or -1 if it isn't given and the elements vary in size
+     */
+    public int getStride(HexFramework hexFramework){
+        return arrayField.stride() > 0 ? arrayField.stride() : getElementSize(hexFramework);
+    }
+
+    /**
+     * Get the number of bytes the array occupies, if it is the same for every object.
+     * This is only known if the count is an expression rather than another field, and the stride is known.
+     * @param hexFramework The framework being used
+     * @return The size, or -1 if it depends on the object
+     */
+    public int getFixedSize(HexFramework hexFramework){
+        OptionalInt count = countField == null ? hexFramework.getEvaluator().evaluateInt(arrayField.count()) : OptionalInt.empty();
+        int stride = getStride(hexFramework);
+        if(!count.isPresent() || count.getAsInt() < 0 || stride < 0){
+            return -1;
+        }
+        long extent = getExtent(count.getAsInt(), stride, hexFramework);
+        return extent > Integer.MAX_VALUE ? -1 : (int) extent;
+    }
+
+    //The fixed size of one element, or -1 if it depends on the element.
+    private int getElementSize(HexFramework hexFramework){
+        if(primitive != null){
+            return primitive.size;
+        }
+        Hexer<?> hexer = getHexer(hexFramework);
+        if(hexer != null){
+            return hexer.getFixedSize();
+        }
+        return hexFramework.getSize(elementClass).orElse(-1);
+    }
+
+    //The bytes spanned by a number of elements. The last element needs its own bytes, if its size is known, which
+    //may be more than the stride if elements overlap.
+    private long getExtent(int count, int stride, HexFramework hexFramework){
+        if(count == 0){
+            return 0;
+        }
+        int elementSize = getElementSize(hexFramework);
+        return (long)(count - 1) * stride + (elementSize < 0 ? stride : elementSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Hexer<Object> getHexer(HexFramework hexFramework){
+        return (Hexer<Object>) HexerUtils.getHexerFor(hexFramework.getHexers(), elementClass).orElse(null);
+    }
+
+    //Primitive arrays are decoded directly, unless a different hexer was registered for their element class.
+    private boolean isBulk(HexFramework hexFramework){
+        if(primitive == null){
+            return false;
+        } else if(primitive.hexer == null){
+            return true;
+        }
+        Hexer<Object> hexer = getHexer(hexFramework);
+        return hexer == null || hexer == primitive.hexer;
+    }
+
+    /**
+     * Read the array.
+     * @param parent The object the field belongs to
+     * @param iterator An iterator at the first element
+     * @param hexFramework The framework being used
+     * @return The array
+     */
+    public Object read(Object parent, HexFieldIterator iterator, HexFramework hexFramework){
+        int count = getCount(parent, hexFramework);
+        if(count < 0){
+            throw new ReadPipeException("Array field " + field.getName() + " has a negative count of " + count);
+        }
+        int stride = getStride(hexFramework);
+        if(stride <= 0){
+            throw new ReadPipeException("Stride of array field " + field.getName() + " must be given, since its elements vary in size");
+        }
+        long extent = getExtent(count, stride, hexFramework);
+        if(extent > HexFramework.MAX_TABLE_SPAN_SIZE){
+            throw new ReadPipeException("Array field " + field.getName() + " spans too many bytes: " + extent);
+        }
+        if(isBulk(hexFramework)){
+            byte[] bytes = new byte[(int) extent];
+            iterator.copy().readBytes(bytes, 0, bytes.length);
+            return primitive.decode(bytes, count, stride);
+        }
+
+        Object array = Array.newInstance(elementClass, count);
+        Try<SpanBufferedIterator> span = SpanBufferedIterator.prefetch(iterator, (int) extent, null);
+        HexFieldIterator source = span.isOk() ? span.get() : iterator.copy();
+        Hexer<Object> hexer = getHexer(hexFramework);
+        long start = iterator.getPosition();
+        try {
+            for(int idx = 0; idx < count; idx++){
+                HexFieldIterator element = source.copy(start + (long) idx * stride);
+                Array.set(array, idx, hexer == null ? readStructure(element, hexFramework) : hexer.read(element));
+            }
+        } finally {
+            if(span.isOk()){
+                span.get().release();
+            }
+        }
+        return array;
+    }
+
+    private Object readStructure(HexFieldIterator iterator, HexFramework hexFramework){
+        if(!elementClass.isAnnotationPresent(DataStructure.class)){
+            throw new ReadPipeException("Unable to parse element of type: " + elementClass + ". You need to register " +
+                    "this type's hexer, or annotate its declaration with @DataStructure.");
+        }
+        Object obj = hexFramework.getCreateStrategy().create(elementClass);
+        hexFramework.getPipeline().modify(iterator, obj, hexFramework);
+        return obj;
+    }
+
+    /**
+     * Write the array.
+     * Every element of the array is written, whatever the count says.
+     * @param array The array
+     * @param iterator An iterator at the first element
+     * @param hexFramework The framework being used
+     */
+    public void write(Object array, HexFieldIterator iterator, HexFramework hexFramework){
+        if(array == null){
+            throw new WritePipeException("Array field " + field.getName() + " is null");
+        }
+        int count = Array.getLength(array);
+        int stride = getStride(hexFramework);
+        if(stride <= 0){
+            throw new WritePipeException("Stride of array field " + field.getName() + " must be given, since its elements vary in size");
+        }
+        long start = iterator.getPosition();
+        boolean bulk = isBulk(hexFramework);
+        if(bulk && stride == primitive.size){
+            int length;
+            try {
+                length = Math.multiplyExact(count, stride);
+            } catch (ArithmeticException e) {
+                throw new WritePipeException("Array field " + field.getName() + " is too large to write: " + count + " elements", e);
+            }
+            byte[] bytes = new byte[length];
+            for(int idx = 0; idx < count; idx++){
+                primitive.encode(array, idx, bytes, idx * stride);
+            }
+            iterator.copy().writeBytes(bytes, 0, bytes.length);
+        } else if(bulk){
+            //Leave the bytes between elements untouched.
+            byte[] bytes = new byte[primitive.size];
+            for(int idx = 0; idx < count; idx++){
+                primitive.encode(array, idx, bytes, 0);
+                iterator.copy(start + (long) idx * stride).writeBytes(bytes, 0, bytes.length);
+            }
+        } else {
+            Hexer<Object> hexer = getHexer(hexFramework);
+            for(int idx = 0; idx < count; idx++){
+                HexFieldIterator element = iterator.copy(start + (long) idx * stride);
+                if(hexer != null){
+                    hexer.writeObject(Array.get(array, idx), element);
+                } else if(elementClass.isAnnotationPresent(DataStructure.class)){
+                    hexFramework.getPipeline().write(element, Array.get(array, idx), hexFramework);
+                } else {
+                    throw new WritePipeException("Unable to write element of type: " + elementClass + ". You need to " +
+                            "register this type's hexer, or annotate its declaration with @DataStructure.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Element classes which are decoded directly from bytes, in little-endian order.
+     */
+    private enum Primitive {
+        BYTE(byte.class, 1, null),
+        SHORT(short.class, 2, null),
+        INT(int.class, 4, null),
+        U8(UnsignedByte.class, 1, UnsignedByte.HEXER),
+        U16(UnsignedShort.class, 2, UnsignedShort.HEXER),
+        U32(UnsignedWord.class, 4, UnsignedWord.HEXER);
+
+        private final Class<?> type;
+        private final int size;
+        private final Hexer<?> hexer;
+
+        Primitive(Class<?> type, int size, Hexer<?> hexer){
+            this.type = type;
+            this.size = size;
+            this.hexer = hexer;
+        }
+
+        private static Primitive of(Class<?> type){
+            for(Primitive primitive : values()){
+                if(primitive.type.equals(type)){
+                    return primitive;
+                }
+            }
+            return null;
+        }
+
+        private static int u16(byte[] b, int idx){
+            return (b[idx] & 0xFF) | (b[idx + 1] & 0xFF) << 8;
+        }
+
+        private static int s32(byte[] b, int idx){
+            return (b[idx] & 0xFF) | (b[idx + 1] & 0xFF) << 8 | (b[idx + 2] & 0xFF) << 16 | (b[idx + 3] & 0xFF) << 24;
+        }
+
+        private Object decode(byte[] b, int count, int stride){
+            switch (this){
+                case BYTE: {
+                    byte[] array = new byte[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = b[idx * stride];
+                    }
+                    return array;
+                }
+                case SHORT: {
+                    short[] array = new short[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = (short) u16(b, idx * stride);
+                    }
+                    return array;
+                }
+                case INT: {
+                    int[] array = new int[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = s32(b, idx * stride);
+                    }
+                    return array;
+                }
+                case U8: {
+                    UnsignedByte[] array = new UnsignedByte[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = UnsignedByte.valueOf(b[idx * stride] & 0xFF);
+                    }
+                    return array;
+                }
+                case U16: {
+                    UnsignedShort[] array = new UnsignedShort[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = UnsignedShort.valueOf(u16(b, idx * stride));
+                    }
+                    return array;
+                }
+                default: {
+                    UnsignedWord[] array = new UnsignedWord[count];
+                    for(int idx = 0; idx < count; idx++){
+                        array[idx] = UnsignedWord.valueOf(s32(b, idx * stride) & 0xFFFFFFFFL);
+                    }
+                    return array;
+                }
+            }
+        }
+
+        private void encode(Object array, int idx, byte[] b, int off){
+            long value;
+            switch (this){
+                case BYTE:
+                    value = ((byte[]) array)[idx];
+                    break;
+                case SHORT:
+                    value = ((short[]) array)[idx];
+                    break;
+                case INT:
+                    value = ((int[]) array)[idx];
+                    break;
+                default:
+                    value = ((ByteObject<?>) Array.get(array, idx)).getValue();
+                    break;
+            }
+            for(int pos = 0; pos < size; pos++){
+                b[off + pos] = (byte)(value >>> (8 * pos));
+            }
+        }
+    }
+}
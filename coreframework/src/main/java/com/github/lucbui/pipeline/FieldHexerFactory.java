@@ -0,0 +1,20 @@
+package com.github.lucbui.pipeline;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.framework.FieldSchema;
+
+/**
+ * Creates the Hexer used to read and write a specific field.
+ * This lets a compiled pipeline bind annotation-driven hexers (such as those for @Palette or @Sprite fields) once,
+ * when the structure is compiled.
+ */
+@FunctionalInterface
+public interface FieldHexerFactory {
+
+    /**
+     * Create a Hexer for a field
+     * @param field The field to create a Hexer for
+     * @return The Hexer to use for that field
+     */
+    Hexer<?> create(FieldSchema field);
+}
@@ -1,6 +1,5 @@
 package com.github.lucbui.pipeline;
 
-import com.github.lucbui.annotations.PointerField;
 import com.github.lucbui.bytes.PointerObject;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.file.Pointer;
@@ -15,26 +14,56 @@ import com.github.lucbui.utility.HexerUtils;
  * the normal object. The actual object is then read from that Pointer.
  *
  * If @PointerField is not encountered, the object is read as normal.
+ *
+ * Lazy PointerFields only read the Pointer. The object is read from it when it is first requested.
+ *
+ * If the framework has an object cache, objects read through a Pointer are shared: reading the same location with
+ * the same reader returns the same instance.
  */
 public interface PointerFieldFriendlyReadPipe extends ReadPipe<FieldObject> {
     @Override
     default void read(FieldObject object, HexFieldIterator iterator, HexFramework hexFramework) {
-        if (object.isAnnotationPresent(PointerField.class)) {
+        if (object.getSchema().isPointerField()) {
             HexFieldIterator iteratorForField = iterator.copy(object.getPointer().getLocation());
             Pointer pointer = HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class)
                     .map(hexer -> hexer.read(iteratorForField))
                     .orElseThrow(() -> new ReadPipeException("Attempted to read PointerField without Pointer hexer registered"));
             iteratorForField.advanceTo(pointer.getLocation());
 
-            Object internalObject = makeObject(object, iteratorForField, hexFramework);
-
-            object.setReferent(new PointerObject<>(pointer, internalObject));
+            if(object.getSchema().isLazyPointerField(hexFramework)){
+                object.setReferent(PointerObject.lazy(pointer,
+                        hexFramework.bindShared(() -> makeSharedObject(object, iteratorForField, hexFramework))));
+            } else {
+                Object internalObject = makeSharedObject(object, iteratorForField, hexFramework);
+                object.setReferent(new PointerObject<>(pointer, internalObject));
+            }
         } else {
             Object internalObject = makeObject(object, iterator, hexFramework);
             object.setReferent(internalObject);
         }
     }
 
+    //Read the object a Pointer points to, through the framework's object cache, and snapshot it if tracking is enabled.
+    default Object makeSharedObject(FieldObject object, HexFieldIterator iterator, HexFramework hexFramework) {
+        @SuppressWarnings("unchecked")
+        Class<Object> type = (Class<Object>) object.getFieldClass();
+        HexFieldIterator start = iterator.copy();
+        return hexFramework.readShared(iterator, type, getReader(object, hexFramework),
+                () -> hexFramework.track(start, makeObject(object, iterator, hexFramework)));
+    }
+
+    /**
+     * Get a value identifying how this pipe decodes a field's object.
+     * Objects read through a Pointer are only shared between fields whose readers are equal. By default, this is
+     * the field's hexer, or this pipe if it has none.
+     * @param object The FieldObject being used
+     * @param hexFramework The framework being used
+     * @return The reader
+     */
+    default Object getReader(FieldObject object, HexFramework hexFramework) {
+        return object.getSchema().getHexer(hexFramework.getHexers()).map(hexer -> (Object) hexer).orElse(this);
+    }
+
     /**
      * Create the object that should be wrapped in the PointerObject, if it is a PointerField.
      * @param object The FieldObject being used
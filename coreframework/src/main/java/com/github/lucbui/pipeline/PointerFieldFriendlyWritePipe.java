@@ -1,6 +1,5 @@
 package com.github.lucbui.pipeline;
 
-import com.github.lucbui.annotations.PointerField;
 import com.github.lucbui.bytes.Hexer;
 import com.github.lucbui.bytes.PointerObject;
 import com.github.lucbui.bytes.RepointMetadata;
@@ -16,12 +15,32 @@ import com.github.lucbui.utility.HexerUtils;
  * If the incoming field has the @PointerField annotation, the repoint strategy associated with the PointerObject
  * is run. The associated pointer is written, the FieldObject's referent is changed to be the PointerObject's object,
  * and the FieldObject's pointer is changed to the new pointer.
+ *
+ * Lazy PointerObjects whose object was never loaded are not repointed, and only their pointer is written. The same
+ * is true of objects which are unchanged since they were read, if the framework tracks changes.
  */
 public interface PointerFieldFriendlyWritePipe extends WritePipe<FieldObject> {
     @Override
     default void write(HexFieldIterator iterator, FieldObject object, HexFramework hexFramework){
-        if(object.isAnnotationPresent(PointerField.class) && object.getReferent() instanceof PointerObject){
+        if(object.getSchema().isPointerField() && object.getReferent() instanceof PointerObject
+                && !((PointerObject) object.getReferent()).isLoaded()){
+            //The object was never requested, so it can't have changed. Only its pointer needs writing.
             PointerObject po = (PointerObject) object.getReferent();
+            HexFieldIterator iteratorForField = iterator.copy(object.getPointer().getLocation());
+            HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class)
+                    .orElseThrow(ReadPipeException::new)
+                    .write(po.getPointer(), iteratorForField);
+        } else if(object.getSchema().isPointerField() && object.getReferent() instanceof PointerObject){
+            PointerObject po = (PointerObject) object.getReferent();
+            object.setReferent(po.getObject());
+            if(isReferentUnchanged(object, po.getPointer(), hexFramework)){
+                //The object would be written as it was read, so it stays where it is.
+                HexFieldIterator iteratorForField = iterator.copy(object.getPointer().getLocation());
+                HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class)
+                        .orElseThrow(ReadPipeException::new)
+                        .write(po.getPointer(), iteratorForField);
+                return;
+            }
             Pointer repoint = po.getRepointStrategy().repoint(new RepointMetadata(po));
 
             HexFieldIterator iteratorForField = iterator.copy(object.getPointer().getLocation());
@@ -31,13 +50,26 @@ public interface PointerFieldFriendlyWritePipe extends WritePipe<FieldObject> {
             iteratorForField.advanceTo(repoint.getLocation());
 
             object.setPointer(repoint);
-            object.setReferent(po.getObject());
             writeObject(iteratorForField, object, hexFramework);
         } else {
             writeObject(iterator, object, hexFramework);
         }
     }
 
+    /**
+     * Test if a PointerField's object would be written exactly as it was read.
+     * Objects without a hexer are always written, since encoding them through the pipeline may run hooks, or repoint
+     * their own PointerFields.
+     * @param object The FieldObject being used, whose referent is the object pointed to
+     * @param pointer The pointer the object was read from
+     * @param hexFramework The framework being used
+     * @return True, if the object is unchanged, and need not be repointed or written
+     */
+    default boolean isReferentUnchanged(FieldObject object, Pointer pointer, HexFramework hexFramework){
+        return object.getSchema().getHexer(hexFramework.getHexers()).isPresent() &&
+                hexFramework.isUnchanged(pointer, object.getReferent(), iterator -> writeObject(iterator, object, hexFramework));
+    }
+
     /**
      * Write the object that was be wrapped in the PointerObject, if it was.
      * @param iterator The iterator to use
@@ -2,31 +2,34 @@ package com.github.lucbui.pipeline.pipes;
 
 import com.github.lucbui.annotations.BeforeWrite;
 import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.framework.DataStructureSchema;
 import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.framework.LifecycleHook;
 import com.github.lucbui.pipeline.WritePipe;
-import com.github.lucbui.pipeline.exceptions.ReadPipeException;
 import com.github.lucbui.pipeline.exceptions.WritePipeException;
-import org.apache.commons.lang3.reflect.MethodUtils;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 
+/**
+ * A pipe which invokes every @BeforeWrite method of the object.
+ * Methods are resolved once per class. Classes without any @BeforeWrite methods are skipped immediately.
+ */
 public class BeforeWritePipe implements WritePipe<Object> {
     @Override
     public void write(HexFieldIterator iterator, Object object, HexFramework hexFramework) {
-        List<Method> methods = MethodUtils.getMethodsListWithAnnotation(object.getClass(), BeforeWrite.class);
-        for(Method method : methods){
+        List<LifecycleHook> hooks = DataStructureSchema.of(object.getClass()).getHooks(BeforeWrite.class);
+        if(hooks.isEmpty()){
+            return;
+        }
+        for(LifecycleHook hook : hooks){
+            if(hook.getParameterCount() > 1){
+                throw new WritePipeException("BeforeWrite annotated method must have 0 or 1 parameters");
+            }
             try {
-                if (method.getParameterCount() == 0) {
-                    MethodUtils.invokeMethod(object, true, method.getName());
-                } else if(method.getParameterCount() == 1){
-                    MethodUtils.invokeMethod(object, true, method.getName(), iterator);
-                } else {
-                    throw new WritePipeException("BeforeWrite annotated method must have 0 or 1 parameters");
-                }
-            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                throw new ReadPipeException("Error invoking method " + method.getName(), e);
+                hook.invoke(object, iterator);
+            } catch (InvocationTargetException e) {
+                throw new WritePipeException("Error invoking method " + hook.getName(), e);
             }
         }
     }
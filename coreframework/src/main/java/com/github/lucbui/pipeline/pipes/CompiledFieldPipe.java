@@ -0,0 +1,315 @@
+package com.github.lucbui.pipeline.pipes;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.RepointMetadata;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.framework.DataStructureSchema;
+import com.github.lucbui.framework.FieldSchema;
+import com.github.lucbui.framework.FieldSelector;
+import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.framework.HexerRegistry;
+import com.github.lucbui.pipeline.ArrayFieldCodec;
+import com.github.lucbui.pipeline.DoublePipe;
+import com.github.lucbui.pipeline.FieldHexerFactory;
+import com.github.lucbui.pipeline.exceptions.ReadPipeException;
+import com.github.lucbui.pipeline.exceptions.WritePipeException;
+import com.github.lucbui.utility.HexerUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pipe which reads and writes every @Offset field of an object, using a plan compiled once per class.
+ *
+ * This is a drop-in replacement for the usual field loop:
+ * <code>
+ *     ForEachPipe.create((o, fw) -> PipeUtils.getAnnotatedFieldObject(o, Offset.class, fw))
+ *         .pipe(new OffsetParsePipe())
+ *         .pipe(new OffsetFieldPipe())
+ *         .read(new SetFieldPipe())
+ *         .build()
+ * </code>
+ * The first time a class passes through, each field's offset is evaluated and its hexer resolved, and the results
+ * are stored as a list of steps. Later objects of that class are read and written by running the steps in order.
+ * There are no FieldObjects, predicates, or per-field iterator copies.
+ *
+ * Rules can be added which create a field's hexer from one of its annotations. A field uses the first rule
+ * whose annotation it has. This replaces a SwitchPipe choosing between annotation-specific pipes.
+ *
+ * Each framework keeps its own compiled classes, since they capture its offsets and hexers. Offsets are evaluated
+ * when the class is compiled. If the framework's configuration changes, call {@code HexFramework.invalidate()} so
+ * they are evaluated again.
+ */
+public class CompiledFieldPipe implements DoublePipe<Object> {
+
+    private final Map<Class<? extends Annotation>, FieldHexerFactory> rules;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Create a CompiledFieldPipe with no annotation rules.
+     */
+    public CompiledFieldPipe(){
+        this(new LinkedHashMap<>());
+    }
+
+    private CompiledFieldPipe(Map<Class<? extends Annotation>, FieldHexerFactory> rules){
+        this.rules = rules;
+    }
+
+    /**
+     * Start creating a CompiledFieldPipe with annotation rules
+     * @return A Builder to continue creating the pipe
+     */
+    public static Builder create(){
+        return new Builder();
+    }
+
+    /**
+     * Discard every compiled class, for every framework.
+     * Each class is compiled again the next time it is used. {@code HexFramework.invalidate()} discards the classes
+     * compiled for that framework only.
+     */
+    public void invalidate(){
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void read(Object object, HexFieldIterator iterator, HexFramework hexFramework) {
+        CompiledStructure structure = getCompiled(object.getClass(), hexFramework);
+        HexFieldIterator fieldIterator = iterator.copy();
+        FieldSelector selector = hexFramework.getProjection(object).orElse(null);
+        for(FieldStep step : structure.steps){
+            if(selector == null || selector.isSelected(step.field)){
+                step.read(object, iterator.getPosition(), fieldIterator, hexFramework);
+            }
+        }
+    }
+
+    @Override
+    public void write(HexFieldIterator iterator, Object object, HexFramework hexFramework) {
+        CompiledStructure structure = getCompiled(object.getClass(), hexFramework);
+        HexFieldIterator fieldIterator = iterator.copy();
+        for(FieldStep step : structure.steps){
+            step.write(iterator.getPosition(), fieldIterator, object, hexFramework);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "(Compiled fields)";
+    }
+
+    //Get the compiled steps for a class, compiling them if they are missing or were compiled before an invalidate().
+    //Each framework keeps its own, since they capture its offsets and hexers.
+    private CompiledStructure getCompiled(Class<?> clazz, HexFramework hexFramework){
+        Map<Class<?>, CompiledStructure> compiled = hexFramework.getPlans(this);
+        CompiledStructure structure = compiled.get(clazz);
+        int current = generation.get();
+        if(structure == null || structure.generation != current){
+            structure = compile(clazz, hexFramework, current);
+            compiled.put(clazz, structure);
+        }
+        return structure;
+    }
+
+    private CompiledStructure compile(Class<?> clazz, HexFramework hexFramework, int generation){
+        List<FieldSchema> fields = DataStructureSchema.of(clazz).getOffsetFields();
+        if(hexFramework.getHexers() instanceof HexerRegistry){
+            //Report every ambiguous field at once, rather than one at a time as they are read.
+            List<Class<?>> fieldClasses = new ArrayList<>();
+            for(FieldSchema field : fields){
+                fieldClasses.add(field.getFieldClass());
+            }
+            ((HexerRegistry) hexFramework.getHexers()).validate(fieldClasses).orThrow(ReadPipeException::new);
+        }
+        Hexer<Pointer> pointerHexer = null;
+        List<FieldStep> steps = new ArrayList<>();
+        for(FieldSchema field : fields){
+            long offset = hexFramework.getEvaluator().evaluateLong(field.getOffset().value()).orElseThrow(ReadPipeException::new);
+            if(field.isPointerField() && pointerHexer == null){
+                pointerHexer = HexerUtils.getHexerFor(hexFramework.getHexers(), Pointer.class).orElse(null);
+            }
+            steps.add(new FieldStep(field, offset, getHexer(field, hexFramework), pointerHexer));
+        }
+        return new CompiledStructure(generation, steps.toArray(new FieldStep[0]));
+    }
+
+    //Get the hexer for a field: the first matching rule, then the registered hexers. Null means none was found.
+    @SuppressWarnings("unchecked")
+    private Hexer<Object> getHexer(FieldSchema field, HexFramework hexFramework){
+        for(Map.Entry<Class<? extends Annotation>, FieldHexerFactory> rule : rules.entrySet()){
+            if(field.isAnnotationPresent(rule.getKey())){
+                return (Hexer<Object>) rule.getValue().create(field);
+            }
+        }
+        return (Hexer<Object>) field.getHexer(hexFramework.getHexers()).orElse(null);
+    }
+
+    private static class CompiledStructure {
+        private final int generation;
+        private final FieldStep[] steps;
+
+        private CompiledStructure(int generation, FieldStep[] steps){
+            this.generation = generation;
+            this.steps = steps;
+        }
+    }
+
+    /**
+     * A single field, with its offset and hexer already resolved.
+     */
+    private static class FieldStep {
+        private final FieldSchema field;
+        private final long offset;
+        private final Hexer<Object> hexer;
+        private final Hexer<Pointer> pointerHexer;
+        private final ArrayFieldCodec array;
+
+        private FieldStep(FieldSchema field, long offset, Hexer<Object> hexer, Hexer<Pointer> pointerHexer){
+            this.field = field;
+            this.offset = offset;
+            this.hexer = hexer;
+            this.pointerHexer = pointerHexer;
+            this.array = field.isArrayField() ? ArrayFieldCodec.of(field) : null;
+        }
+
+        private void read(Object object, long base, HexFieldIterator iterator, HexFramework hexFramework){
+            iterator.advanceTo(field.isAbsolute() ? offset : base + offset);
+            Object value;
+            if(field.isPointerField()){
+                if(pointerHexer == null){
+                    throw new ReadPipeException("Attempted to read PointerField without Pointer hexer registered");
+                }
+                Pointer pointer = pointerHexer.read(iterator);
+                iterator.advanceTo(pointer.getLocation());
+                if(field.isLazyPointerField(hexFramework)){
+                    HexFieldIterator referentIterator = iterator.copy();
+                    value = PointerObject.lazy(pointer,
+                            hexFramework.bindShared(() -> readSharedValue(object, referentIterator, hexFramework)));
+                } else {
+                    value = new PointerObject<>(pointer, readSharedValue(object, iterator, hexFramework));
+                }
+            } else {
+                value = readValue(object, iterator, hexFramework);
+            }
+            try {
+                field.set(object, value);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new ReadPipeException("Error writing field:" + e.getMessage(), e);
+            }
+        }
+
+        //Read the object a Pointer points to, through the framework's object cache, and snapshot it if tracking is enabled.
+        private Object readSharedValue(Object object, HexFieldIterator iterator, HexFramework hexFramework){
+            @SuppressWarnings("unchecked")
+            Class<Object> type = (Class<Object>) field.getFieldClass();
+            Object reader = hexer == null ? CompiledFieldPipe.class : hexer;
+            return hexFramework.readShared(iterator, type, reader,
+                    () -> hexFramework.track(iterator, readValue(object, iterator.copy(), hexFramework)));
+        }
+
+        //Read a field's value. The object the field belongs to is only needed for an array's count.
+        private Object readValue(Object object, HexFieldIterator iterator, HexFramework hexFramework){
+            if(hexer != null){
+                return hexer.read(iterator);
+            } else if(array != null){
+                return array.read(object, iterator, hexFramework);
+            } else if(field.isFieldClassDataStructure()){
+                Object obj = hexFramework.getCreateStrategy().create(field.getFieldClass());
+                hexFramework.getPipeline().modify(iterator.copy(), obj, hexFramework);
+                return obj;
+            } else {
+                throw new ReadPipeException(getUnparseableMessage());
+            }
+        }
+
+        private void write(long base, HexFieldIterator iterator, Object object, HexFramework hexFramework){
+            Object referent;
+            try {
+                referent = field.get(object);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException(e);
+            }
+            iterator.advanceTo(field.isAbsolute() ? offset : base + offset);
+            if(field.isPointerField() && referent instanceof PointerObject && isUnchanged((PointerObject<?>) referent, hexFramework)){
+                if(pointerHexer == null){
+                    throw new WritePipeException("Attempted to write PointerField without Pointer hexer registered");
+                }
+                pointerHexer.write(((PointerObject<?>) referent).getPointer(), iterator);
+            } else if(field.isPointerField() && referent instanceof PointerObject){
+                PointerObject<?> po = (PointerObject<?>) referent;
+                Pointer repoint = po.getRepointStrategy().repoint(new RepointMetadata(po));
+                if(pointerHexer == null){
+                    throw new WritePipeException("Attempted to write PointerField without Pointer hexer registered");
+                }
+                pointerHexer.write(repoint, iterator);
+                iterator.advanceTo(repoint.getLocation());
+                writeValue(iterator, po.getObject(), hexFramework);
+            } else {
+                writeValue(iterator, referent, hexFramework);
+            }
+        }
+
+        //Unloaded lazy objects, and objects which would be written as they were read, need not be repointed or written.
+        private boolean isUnchanged(PointerObject<?> po, HexFramework hexFramework){
+            if(!po.isLoaded()){
+                return true;
+            }
+            return hexer != null &&
+                    hexFramework.isUnchanged(po.getPointer(), po.getObject(), iterator -> hexer.writeObject(po.getObject(), iterator));
+        }
+
+        private void writeValue(HexFieldIterator iterator, Object value, HexFramework hexFramework){
+            if(hexer != null){
+                hexer.writeObject(value, iterator);
+            } else if(array != null){
+                array.write(value, iterator, hexFramework);
+            } else if(field.isFieldClassDataStructure()){
+                hexFramework.getPipeline().write(iterator.copy(), value, hexFramework);
+            } else {
+                throw new WritePipeException(getUnparseableMessage());
+            }
+        }
+
+        private String getUnparseableMessage(){
+            String extraInfo;
+            if(field.getFieldClass().equals(PointerObject.class)){
+                extraInfo = "You must annotate this field with @PointerField";
+            } else {
+                extraInfo = "You need to register this type's hexer, or annotate its declaration with @DataStructure.";
+            }
+            return "Unable to parse object of type: " + field.getFieldClass() + ". " + extraInfo;
+        }
+    }
+
+    public static class Builder {
+        private final Map<Class<? extends Annotation>, FieldHexerFactory> rules = new LinkedHashMap<>();
+
+        private Builder(){
+        }
+
+        /**
+         * Add a rule, which creates the hexer for fields with a specific annotation
+         * @param annotation The annotation to look for
+         * @param factory The factory which creates the field's hexer
+         * @return This builder
+         */
+        public Builder rule(Class<? extends Annotation> annotation, FieldHexerFactory factory){
+            Objects.requireNonNull(annotation);
+            Objects.requireNonNull(factory);
+            rules.put(annotation, factory);
+            return this;
+        }
+
+        public CompiledFieldPipe build(){
+            return new CompiledFieldPipe(new LinkedHashMap<>(rules));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.github.lucbui.framework.HexFramework;
 import com.github.lucbui.pipeline.*;
 
 import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -15,7 +16,7 @@ import java.util.stream.Stream;
  */
 public class ForEachPipe<O, S> implements DoublePipe<O> {
 
-    private Function<? super O, Stream<? extends S>> converter;
+    private BiFunction<? super O, HexFramework, Stream<? extends S>> converter;
     private Pipeline<? super S> subPipeline;
 
     /**
@@ -24,6 +25,18 @@ public class ForEachPipe<O, S> implements DoublePipe<O> {
      * @param subPipeline The pipeline to run each sub-object through.
      */
     public ForEachPipe(Function<? super O, Stream<? extends S>> converter, Pipeline<S> subPipeline){
+        Objects.requireNonNull(converter);
+        this.converter = (object, hexFramework) -> converter.apply(object);
+        this.subPipeline = Objects.requireNonNull(subPipeline);
+    }
+
+    /**
+     * Define a ForEachPipe whose sub-objects depend on the framework, such as one which skips fields a projected
+     * read does not select.
+     * @param converter The function which takes the incoming object and framework, and converts it into a stream of sub-objects
+     * @param subPipeline The pipeline to run each sub-object through.
+     */
+    public ForEachPipe(BiFunction<? super O, HexFramework, Stream<? extends S>> converter, Pipeline<S> subPipeline){
         this.converter = Objects.requireNonNull(converter);
         this.subPipeline = Objects.requireNonNull(subPipeline);
     }
@@ -38,7 +51,7 @@ public class ForEachPipe<O, S> implements DoublePipe<O> {
      */
     @Override
     public void read(O object, HexFieldIterator iterator, HexFramework hexFramework) {
-        converter.apply(object).forEach(i -> subPipeline.modify(iterator.copy(), i, hexFramework));
+        converter.apply(object, hexFramework).forEach(i -> subPipeline.modify(iterator.copy(), i, hexFramework));
     }
 
     /**
@@ -51,7 +64,7 @@ public class ForEachPipe<O, S> implements DoublePipe<O> {
      */
     @Override
     public void write(HexFieldIterator iterator, O object, HexFramework hexFramework) {
-        converter.apply(object).forEach(i -> subPipeline.write(iterator.copy(), i, hexFramework));
+        converter.apply(object, hexFramework).forEach(i -> subPipeline.write(iterator.copy(), i, hexFramework));
     }
 
     @Override
@@ -69,13 +82,24 @@ public class ForEachPipe<O, S> implements DoublePipe<O> {
      * @return A Builder to continue creating the function
      */
     public static <O, S> Builder<O, S> create(Function<? super O, Stream<? extends S>> forEachFunction){
+        return new Builder<>((object, hexFramework) -> forEachFunction.apply(object));
+    }
+
+    /**
+     * Initialize a builder for a ForEachPipe, whose sub-objects depend on the framework
+     * @param forEachFunction The function to iterate over
+     * @param <O> The input type
+     * @param <S> The output type
+     * @return A Builder to continue creating the function
+     */
+    public static <O, S> Builder<O, S> create(BiFunction<? super O, HexFramework, Stream<? extends S>> forEachFunction){
         return new Builder<>(forEachFunction);
     }
 
     public static class Builder<O, S> extends PipelineBuilder<Builder<O, S>, ForEachPipe<O, S>, ReadPipe<? super S>, WritePipe<? super S>> {
-        private Function<? super O, Stream<? extends S>> converter;
+        private BiFunction<? super O, HexFramework, Stream<? extends S>> converter;
 
-        private Builder(Function<? super O, Stream<? extends S>> converter){
+        private Builder(BiFunction<? super O, HexFramework, Stream<? extends S>> converter){
             this.converter = converter;
         }
 
@@ -1,25 +1,27 @@
 package com.github.lucbui.pipeline.pipes;
 
-import com.github.lucbui.annotations.DataStructure;
 import com.github.lucbui.bytes.Hexer;
 import com.github.lucbui.bytes.PointerObject;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.framework.FieldObject;
 import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.pipeline.ArrayFieldCodec;
 import com.github.lucbui.pipeline.PointerFieldFriendlyDoublePipe;
 import com.github.lucbui.pipeline.exceptions.ReadPipeException;
 import com.github.lucbui.pipeline.exceptions.WritePipeException;
-import com.github.lucbui.utility.HexerUtils;
 
 import java.util.Optional;
 
 public class OffsetFieldPipe implements PointerFieldFriendlyDoublePipe {
     @Override
     public Object makeObject(FieldObject object, HexFieldIterator iterator, HexFramework hexFramework) {
-        return HexerUtils.getHexerFor(hexFramework.getHexers(), object.getFieldClass())
+        if(object.getSchema().isArrayField()){
+            return ArrayFieldCodec.of(object.getSchema()).read(object.getParent(), iterator, hexFramework);
+        }
+        return object.getSchema().getHexer(hexFramework.getHexers())
                 .map(hexer -> (Object)hexer.read(iterator))
                 .orElseGet(() -> {
-                    if(object.isAnnotationPresent(DataStructure.class)){
+                    if(object.getSchema().isFieldClassDataStructure()){
                         Object obj = hexFramework.getCreateStrategy().create(object.getFieldClass());
                         hexFramework.getPipeline().modify(iterator.copy(), obj, hexFramework);
                         return obj;
@@ -37,11 +39,15 @@ public class OffsetFieldPipe implements PointerFieldFriendlyDoublePipe {
 
     @Override
     public void writeObject(HexFieldIterator iterator, FieldObject object, HexFramework hexFramework) {
-        Optional<? extends Hexer<?>> hexer = HexerUtils.getHexerFor(hexFramework.getHexers(), object.getFieldClass());
+        if(object.getSchema().isArrayField()){
+            ArrayFieldCodec.of(object.getSchema()).write(object.getReferent(), iterator, hexFramework);
+            return;
+        }
+        Optional<Hexer<?>> hexer = object.getSchema().getHexer(hexFramework.getHexers());
         if(hexer.isPresent()){
             hexer.get().writeObject(object.getReferent(), iterator);
         } else {
-            if(object.isAnnotationPresent(DataStructure.class)){
+            if(object.getSchema().isFieldClassDataStructure()){
                 hexFramework.getPipeline().write(iterator.copy(), object.getReferent(), hexFramework);
             } else {
                 String extraInfo;
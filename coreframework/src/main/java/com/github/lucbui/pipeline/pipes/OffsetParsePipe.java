@@ -1,10 +1,9 @@
 package com.github.lucbui.pipeline.pipes;
 
-import com.github.lucbui.annotations.Absolute;
-import com.github.lucbui.annotations.Offset;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.file.Pointer;
 import com.github.lucbui.framework.FieldObject;
+import com.github.lucbui.framework.FieldSchema;
 import com.github.lucbui.framework.HexFramework;
 import com.github.lucbui.pipeline.DoublePipe;
 import com.github.lucbui.pipeline.exceptions.ReadPipeException;
@@ -27,10 +26,10 @@ public class OffsetParsePipe implements DoublePipe<FieldObject> {
 
     //Calculate the offset of this field, given the @Offset annotation and optional @Absolute annotation
     private Pointer parseOffset(FieldObject object, HexFieldIterator iterator, HexFramework hexFramework){
-        Offset offset = object.getAnnotation(Offset.class);
-        long offsetAsLong = hexFramework.getEvaluator().evaluateLong(offset.value()).orElseThrow(ReadPipeException::new);
+        FieldSchema schema = object.getSchema();
+        long offsetAsLong = hexFramework.getEvaluator().evaluateLong(schema.getOffset().value()).orElseThrow(ReadPipeException::new);
 
-        if(object.isAnnotationPresent(Absolute.class)){
+        if(schema.isAbsolute()){
             return Pointer.of(offsetAsLong);
         } else {
             return Pointer.of(offsetAsLong + iterator.getPosition());
@@ -1,18 +1,40 @@
 package com.github.lucbui.strategy;
 
 import com.github.lucbui.pipeline.exceptions.CreatePipeException;
+import com.github.lucbui.utility.Try;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 
 /**
  * A creation strategy that creates an object using an empty constructor.
+ * The constructor is looked up once per class, and invoked through a cached MethodHandle.
  */
 public class EmptyConstructorCreateStrategy implements CreateStrategy {
 
+    private static final ClassValue<Try<MethodHandle>> CONSTRUCTORS = new ClassValue<Try<MethodHandle>>() {
+        @Override
+        protected Try<MethodHandle> computeValue(Class<?> type) {
+            return Try.running(() -> {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return MethodHandles.lookup().unreflectConstructor(constructor)
+                        .asType(MethodType.methodType(Object.class));
+            }, "Unable to find empty constructor for " + type.getName());
+        }
+    };
+
     @Override
     public <T> T create(Class<T> clazz) {
+        MethodHandle constructor = CONSTRUCTORS.get(clazz).orThrow(CreatePipeException::new);
         try {
-            return clazz.newInstance();
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new CreatePipeException("Unable to instantiate class", e);
+            return clazz.cast((Object) constructor.invokeExact());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new CreatePipeException("Unable to instantiate class", t);
         }
     }
 }
@@ -1,15 +1,15 @@
 package com.github.lucbui.utility;
 
-import com.github.lucbui.annotations.Absolute;
-import com.github.lucbui.annotations.DataStructure;
 import com.github.lucbui.annotations.DataStructureSize;
-import com.github.lucbui.annotations.Offset;
 import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.framework.DataStructureSchema;
+import com.github.lucbui.framework.FieldSchema;
 import com.github.lucbui.framework.HexFramework;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import com.github.lucbui.framework.HexerRegistry;
+import com.github.lucbui.framework.StructureLayout;
 import org.apache.commons.lang3.reflect.MethodUtils;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
@@ -22,12 +22,17 @@ import java.util.stream.Collectors;
 public class HexerUtils {
     /**
      * Search a map of hexers for an appropriate one for a given class
+     * If the map is a HexerRegistry, such as the one used by a HexFramework, this is a single lookup. Other maps are
+     * searched in full.
      * @param hexers The hexers to search
      * @param type The type to search for
      * @param <T> The type to search for
      * @return An Optional containing a Hexer, if found, or an empty Optional if none were found
      */
     public static <T> Optional<Hexer<T>> getHexerFor(Map<Class<?>, Hexer<?>> hexers, Class<T> type) {
+        if(hexers instanceof HexerRegistry){
+            return Optional.ofNullable(((HexerRegistry) hexers).resolve(type));
+        }
         Hexer<T> reader = findHexerInSubclasses(hexers, type);
         return Optional.ofNullable(reader);
     }
@@ -51,11 +56,12 @@ public class HexerUtils {
 
     /**
      * Calculate the size of the object as best as physically possible.
-     * In order, the following will be evaluated:
+     * If the object's class has a hexer or is a DataStructure, and has a fixed size, as computed by its cached
+     * StructureLayout, that size is returned immediately. Otherwise, in order, the following will be evaluated:
      * 1. Try to find an appropriate hexer. If found, and a positive size is returned from the getSize(), this size is returned
      * 2. Try to find a size in the class's @DataStructure field. If found and it is positive, this size is returned
      * 3. Try to find a method in the object annotated by @DataStructureSize. If one is found, it is invoked, and if it is positive, this size is returned
-     * 4. Try to calculate the size, by summing up the size of each field, found by recursively calling this method on each field.
+     * 4. Try to calculate the size from the furthest extent of each relative field, found by recursively calling this method on each field.
      * If all methods fail, an exception is thrown.
      * @param hexFramework The framework being used.
      * @param obj The object being used.
@@ -64,6 +70,13 @@ public class HexerUtils {
     public static OptionalInt calculateSizeOfObject(HexFramework hexFramework, Object obj){
         Class<?> clazz = obj.getClass();
 
+        //Only classes the framework can lay out get a cached layout; other objects keep the hexer/annotation order.
+        boolean hasLayout = getHexerFor(hexFramework.getHexers(), clazz).isPresent() ||
+                DataStructureSchema.of(clazz).isDataStructure();
+        StructureLayout layout = hasLayout ? hexFramework.getLayout(clazz) : null;
+        if(layout != null && layout.isFixedSize()){
+            return OptionalInt.of(layout.getSize());
+        }
         OptionalInt result = getSizeFromHexer(hexFramework.getHexers(), obj);
         if(result.isPresent()){
             return result;
@@ -76,7 +89,7 @@ public class HexerUtils {
         if(result.isPresent()){
             return result;
         }
-        return getSizeFromFields(hexFramework, obj);
+        return getSizeFromFields(hexFramework, layout, obj);
     }
 
     private static OptionalInt getSizeFromHexer(Map<Class<?>, Hexer<?>> hexers, Object obj){
@@ -89,17 +102,12 @@ public class HexerUtils {
     }
 
     private static OptionalInt getSizeFromDataStructureAnnotation(Class<?> clazz){
-        if(clazz.isAnnotationPresent(DataStructure.class)){
-            int size = clazz.getAnnotation(DataStructure.class).size();
-            if(size > 0){
-                return OptionalInt.of(size);
-            }
-        }
-        return OptionalInt.empty();
+        int size = DataStructureSchema.of(clazz).getStaticSize();
+        return size > 0 ? OptionalInt.of(size) : OptionalInt.empty();
     }
 
     private static OptionalInt getSizeFromDataStructureSizeAnnotation(Object obj){
-        List<Method> methods = MethodUtils.getMethodsListWithAnnotation(obj.getClass(), DataStructureSize.class);
+        List<Method> methods = DataStructureSchema.of(obj.getClass()).getMethodsWithAnnotation(DataStructureSize.class);
         if(methods.isEmpty()){
             return OptionalInt.empty();
         } else if(methods.size() > 1){
@@ -114,24 +122,43 @@ public class HexerUtils {
         }
     }
 
-    private static OptionalInt getSizeFromFields(HexFramework hexFramework, Object obj){
-        if(!obj.getClass().isAnnotationPresent(DataStructure.class)){
+    private static OptionalInt getSizeFromFields(HexFramework hexFramework, StructureLayout layout, Object obj){
+        if(!DataStructureSchema.of(obj.getClass()).isDataStructure()){
             //Class not marked DataStructure cannot be properly sized.
             return OptionalInt.empty();
         }
-        //The size of the object is equal to the maximum offset of the object, plus the size of the end byte, minus one.
-        List<Field> fields = FieldUtils.getFieldsListWithAnnotation(obj.getClass(), Offset.class);
-        if(fields.isEmpty()){
-            //No annotated fields means there is no size.
-            return OptionalInt.of(0);
+        //The size of the object is the furthest extent of any relative field. Absolute fields are outside the object.
+        long extent = 0;
+        for(StructureLayout.FieldLayout field : layout.getFields()){
+            if(field.isAbsolute()){
+                continue;
+            } else if(field.getOffset() < 0){
+                return OptionalInt.empty();
+            }
+            int fieldSize = field.getSize();
+            if(fieldSize < 0){
+                OptionalInt objectSize = getSizeOfField(hexFramework, field.getField(), obj);
+                if(!objectSize.isPresent()){
+                    return OptionalInt.empty();
+                }
+                fieldSize = objectSize.getAsInt();
+            }
+            extent = Math.max(extent, field.getOffset() + fieldSize);
         }
-        boolean hasAbsolute = fields.stream().anyMatch(f -> f.isAnnotationPresent(Absolute.class));
-        if(hasAbsolute){
-            //We cannot calculate the size of an object with absolute
+        return extent > Integer.MAX_VALUE ? OptionalInt.empty() : OptionalInt.of((int) extent);
+    }
+
+    //The size of a field's current value. PointerFields only hold the pointer itself.
+    private static OptionalInt getSizeOfField(HexFramework hexFramework, FieldSchema field, Object obj){
+        Object value;
+        try {
+            value = field.get(obj);
+        } catch (IllegalAccessException e) {
             return OptionalInt.empty();
         }
-        //TODO: Logic to calculate the actual size.
-        return OptionalInt.empty();
+        if(value instanceof PointerObject){
+            value = ((PointerObject<?>) value).getPointer();
+        }
+        return value == null ? OptionalInt.empty() : calculateSizeOfObject(hexFramework, value);
     }
-
 }
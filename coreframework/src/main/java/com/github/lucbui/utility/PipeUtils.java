@@ -1,13 +1,16 @@
 package com.github.lucbui.utility;
 
 import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.framework.DataStructureSchema;
 import com.github.lucbui.framework.FieldObject;
+import com.github.lucbui.framework.FieldSelector;
+import com.github.lucbui.framework.HexFramework;
 import com.github.lucbui.pipeline.LinearPipeline;
 import com.github.lucbui.pipeline.Pipeline;
 import com.github.lucbui.pipeline.pipes.*;
-import org.apache.commons.lang3.reflect.FieldUtils;
 
 import java.lang.annotation.Annotation;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class PipeUtils {
@@ -22,7 +25,23 @@ public class PipeUtils {
      * @return A stream of FieldObjects, Each containing the field and its corresponding object value in the object.
      */
     public static Stream<FieldObject> getAnnotatedFieldObject(Object obj, Class<? extends Annotation> annotationClass){
-        return FieldUtils.getFieldsListWithAnnotation(obj.getClass(), annotationClass).stream()
+        return DataStructureSchema.of(obj.getClass()).getFieldsWithAnnotation(annotationClass).stream()
+                .map(f -> FieldObject.get(obj, f).orElseThrow(IllegalArgumentException::new));
+    }
+
+    /**
+     * Get a Stream of FieldObjects, each representing a specifically-annotated field in an object.
+     * If the object is being read by a projected read, fields which are not selected are left out.
+     * @param obj The object to parse fields out of
+     * @param annotationClass The annotation to search for
+     * @param hexFramework The HexFramework running the pipeline
+     * @return A stream of FieldObjects, Each containing the field and its corresponding object value in the object.
+     * @see HexFramework#read(com.github.lucbui.file.Pointer, Class, FieldSelector)
+     */
+    public static Stream<FieldObject> getAnnotatedFieldObject(Object obj, Class<? extends Annotation> annotationClass, HexFramework hexFramework){
+        Optional<FieldSelector> selector = hexFramework.getProjection(obj);
+        return DataStructureSchema.of(obj.getClass()).getFieldsWithAnnotation(annotationClass).stream()
+                .filter(f -> !selector.isPresent() || selector.get().isSelected(f))
                 .map(f -> FieldObject.get(obj, f).orElseThrow(IllegalArgumentException::new));
     }
 
@@ -33,7 +52,7 @@ public class PipeUtils {
     public static Pipeline<Object> getDefaultPipeline(){
         return LinearPipeline.create()
                 .write(new BeforeWritePipe())
-                .pipe(ForEachPipe.create(o -> PipeUtils.getAnnotatedFieldObject(o, Offset.class))
+                .pipe(ForEachPipe.create((o, fw) -> PipeUtils.getAnnotatedFieldObject(o, Offset.class, fw))
                         .pipe(new OffsetParsePipe()) //Populates the Offset, and moves the iterator to the correct place
                         .pipe(new OffsetFieldPipe())
                         .read(new SetFieldPipe()) //Set the field to the calculated value
@@ -42,4 +61,28 @@ public class PipeUtils {
                 .read(new AfterReadPipe())
                 .build();
     }
+
+    /**
+     * Get the default pipeline, with its field loop compiled per class.
+     * Objects are read and written the same as with the default pipeline, but each class's offsets and hexers are
+     * resolved once, the first time it is used.
+     * @return The compiled pipeline to use
+     * @see CompiledFieldPipe
+     */
+    public static Pipeline<Object> getCompiledPipeline(){
+        return getCompiledPipeline(new CompiledFieldPipe());
+    }
+
+    /**
+     * Get the default pipeline, with a specific CompiledFieldPipe as its field loop
+     * @param fieldPipe The pipe which reads and writes each field
+     * @return The compiled pipeline to use
+     */
+    public static Pipeline<Object> getCompiledPipeline(CompiledFieldPipe fieldPipe){
+        return LinearPipeline.create()
+                .write(new BeforeWritePipe())
+                .pipe(fieldPipe)
+                .read(new AfterReadPipe())
+                .build();
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.lucbui.bytes;
 
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.utility.HexUtils;
 import com.github.lucbui.utility.Try;
 import org.junit.Test;
 
@@ -25,4 +27,20 @@ public class ASCIIStringTest {
         Try<ASCIIString> string = ASCIIString.of((String) null);
         assertTrue(string.isError());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void readByDelimiter() {
+        ByteWindow window = HexUtils.toByteWindow('H', 'i', 0, 'X');
+        HexFieldIterator iterator = window.iterator();
+        ASCIIString string = ASCIIString.hexerByDelimiter((byte)0).read(iterator);
+        assertEquals("Hi", string.getString());
+        assertEquals(3, iterator.getPosition());
+    }
+
+    @Test
+    public void writeByDelimiter() {
+        ByteWindow window = new ByteWindow();
+        ASCIIString.hexerByDelimiter((byte)0xFF).write(ASCIIString.of("Hi").get(), window.iterator());
+        assertArrayEquals(new byte[]{'H', 'i', (byte)0xFF}, window.get(0, 3));
+    }
+}
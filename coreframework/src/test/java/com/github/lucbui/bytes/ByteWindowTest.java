@@ -1,5 +1,6 @@
 package com.github.lucbui.bytes;
 
+import com.github.lucbui.file.Pointer;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -30,6 +31,17 @@ public class ByteWindowTest {
         assertTrue(bw.hasNoHoles());
     }
 
+    @Test
+    public void wrapValues() {
+        ByteWindow bw = ByteWindow.wrap(new byte[]{1, 2, 3});
+        assertEquals(3, bw.getNumberOfBytes());
+        assertTrue(bw.hasNoHoles());
+        assertEquals(2, bw.get(1));
+        bw.set(3, (byte)4);
+        assertEquals(4, bw.getNumberOfBytes());
+        assertEquals(0, ByteWindow.wrap(new byte[0]).getNumberOfBytes());
+    }
+
     @Test
     public void hasHoles() {
         ByteWindow bw = new ByteWindow();
@@ -51,4 +63,73 @@ public class ByteWindowTest {
         ByteWindow bw = createWindow(0, 5);
         ByteWindow sbw = bw.subWindow(3, 1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void holesUseDefaultValue() {
+        ByteWindow bw = new ByteWindow((byte)0xFF);
+        bw.set(1, (byte)1);
+        assertArrayEquals(new byte[]{(byte)0xFF, 1, (byte)0xFF}, bw.get(0, 3));
+    }
+
+    @Test
+    public void writesMergeRuns() {
+        ByteWindow bw = new ByteWindow();
+        bw.set(0, new byte[]{1, 1});
+        bw.set(4, new byte[]{2, 2});
+        assertFalse(bw.hasNoHoles());
+        bw.set(2, new byte[]{3, 3});
+        assertTrue(bw.hasNoHoles());
+        assertEquals(6, bw.getNumberOfBytes());
+        assertArrayEquals(new byte[]{1, 1, 3, 3, 2, 2}, bw.get(0, 6));
+    }
+
+    @Test
+    public void setWindowKeepsOrder() {
+        ByteWindow bw = createWindow(0, 3);
+        ByteWindow other = new ByteWindow();
+        other.set(0, (byte)9);
+        other.set(2, (byte)9);
+        bw.set(2, other);
+        assertArrayEquals(new byte[]{0, 1, 9, 0, 9}, bw.get(0, 5));
+        assertEquals(5, bw.getRange());
+        assertEquals(4, bw.getNumberOfBytes());
+    }
+
+    @Test
+    public void subwindowIsIndependent() {
+        ByteWindow bw = createWindow(0, 5);
+        ByteWindow sbw = bw.subWindow(1, 3);
+        bw.set(1, (byte)9);
+        sbw.set(2, (byte)8);
+        assertEquals(1, sbw.get(1));
+        assertEquals(2, bw.get(2));
+        assertEquals(8, sbw.get(2));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ByteWindow bw = createWindow(0, 5);
+        ByteWindow copy = bw.copy();
+        copy.set(0, (byte)9);
+        assertEquals(0, bw.get(0));
+        assertFalse(bw.equals(copy));
+    }
+
+    @Test
+    public void equalsIgnoresWriteOrder() {
+        ByteWindow forward = createWindow(0, 5);
+        ByteWindow backward = new ByteWindow();
+        for(int idx = 4; idx >= 0; idx--){
+            backward.set(idx, (byte)idx);
+        }
+        assertEquals(forward, backward);
+        assertEquals(forward.hashCode(), backward.hashCode());
+    }
+
+    @Test
+    public void iteratorGetRelativeStartsAtZero() {
+        ByteWindow bw = createWindow(0, 10);
+        ByteWindow read = bw.iterator(Pointer.of(4)).getRelative(1, 2).get();
+        assertArrayEquals(new byte[]{5, 6}, read.get(0, 2));
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.lucbui.evaluator;
+
+import com.github.lucbui.config.MapConfig;
+import com.github.lucbui.framework.ConfigurationEvaluator;
+import org.junit.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.Assert.*;
+
+public class ExpressionTest {
+
+    private static final MapConfig CONFIG = new MapConfig("base", "0x100", "stride", "0b10", "bad", "xyz");
+
+    private static long eval(String expression){
+        return Expression.parse(expression).orThrow().evaluate(CONFIG).getAsLong();
+    }
+
+    @Test
+    public void literals() {
+        assertEquals(28, eval("0x1C"));
+        assertEquals(5, eval("0b101"));
+        assertEquals(12, eval("12"));
+        assertEquals(-12, eval("-12"));
+    }
+
+    @Test
+    public void arithmetic() {
+        assertEquals(14, eval("2 + 3 * 4"));
+        assertEquals(20, eval("(2 + 3) * 4"));
+        assertEquals(1, eval("10 - 6 / 2 - 6"));
+        assertTrue(Expression.parse("0x10 + 4").orThrow().isConstant());
+    }
+
+    @Test
+    public void configurationValues() {
+        assertEquals(0x108, eval("${base} + 4 * ${stride}"));
+        assertEquals(0x400000, eval("${missing|0x400000}"));
+        assertFalse(Expression.parse("${missing}").orThrow().evaluate(CONFIG).isPresent());
+        assertFalse(Expression.parse("${bad}").orThrow().evaluate(CONFIG).isPresent());
+        assertFalse(Expression.parse("${base}").orThrow().isConstant());
+    }
+
+    @Test
+    public void invalidExpressions() {
+        assertTrue(Expression.parse("1 +").isError());
+        assertTrue(Expression.parse("(1").isError());
+        assertTrue(Expression.parse("${}").isError());
+        assertTrue(Expression.parse("12z").isError());
+        assertFalse(Expression.parse("1 / 0").orThrow().evaluate(CONFIG).isPresent());
+    }
+
+    @Test
+    public void evaluatorCachesUntilInvalidated() {
+        ConfigurationEvaluator evaluator = new ConfigurationEvaluator(CONFIG);
+        assertEquals(OptionalLong.of(0x104), evaluator.evaluateLong("${base} + 4"));
+        assertEquals(5, evaluator.evaluateInt("0b101").getAsInt());
+        assertFalse(evaluator.evaluateLong("not an expression").isPresent());
+
+        evaluator.setConfiguration(new MapConfig("base", "0x200"));
+        assertEquals(OptionalLong.of(0x204), evaluator.evaluateLong("${base} + 4"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.exception.HexerException;
+import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.framework.TestFrameworks;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class AsyncHexFieldTest {
+
+    @DataStructure
+    public static class Node {
+        @Offset("0")
+        private UnsignedShort value;
+
+        @Offset("4")
+        @PointerField(objectType = UnsignedShort.class)
+        private PointerObject<UnsignedShort> next;
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createFile(byte[] bytes) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, bytes);
+        return path;
+    }
+
+    private AsyncHexField open(Path path){
+        return AsyncHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow();
+    }
+
+    @Test
+    public void writeAsyncThenReadAsync() throws IOException {
+        Path path = createFile(new byte[8]);
+        try(AsyncHexField field = open(path)){
+            assertEquals(3, (int) field.writeAsync(2, new byte[]{1, 2, 3}, 0, 3).join());
+            ByteBuffer bytes = field.readAsync(1, 4).join();
+            assertEquals(4, bytes.remaining());
+            assertEquals(0, bytes.get());
+            assertEquals(1, bytes.get());
+            assertEquals(2, bytes.get());
+            assertEquals(3, bytes.get());
+        }
+        assertArrayEquals(new byte[]{0, 0, 1, 2, 3, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void manyOutstandingReads() throws IOException {
+        byte[] contents = new byte[256];
+        for(int i = 0; i < contents.length; i++){
+            contents[i] = (byte) i;
+        }
+        try(AsyncHexField field = open(createFile(contents))){
+            List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>();
+            for(int i = 0; i < 64; i++){
+                futures.add(field.readAsync(i * 4, 4));
+            }
+            for(int i = 0; i < futures.size(); i++){
+                assertEquals((byte)(i * 4 + 3), futures.get(i).join().get(3));
+            }
+        }
+    }
+
+    @Test
+    public void readPastEndFails() throws IOException {
+        try(AsyncHexField field = open(createFile(new byte[4]))){
+            try {
+                field.readAsync(2, 4).join();
+                fail("Read past the end of the file");
+            } catch (CompletionException e) {
+                //Expected
+            }
+            try {
+                field.iterator(Pointer.of(2)).readS32LE();
+                fail("Read past the end of the file");
+            } catch (HexerException e) {
+                //Expected
+            }
+        }
+    }
+
+    @Test
+    public void iteratorReadsAndWrites() throws IOException {
+        Path path = createFile(new byte[8]);
+        try(AsyncHexField field = open(path)){
+            HexFieldIterator iterator = field.iterator(Pointer.of(4));
+            iterator.writeU32LE(0x12345678);
+            assertEquals(0x12345678, iterator.readS32LE());
+            assertEquals(0x5678, iterator.readU16LE());
+            assertEquals(0x34, iterator.getByte(2).orThrow() & 0xFF);
+        }
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 0x78, 0x56, 0x34, 0x12}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void writeDiscardsPrefetch() throws IOException {
+        try(AsyncHexField field = open(createFile(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}))){
+            field.prefetch(0, 8);
+            assertEquals(3, field.iterator(Pointer.of(2)).readU8());
+            field.iterator(Pointer.of(2)).writeU8(9);
+            assertEquals(9, field.iterator(Pointer.of(2)).readU8());
+        }
+    }
+
+    @Test
+    public void prefetchDuringWriteSeesWrite() throws IOException {
+        try(AsyncHexField field = open(createFile(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}))){
+            CompletableFuture<Integer> write = field.writeAsync(2, new byte[]{9, 9}, 0, 2);
+            field.prefetch(0, 8);
+            write.join();
+            assertEquals(0x0909, field.iterator(Pointer.of(2)).readU16LE());
+        }
+    }
+
+    @Test
+    public void failedPrefetchFallsBackToRead() throws IOException {
+        try(AsyncHexField field = open(createFile(new byte[]{1, 2, 3, 4}))){
+            field.prefetch(0, 8);
+            assertEquals(0x0201, field.iterator(Pointer.of(0)).readU16LE());
+        }
+    }
+
+    @Test
+    public void frameworkReadsThroughAsyncField() throws IOException {
+        Path path = createFile(new byte[]{0x34, 0x12, 0, 0, 8, 0, 0, 0, 0x78, 0x56});
+        try(AsyncHexField field = open(path)){
+            HexFramework framework = TestFrameworks.builder(field, false).build().orThrow();
+            Node node = framework.read(0, Node.class);
+            assertEquals(0x1234, node.value.getValue());
+            assertEquals(0x5678, node.next.getObject().getValue());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.utility.HexUtils;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ByteArrayHexFieldTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readAndWrite() {
+        ByteArrayHexField field = new ByteArrayHexField(new byte[]{1, 2, 3, 4});
+        HexFieldIterator iterator = field.iterator(Pointer.of(1));
+        assertEquals(0x0302, iterator.readU16LE());
+        iterator.write(HexUtils.toByteWindow(9)).orThrow();
+        assertArrayEquals(new byte[]{1, 9, 3, 4}, field.toByteArray());
+        assertArrayEquals(new byte[]{9, 3}, iterator.get(2).get().get(0, 2));
+    }
+
+    @Test
+    public void readPastEnd() {
+        ByteArrayHexField field = new ByteArrayHexField(4);
+        assertTrue(field.iterator(Pointer.of(2)).getRelative(0, 4).isError());
+        assertTrue(field.iterator(Pointer.of(4)).getByte(0).isError());
+    }
+
+    @Test
+    public void writePastEndGrows() {
+        ByteArrayHexField field = new ByteArrayHexField(4);
+        field.iterator(Pointer.of(6)).writeU16LE(0xBEEF);
+        assertEquals(8, field.size());
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 0, 0, (byte)0xEF, (byte)0xBE}, field.toByteArray());
+    }
+
+    @Test
+    public void writePastMaxSize() {
+        ByteArrayHexField field = new ByteArrayHexField(4);
+        assertTrue(field.iterator(Pointer.of(ByteArrayHexField.DEFAULT_MAX_SIZE)).write(HexUtils.toByteWindow(1)).isError());
+    }
+
+    @Test
+    public void expand() {
+        ByteArrayHexField field = new ByteArrayHexField(2);
+        field.expand(4, (byte)0xFF);
+        assertArrayEquals(new byte[]{0, 0, (byte)0xFF, (byte)0xFF}, field.toByteArray());
+    }
+
+    @Test
+    public void loadAndFlush() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[]{1, 2, 3});
+        ByteArrayHexField field = ByteArrayHexField.load(path).orThrow();
+        field.iterator(Pointer.of(3)).writeU8(4);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(path));
+        field.flush();
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, Files.readAllBytes(path));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void flushSkipsUnchangedField() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[]{1, 2, 3});
+        ByteArrayHexField field = ByteArrayHexField.load(path).orThrow();
+        Files.write(path, new byte[]{5});
+        field.flush();
+        assertArrayEquals(new byte[]{5}, Files.readAllBytes(path));
+        field.iterator(Pointer.of(0)).writeU8(9);
+        field.flush();
+        assertArrayEquals(new byte[]{9, 2, 3}, Files.readAllBytes(path));
+        Files.write(path, new byte[]{5});
+        field.flush();
+        assertArrayEquals(new byte[]{5}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void flushKeepsPermissions() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[]{1, 2, 3});
+        Assume.assumeTrue(Files.getFileAttributeView(path, PosixFileAttributeView.class) != null);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(path, permissions);
+        ByteArrayHexField field = ByteArrayHexField.load(path).orThrow();
+        field.iterator(Pointer.of(0)).writeU8(4);
+        field.flush();
+        assertEquals(permissions, Files.getPosixFilePermissions(path));
+        assertArrayEquals(new byte[]{4, 2, 3}, Files.readAllBytes(path));
+    }
+}
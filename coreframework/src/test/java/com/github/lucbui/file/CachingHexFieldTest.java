@@ -0,0 +1,123 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.utility.HexUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class CachingHexFieldTest {
+
+    private static final int PAGE = CachingHexField.MIN_PAGE_SIZE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CachingHexField createField(int size, long budget) throws IOException {
+        byte[] bites = new byte[size];
+        for(int idx = 0; idx < size; idx++){
+            bites[idx] = (byte)idx;
+        }
+        Path path = folder.newFile().toPath();
+        Files.write(path, bites);
+        FileHexField field = FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow();
+        return new CachingHexField(field, PAGE, budget);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageSizeNotPowerOfTwo() throws IOException {
+        new CachingHexField(createField(16, PAGE).getDelegate(), PAGE + 1, PAGE * 2);
+    }
+
+    @Test
+    public void hitsAndMisses() throws IOException {
+        CachingHexField field = createField(PAGE * 2, PAGE * 2);
+        HexFieldIterator iterator = field.iterator(Pointer.of(10));
+        assertEquals(10, (byte)iterator.getByte(0).get());
+        assertEquals(11, (byte)iterator.getByte(1).get());
+        assertEquals(1, field.getMisses());
+        assertEquals(1, field.getHits());
+    }
+
+    @Test
+    public void readAcrossPages() throws IOException {
+        CachingHexField field = createField(PAGE * 2, PAGE * 2);
+        byte[] bites = field.iterator(Pointer.of(PAGE - 2)).getRelative(0, 4).get().get(0, 4);
+        assertArrayEquals(new byte[]{(byte)(PAGE - 2), (byte)(PAGE - 1), (byte)PAGE, (byte)(PAGE + 1)}, bites);
+        assertEquals(2, field.getMisses());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws IOException {
+        CachingHexField field = createField(PAGE * 3, PAGE * 2);
+        field.iterator(Pointer.of(0)).getByte(0);
+        field.iterator(Pointer.of(PAGE)).getByte(0);
+        field.iterator(Pointer.of(PAGE * 2)).getByte(0);
+        field.iterator(Pointer.of(0)).getByte(0);
+        assertEquals(4, field.getMisses());
+    }
+
+    @Test
+    public void partialPageIsCached() throws IOException {
+        CachingHexField field = createField(PAGE + 16, PAGE * 2);
+        assertEquals(5, (byte)field.iterator(Pointer.of(PAGE + 5)).getByte(0).get());
+        assertEquals(6, (byte)field.iterator(Pointer.of(PAGE + 6)).getByte(0).get());
+        assertEquals(1, field.getMisses());
+        assertEquals(1, field.getHits());
+        assertTrue(field.iterator(Pointer.of(PAGE + 15)).getRelative(0, 2).isError());
+    }
+
+    @Test
+    public void writePastPartialPage() throws IOException {
+        CachingHexField field = createField(PAGE + 16, PAGE * 2);
+        field.iterator(Pointer.of(PAGE)).getByte(0);
+        field.iterator(Pointer.of(PAGE + 20)).write(HexUtils.toByteWindow(0x7F)).orThrow();
+        assertEquals(0x7F, (byte)field.iterator(Pointer.of(PAGE + 20)).getByte(0).get());
+        assertEquals(3, (byte)field.iterator(Pointer.of(PAGE + 3)).getByte(0).get());
+    }
+
+    @Test
+    public void writeUpdatesCache() throws IOException {
+        CachingHexField field = createField(PAGE * 2, PAGE * 2);
+        HexFieldIterator iterator = field.iterator(Pointer.of(20));
+        iterator.getByte(0);
+        iterator.write(HexUtils.toByteWindow(0x7F)).orThrow();
+        assertEquals(0x7F, (byte)iterator.getByte(0).get());
+        assertEquals(0x7F, (byte)field.getDelegate().iterator(Pointer.of(20)).getByte(0).get());
+    }
+
+    @Test
+    public void writeAcrossPagesUpdatesCache() throws IOException {
+        CachingHexField field = createField(PAGE * 2, PAGE * 2);
+        field.iterator(Pointer.of(0)).getByte(0);
+        field.iterator(Pointer.of(PAGE)).getByte(0);
+        field.iterator(Pointer.of(PAGE - 2)).write(HexUtils.toByteWindow(1, 2, 3, 4)).orThrow();
+        assertEquals(0x04030201, field.iterator(Pointer.of(PAGE - 2)).readS32LE());
+        assertEquals(2, field.getMisses());
+    }
+
+    @Test
+    public void readsNeverSeePartOfAWrite() throws Exception {
+        CachingHexField field = createField(PAGE, PAGE);
+        field.iterator(Pointer.of(8)).writeS32LE(0);
+        Thread writer = new Thread(() -> {
+            HexFieldIterator iterator = field.iterator(Pointer.of(8));
+            for(int idx = 0; idx < 20000; idx++){
+                iterator.write(HexUtils.toByteWindow(idx % 2 == 0 ? new int[]{0xFF, 0xFF, 0xFF, 0xFF} : new int[]{0, 0, 0, 0})).orThrow();
+            }
+        });
+        writer.start();
+        HexFieldIterator iterator = field.iterator(Pointer.of(8));
+        while(writer.isAlive()){
+            int value = iterator.readS32LE();
+            assertTrue("Torn read: " + Integer.toHexString(value), value == 0 || value == -1);
+        }
+        writer.join();
+    }
+}
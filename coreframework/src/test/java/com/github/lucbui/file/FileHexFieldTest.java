@@ -0,0 +1,277 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.utility.HexUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class FileHexFieldTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createFile(int size) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[size]);
+        return path;
+    }
+
+    private FileHexField open(Path path){
+        return FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow();
+    }
+
+    @Test
+    public void writeThrough() throws IOException {
+        Path path = createFile(8);
+        FileHexField field = open(path);
+        field.iterator(Pointer.of(2)).write(HexUtils.toByteWindow(1, 2, 3)).orThrow();
+        assertArrayEquals(new byte[]{0, 0, 1, 2, 3, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void writeWithHoles() throws IOException {
+        Path path = createFile(8);
+        FileHexField field = open(path);
+        ByteWindow window = new ByteWindow();
+        window.set(0, (byte)1);
+        window.set(3, (byte)2);
+        field.iterator(Pointer.of(1)).write(window).orThrow();
+        assertArrayEquals(new byte[]{0, 1, 0, 0, 2, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void writeBackBuffersUntilFlush() throws IOException {
+        Path path = createFile(8);
+        FileHexField field = open(path);
+        field.enableWriteBack(1024);
+        field.iterator(Pointer.of(2)).write(HexUtils.toByteWindow(1, 2, 3)).orThrow();
+        assertArrayEquals(new byte[8], Files.readAllBytes(path));
+        field.flush();
+        assertArrayEquals(new byte[]{0, 0, 1, 2, 3, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void writeBackReadsSeeBufferedWrites() throws IOException {
+        FileHexField field = open(createFile(8));
+        field.enableWriteBack(1024);
+        HexFieldIterator iterator = field.iterator(Pointer.of(4));
+        iterator.write(HexUtils.toByteWindow(9, 9)).orThrow();
+        assertArrayEquals(new byte[]{0, 9, 9, 0}, iterator.getRelative(-1, 4).get().get(0, 4));
+        assertEquals(9, (byte)iterator.getByte(1).get());
+    }
+
+    @Test
+    public void writeBackPastEndOfFile() throws IOException {
+        Path path = createFile(4);
+        FileHexField field = open(path);
+        field.enableWriteBack(1024);
+        field.iterator(Pointer.of(4)).write(HexUtils.toByteWindow(5, 6)).orThrow();
+        assertArrayEquals(new byte[]{0, 5, 6}, field.iterator(Pointer.of(3)).getRelative(0, 3).get().get(0, 3));
+        field.close();
+        assertEquals(6, Files.size(path));
+    }
+
+    @Test
+    public void writeBackFlushesAtThreshold() throws IOException {
+        Path path = createFile(8);
+        FileHexField field = open(path);
+        field.enableWriteBack(4);
+        field.iterator(Pointer.of(0)).write(HexUtils.toByteWindow(1, 2)).orThrow();
+        field.iterator(Pointer.of(2)).write(HexUtils.toByteWindow(3, 4)).orThrow();
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 0, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void failedFlushKeepsNewerWrites() throws Exception {
+        Path path = createFile(8);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FailingChannel failing = new FailingChannel(channel);
+        FileHexField field = new FileHexField(failing);
+        field.enableWriteBack(1024);
+        field.iterator(Pointer.of(2)).write(HexUtils.toByteWindow(1, 2, 3)).orThrow();
+        //Another thread writes over part of the run while the flush is writing it.
+        failing.beforeFailure = () -> {
+            Thread writer = new Thread(() -> field.iterator(Pointer.of(3)).write(HexUtils.toByteWindow(9)).orThrow());
+            writer.start();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        try {
+            field.flush();
+            fail("Flush should have failed");
+        } catch (IOException e) {
+            //Expected
+        }
+        assertEquals(9, field.iterator(Pointer.of(3)).readU8());
+        assertEquals(1, field.iterator(Pointer.of(2)).readU8());
+        field.close();
+        assertArrayEquals(new byte[]{0, 0, 1, 9, 3, 0, 0, 0}, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void writeBackBufferAddsUnder() {
+        WriteBackBuffer buffer = new WriteBackBuffer();
+        buffer.add(2, new byte[]{1, 1}, 0, 2);
+        buffer.addUnder(0, new byte[]{2, 2, 2, 2, 2}, 0, 5);
+        assertEquals(5, buffer.size());
+        byte[] result = new byte[5];
+        buffer.overlay(0, result, 0, 5);
+        assertArrayEquals(new byte[]{2, 2, 1, 1, 2}, result);
+    }
+
+    @Test
+    public void writeBackBufferMergesRuns() {
+        WriteBackBuffer buffer = new WriteBackBuffer();
+        buffer.add(0, new byte[]{1, 1}, 0, 2);
+        buffer.add(4, new byte[]{2, 2}, 0, 2);
+        buffer.add(1, new byte[]{3, 3, 3}, 0, 3);
+        assertEquals(6, buffer.size());
+        assertTrue(buffer.covers(0, 6));
+        byte[] result = new byte[6];
+        buffer.overlay(0, result, 0, 6);
+        assertArrayEquals(new byte[]{1, 3, 3, 3, 2, 2}, result);
+        assertEquals(1, buffer.drain().size());
+    }
+
+    @Test
+    public void primitives() throws IOException {
+        Path path = createFile(8);
+        FileHexField field = open(path);
+        HexFieldIterator iterator = field.iterator(Pointer.of(1));
+        iterator.writeU16LE(0xBEEF);
+        iterator.advanceRelative(2);
+        iterator.writeU32LE(0xFFFFFFFEL);
+        assertArrayEquals(new byte[]{0, (byte)0xEF, (byte)0xBE, (byte)0xFE, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0}, Files.readAllBytes(path));
+        assertEquals(0xEF, field.iterator(Pointer.of(1)).readU8());
+        assertEquals(0xFFFFFFFEL, iterator.readU32LE());
+        assertEquals(-2, iterator.readS32LE());
+    }
+
+    @Test
+    public void primitivesSeeBufferedWrites() throws IOException {
+        FileHexField field = open(createFile(8));
+        field.enableWriteBack(1024);
+        field.iterator(Pointer.of(2)).writeU8(0x80);
+        assertEquals(0x8000, field.iterator(Pointer.of(1)).readU16LE());
+    }
+
+    //A channel which fails its next positional write, after running an action.
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private Runnable beforeFailure;
+
+        private FailingChannel(FileChannel delegate){
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            Runnable action = beforeFailure;
+            if(action != null){
+                beforeFailure = null;
+                action.run();
+                throw new IOException("Injected failure");
+            }
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import com.github.lucbui.utility.HexUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class MappedHexFieldTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createFile(int size) throws IOException {
+        byte[] bites = new byte[size];
+        for(int idx = 0; idx < size; idx++){
+            bites[idx] = (byte)idx;
+        }
+        Path path = folder.newFile().toPath();
+        Files.write(path, bites);
+        return path;
+    }
+
+    @Test
+    public void getByte() throws IOException {
+        MappedHexField field = new MappedHexField(createFile(16), FileChannel.MapMode.READ_ONLY, 4);
+        assertEquals(16, field.size());
+        assertEquals(5, (byte)field.iterator(Pointer.of(5)).getByte(0).get());
+    }
+
+    @Test
+    public void getRelativeAcrossSegments() throws IOException {
+        MappedHexField field = new MappedHexField(createFile(16), FileChannel.MapMode.READ_ONLY, 4);
+        ByteWindow window = field.iterator(Pointer.of(2)).getRelative(1, 6).get();
+        assertArrayEquals(new byte[]{3, 4, 5, 6, 7, 8}, window.get(0, 6));
+    }
+
+    @Test
+    public void readPastEnd() throws IOException {
+        MappedHexField field = new MappedHexField(createFile(16), FileChannel.MapMode.READ_ONLY, 4);
+        assertTrue(field.iterator(Pointer.of(14)).getRelative(0, 4).isError());
+    }
+
+    @Test
+    public void writeReadOnly() throws IOException {
+        MappedHexField field = new MappedHexField(createFile(16), FileChannel.MapMode.READ_ONLY, 4);
+        assertTrue(field.iterator().write(HexUtils.toByteWindow(1)).isError());
+    }
+
+    @Test
+    public void writeReadWrite() throws IOException {
+        Path path = createFile(16);
+        MappedHexField field = new MappedHexField(path, FileChannel.MapMode.READ_WRITE, 4);
+        assertTrue(field.iterator(Pointer.of(3)).write(HexUtils.toByteWindow(0xAA, 0xBB)).isOk());
+        field.close();
+        byte[] bites = Files.readAllBytes(path);
+        assertEquals((byte)0xAA, bites[3]);
+        assertEquals((byte)0xBB, bites[4]);
+    }
+
+    @Test
+    public void primitivesAcrossSegments() throws IOException {
+        MappedHexField field = new MappedHexField(createFile(16), FileChannel.MapMode.READ_WRITE, 4);
+        assertEquals(0x0504, field.iterator(Pointer.of(4)).readU16LE());
+        assertEquals(0x0403, field.iterator(Pointer.of(3)).readU16LE());
+        assertEquals(0x05040302L, field.iterator(Pointer.of(2)).readU32LE());
+        HexFieldIterator iterator = field.iterator(Pointer.of(6));
+        iterator.writeS32LE(0xCAFEBABE);
+        assertEquals(0xCAFEBABE, iterator.readS32LE());
+        byte[] bites = new byte[6];
+        field.iterator(Pointer.of(5)).readBytes(bites, 0, 6);
+        assertArrayEquals(new byte[]{5, (byte)0xBE, (byte)0xBA, (byte)0xFE, (byte)0xCA, 10}, bites);
+    }
+
+    @Test
+    public void mapModeFollowsOpenOptions() throws IOException {
+        Path path = createFile(16);
+        try(MappedHexField field = MappedHexField.get(path, StandardOpenOption.READ).orThrow()){
+            assertEquals(FileChannel.MapMode.READ_ONLY, field.getMapMode());
+        }
+        try(MappedHexField field = MappedHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow()){
+            assertEquals(FileChannel.MapMode.READ_WRITE, field.getMapMode());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSegmentSize() throws IOException {
+        new MappedHexField(createFile(16), FileChannel.MapMode.READ_ONLY, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.framework.HexFramework;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares reading a table of structures from a FileHexField with prefetching off and on.
+ * Without prefetching, every field is a separate read of the file; with it, each structure is one read.
+ *
+ * This is not part of the normal test run, since its name doesn't end in Test. Run it with:
+ *     mvn -pl coreframework test -Dtest=PrefetchBenchmark
+ * Each mode is warmed up, then timed over several rounds. The median time of each, and the speedup, are printed.
+ * Both modes must decode the same values, so a broken prefetch fails rather than looking fast.
+ */
+public class PrefetchBenchmark {
+
+    private static final int RECORDS = 20000;
+    private static final int RECORD_SIZE = 16;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 11;
+
+    //Keeps the timed reads from being optimized away.
+    private static long sink;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @DataStructure
+    public static class Record {
+        @Offset("0")
+        private UnsignedWord id;
+        @Offset("4")
+        private UnsignedShort hp;
+        @Offset("6")
+        private UnsignedShort attack;
+        @Offset("8")
+        private UnsignedShort defense;
+        @Offset("10")
+        private UnsignedByte type1;
+        @Offset("11")
+        private UnsignedByte type2;
+        @Offset("12")
+        private UnsignedWord flags;
+    }
+
+    @Test
+    public void prefetchOffVersusOn() throws IOException {
+        Path path = folder.newFile().toPath();
+        byte[] bites = new byte[RECORDS * RECORD_SIZE];
+        for(int idx = 0; idx < bites.length; idx++){
+            bites[idx] = (byte)(idx * 31);
+        }
+        Files.write(path, bites);
+
+        try(FileHexField plainField = FileHexField.get(path, StandardOpenOption.READ).orThrow();
+            FileHexField prefetchField = FileHexField.get(path, StandardOpenOption.READ).orThrow()) {
+            HexFramework plain = create(plainField, false);
+            HexFramework prefetched = create(prefetchField, true);
+            assertEquals(checksum(plain), checksum(prefetched));
+
+            for(int round = 0; round < WARMUP_ROUNDS; round++){
+                checksum(plain);
+                checksum(prefetched);
+            }
+            long[] plainNanos = new long[ROUNDS];
+            long[] prefetchNanos = new long[ROUNDS];
+            for(int round = 0; round < ROUNDS; round++){
+                plainNanos[round] = time(plain);
+                prefetchNanos[round] = time(prefetched);
+            }
+            long plainMedian = median(plainNanos);
+            long prefetchMedian = median(prefetchNanos);
+            System.out.printf("Reading %d %d-byte records from a FileHexField, median of %d rounds:%n",
+                    RECORDS, RECORD_SIZE, ROUNDS);
+            System.out.printf("  prefetch off: %.2f ms%n", plainMedian / 1e6);
+            System.out.printf("  prefetch on:  %.2f ms%n", prefetchMedian / 1e6);
+            System.out.printf("  speedup:      %.2fx%n", (double)plainMedian / prefetchMedian);
+        }
+    }
+
+    private static HexFramework create(HexField field, boolean prefetch){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(UnsignedWord.class, UnsignedWord.HEXER)
+                .setPrefetch(prefetch)
+                .build().orThrow();
+    }
+
+    //Read every record, combining their fields so the reads can't be optimized away.
+    private static long checksum(HexFramework framework){
+        long sum = 0;
+        for(int idx = 0; idx < RECORDS; idx++){
+            Record record = framework.read((long)idx * RECORD_SIZE, Record.class);
+            sum = sum * 31 + record.id.getValue() + record.hp.getValue() + record.attack.getValue() +
+                    record.defense.getValue() + record.type1.getValue() + record.type2.getValue() + record.flags.getValue();
+        }
+        return sum;
+    }
+
+    private static long time(HexFramework framework){
+        long start = System.nanoTime();
+        sink += checksum(framework);
+        return System.nanoTime() - start;
+    }
+
+    private static long median(long[] values){
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.lucbui.file;
+
+import com.github.lucbui.bytes.ByteWindow;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpanBufferedIteratorTest {
+
+    private static ByteArrayHexField createField(int size){
+        byte[] bites = new byte[size];
+        for(int idx = 0; idx < size; idx++){
+            bites[idx] = (byte)idx;
+        }
+        return new ByteArrayHexField(bites);
+    }
+
+    @Test
+    public void readsInsideSpanComeFromBuffer() {
+        ByteArrayHexField field = createField(32);
+        SpanBufferedIterator iterator = SpanBufferedIterator.prefetch(field.iterator(Pointer.of(4)), 8, null).orThrow();
+        field.iterator(Pointer.of(4)).writeU8(0xFF);
+
+        assertEquals(4, iterator.readU8());
+        assertEquals(0x0504, iterator.readU16LE());
+        iterator.advanceRelative(4);
+        assertEquals(0x0B0A0908, iterator.readS32LE());
+        assertEquals(11, (byte)iterator.getByte(3).get());
+    }
+
+    @Test
+    public void readsOutsideSpanFallBack() {
+        ByteArrayHexField field = createField(32);
+        SpanBufferedIterator iterator = SpanBufferedIterator.prefetch(field.iterator(Pointer.of(4)), 8, null).orThrow();
+
+        assertEquals(12, (byte)iterator.getByte(8).get());
+        assertEquals(0x0D0C0B0A, iterator.copy(10).readS32LE());
+        assertEquals(20, iterator.copy(20).readU8());
+    }
+
+    @Test
+    public void copiesShareSpan() {
+        ByteArrayHexField field = createField(32);
+        SpanBufferedIterator iterator = SpanBufferedIterator.prefetch(field.iterator(Pointer.of(0)), 16, null).orThrow();
+        HexFieldIterator copy = iterator.copyRelative(8);
+        field.iterator(Pointer.of(8)).writeU8(0xFF);
+        assertEquals(8, copy.readU8());
+
+        iterator.release();
+        assertEquals(0xFF, copy.readU8());
+    }
+
+    @Test
+    public void writesEndSpan() {
+        ByteArrayHexField field = createField(32);
+        SpanBufferedIterator iterator = SpanBufferedIterator.prefetch(field.iterator(Pointer.of(0)), 16, null).orThrow();
+        iterator.copy(2).write(ByteWindow.of(0, (byte)0x7F)).orThrow();
+        assertEquals(0x7F, iterator.copy(2).readU8());
+        assertEquals(0x7F, field.iterator(Pointer.of(2)).readU8());
+    }
+
+    @Test
+    public void reusesBuffer() {
+        byte[] buffer = new byte[16];
+        SpanBufferedIterator iterator = SpanBufferedIterator.prefetch(createField(32).iterator(Pointer.of(0)), 8, buffer).orThrow();
+        assertSame(buffer, iterator.getBuffer());
+    }
+
+    @Test
+    public void spanPastEndIsError() {
+        assertTrue(SpanBufferedIterator.prefetch(createField(8).iterator(Pointer.of(4)), 8, null).isError());
+    }
+
+    @Test
+    public void stagedWritesAreFlushedTogether() {
+        ByteArrayHexField field = createField(32);
+        SpanBufferedIterator iterator = SpanBufferedIterator.stage(field.iterator(Pointer.of(4)), 8, null).orThrow();
+        iterator.writeU16LE(0xBEEF);
+        iterator.copy(14).writeU8(0x77);
+        assertEquals(4, field.iterator(Pointer.of(4)).readU8());
+        assertEquals(0xBEEF, iterator.readU16LE());
+        assertEquals(0x77, field.iterator(Pointer.of(14)).readU8());
+
+        iterator.flush().orThrow();
+        assertEquals(0xBEEF, field.iterator(Pointer.of(4)).readU16LE());
+        assertEquals(6, field.iterator(Pointer.of(6)).readU8());
+    }
+}
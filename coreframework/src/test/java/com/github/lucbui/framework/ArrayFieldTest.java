@@ -0,0 +1,146 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.ArrayField;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayFieldTest {
+
+    @DataStructure
+    public static class Evolution {
+        @Offset("0")
+        private UnsignedByte method;
+
+        @Offset("1")
+        private UnsignedByte species;
+    }
+
+    @DataStructure
+    public static class Learnset {
+        @Offset("0")
+        private UnsignedByte count;
+
+        @Offset("1")
+        @ArrayField(count = "count")
+        private UnsignedByte[] levels;
+
+        @Offset("8")
+        @ArrayField(count = "2", stride = 4)
+        private short[] moves;
+
+        @Offset("16")
+        @ArrayField(count = "2")
+        private Evolution[] evolutions;
+
+        @Offset("20")
+        @ArrayField(count = "3")
+        private UnsignedShort[] items;
+    }
+
+    @DataStructure
+    public static class Fixed {
+        @Offset("0")
+        @ArrayField(count = "3", stride = 4)
+        private byte[] bytes;
+
+        @Offset("12")
+        @ArrayField(count = "2")
+        private Evolution[] evolutions;
+    }
+
+    @DataStructure
+    public static class Overlapping {
+        @Offset("20")
+        @ArrayField(count = "3", stride = 1)
+        private UnsignedShort[] items;
+
+        @Offset("20")
+        @ArrayField(count = "3", stride = 1)
+        private short[] values;
+    }
+
+    private static ByteArrayHexField field(){
+        ByteArrayHexField field = new ByteArrayHexField(32);
+        field.iterator(Pointer.of(0)).writeU8(3);
+        for(int idx = 0; idx < 3; idx++){
+            field.iterator(Pointer.of(1 + idx)).writeU8(10 * (idx + 1));
+        }
+        field.iterator(Pointer.of(8)).writeU16LE(0x0101);
+        field.iterator(Pointer.of(10)).writeU16LE(0xFFFF);
+        field.iterator(Pointer.of(12)).writeU16LE(0x0202);
+        field.iterator(Pointer.of(16)).writeU8(4);
+        field.iterator(Pointer.of(17)).writeU8(5);
+        field.iterator(Pointer.of(18)).writeU8(6);
+        field.iterator(Pointer.of(19)).writeU8(7);
+        field.iterator(Pointer.of(20)).writeU16LE(100);
+        field.iterator(Pointer.of(22)).writeU16LE(200);
+        field.iterator(Pointer.of(24)).writeU16LE(300);
+        return field;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, boolean compiled){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .setCompiledPipeline(compiled)
+                .build().orThrow();
+    }
+
+    @Test
+    public void readArrays() {
+        for(boolean compiled : new boolean[]{false, true}){
+            Learnset learnset = framework(field(), compiled).read(0, Learnset.class);
+            assertArrayEquals(new UnsignedByte[]{UnsignedByte.valueOf(10), UnsignedByte.valueOf(20), UnsignedByte.valueOf(30)}, learnset.levels);
+            assertArrayEquals(new short[]{0x0101, 0x0202}, learnset.moves);
+            assertEquals(2, learnset.evolutions.length);
+            assertEquals(UnsignedByte.valueOf(4), learnset.evolutions[0].method);
+            assertEquals(UnsignedByte.valueOf(7), learnset.evolutions[1].species);
+            assertArrayEquals(new UnsignedShort[]{UnsignedShort.valueOf(100), UnsignedShort.valueOf(200), UnsignedShort.valueOf(300)}, learnset.items);
+        }
+    }
+
+    @Test
+    public void readOverlappingArrays() {
+        for(boolean compiled : new boolean[]{false, true}){
+            Overlapping overlapping = framework(field(), compiled).read(0, Overlapping.class);
+            //Each element reads two bytes, one byte after the last, so the final element reaches past the stride.
+            assertArrayEquals(new UnsignedShort[]{UnsignedShort.valueOf(100), UnsignedShort.valueOf(0xC800), UnsignedShort.valueOf(200)}, overlapping.items);
+            assertArrayEquals(new short[]{100, (short)0xC800, 200}, overlapping.values);
+        }
+    }
+
+    @Test
+    public void writeArrays() {
+        for(boolean compiled : new boolean[]{false, true}){
+            ByteArrayHexField field = field();
+            HexFramework framework = framework(field, compiled);
+            Learnset learnset = framework.read(0, Learnset.class);
+            learnset.levels[1] = UnsignedByte.valueOf(25);
+            learnset.moves[1] = 0x0303;
+            learnset.evolutions[0].species = UnsignedByte.valueOf(9);
+            learnset.items[2] = UnsignedShort.valueOf(400);
+            framework.write(0, learnset);
+
+            assertEquals(25, field.iterator(Pointer.of(2)).readU8());
+            assertEquals(0x0303, field.iterator(Pointer.of(12)).readU16LE());
+            //The stride's gap is left alone.
+            assertEquals(0xFFFF, field.iterator(Pointer.of(10)).readU16LE());
+            assertEquals(9, field.iterator(Pointer.of(17)).readU8());
+            assertEquals(400, field.iterator(Pointer.of(24)).readU16LE());
+        }
+    }
+
+    @Test
+    public void arraysWithConstantCountsHaveFixedSize() {
+        HexFramework framework = framework(field(), false);
+        assertEquals(16, framework.getLayout(Fixed.class).getSize());
+        assertFalse(framework.getLayout(Learnset.class).isFixedSize());
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.ArrayField;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnarTableTest {
+
+    @DataStructure
+    public static class Types {
+        @Offset("0")
+        private UnsignedByte first;
+
+        @Offset("1")
+        private UnsignedByte second;
+    }
+
+    @DataStructure
+    public static class Stats {
+        @Offset("0")
+        private UnsignedByte hp;
+
+        @Offset("2")
+        private UnsignedShort exp;
+
+        @Offset("4")
+        private UnsignedWord flags;
+
+        @Offset("8")
+        private Types types;
+    }
+
+    @DataStructure
+    public static class Counted {
+        @Offset("0")
+        private UnsignedByte count;
+
+        @Offset("1")
+        @ArrayField(count = "count")
+        private byte[] values;
+    }
+
+    private static final int STRIDE = 12;
+    private static final int COUNT = 6;
+
+    private static HexFramework framework(){
+        ByteArrayHexField field = new ByteArrayHexField(STRIDE * COUNT);
+        for(int row = 0; row < COUNT; row++){
+            int base = row * STRIDE;
+            field.iterator(Pointer.of(base)).writeU8(200 + row);
+            field.iterator(Pointer.of(base + 2)).writeU16LE(0xF000 + row);
+            field.iterator(Pointer.of(base + 4)).writeU32LE(0xFFFFFF00L + row);
+            field.iterator(Pointer.of(base + 8)).writeU8(row);
+            field.iterator(Pointer.of(base + 9)).writeU8(row * 2);
+        }
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(UnsignedWord.class, UnsignedWord.HEXER)
+                .build().orThrow();
+    }
+
+    @Test
+    public void columnsMatchRows() {
+        HexFramework framework = framework();
+        List<Stats> rows = framework.readTable(0, STRIDE, COUNT, Stats.class);
+        ColumnarTable<Stats> table = new ColumnarTableReader<>(framework, Stats.class).read(0, STRIDE, COUNT);
+
+        assertEquals(COUNT, table.size());
+        assertEquals(Arrays.asList("hp", "exp", "flags", "types"), Arrays.asList(table.getColumnNames().toArray()));
+        for(int row = 0; row < COUNT; row++){
+            Stats stats = rows.get(row);
+            assertEquals(stats.hp.getValue(), Byte.toUnsignedLong(table.getBytes("hp")[row]));
+            assertEquals(stats.exp.getValue(), Short.toUnsignedLong(table.getShorts("exp")[row]));
+            assertEquals(stats.flags.getValue(), table.getLongs("flags")[row]);
+            assertEquals(stats.exp, table.row(row).get("exp"));
+            assertEquals(stats.hp.getValue(), table.row(row).getLong("hp"));
+            Types types = (Types) table.getObjects("types")[row];
+            assertEquals(stats.types.second, types.second);
+        }
+    }
+
+    @Test
+    public void columnsCanBeScanned() {
+        ColumnarTable<Stats> table = new ColumnarTableReader<>(framework(), Stats.class).read(0, STRIDE, COUNT);
+        long total = 0;
+        for(byte hp : table.getBytes("hp")){
+            total += Byte.toUnsignedInt(hp);
+        }
+        assertEquals(200 * COUNT + 15, total);
+    }
+
+    @Test
+    public void emptyTable() {
+        ColumnarTable<Stats> table = new ColumnarTableReader<>(framework(), Stats.class).read(0, STRIDE, 0);
+        assertEquals(0, table.size());
+        assertEquals(0, table.getLongs("flags").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongColumnType() {
+        new ColumnarTableReader<>(framework(), Stats.class).read(0, STRIDE, 1).getShorts("hp");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void countFromFieldRejected() {
+        new ColumnarTableReader<>(framework(), Counted.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.config.Configuration;
+import com.github.lucbui.config.MapConfig;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.pipeline.Pipeline;
+import com.github.lucbui.pipeline.pipes.CompiledFieldPipe;
+import com.github.lucbui.utility.PipeUtils;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class CompiledPipelineTest {
+
+    @DataStructure(size = 3)
+    public static class Inner {
+        @Offset("0")
+        private UnsignedByte first;
+
+        @Offset("1")
+        private UnsignedShort second;
+    }
+
+    @DataStructure
+    public static class Outer {
+        @Offset("0")
+        private UnsignedByte header;
+
+        @Offset("1")
+        private Inner inner;
+
+        @Offset("0")
+        @Absolute
+        private UnsignedByte absolute;
+    }
+
+    @DataStructure
+    public static class Configured {
+        @Offset("${offset}")
+        private UnsignedByte value;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, boolean compiled){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .setCompiledPipeline(compiled)
+                .build().orThrow();
+    }
+
+    @Test
+    public void readMatchesDefaultPipeline() {
+        ByteArrayHexField field = new ByteArrayHexField(new byte[]{9, 1, 2, 3, 4, 5});
+        Outer interpreted = framework(field, false).read(1, Outer.class);
+        HexFramework compiledFramework = framework(field, true);
+        for(int i = 0; i < 2; i++) {
+            Outer compiled = compiledFramework.read(1, Outer.class);
+            assertEquals(interpreted.header, compiled.header);
+            assertEquals(interpreted.inner.first, compiled.inner.first);
+            assertEquals(interpreted.inner.second, compiled.inner.second);
+            assertEquals(interpreted.absolute, compiled.absolute);
+        }
+    }
+
+    @Test
+    public void writeMatchesDefaultPipeline() {
+        Outer outer = new Outer();
+        outer.header = UnsignedByte.valueOf(7);
+        outer.inner = new Inner();
+        outer.inner.first = UnsignedByte.valueOf(8);
+        outer.inner.second = UnsignedShort.valueOf(0x0A09);
+        outer.absolute = UnsignedByte.valueOf(6);
+
+        ByteArrayHexField interpreted = new ByteArrayHexField(6);
+        framework(interpreted, false).write(1, outer);
+        ByteArrayHexField compiled = new ByteArrayHexField(6);
+        framework(compiled, true).write(1, outer);
+        assertArrayEquals(interpreted.toByteArray(), compiled.toByteArray());
+        assertArrayEquals(new byte[]{6, 7, 8, 9, 10, 0}, compiled.toByteArray());
+    }
+
+    @Test
+    public void frameworksKeepTheirOwnPlans() {
+        ByteArrayHexField field = new ByteArrayHexField(new byte[]{1, 2, 3});
+        Pipeline<Object> pipeline = PipeUtils.getCompiledPipeline(new CompiledFieldPipe());
+        HexFramework first = configured(field, pipeline, new MapConfig("offset", "1"));
+        HexFramework second = configured(field, pipeline, new MapConfig("offset", "2"));
+        for(int i = 0; i < 2; i++){
+            assertEquals(UnsignedByte.valueOf(2), first.read(0, Configured.class).value);
+            assertEquals(UnsignedByte.valueOf(3), second.read(0, Configured.class).value);
+        }
+    }
+
+    @Test
+    public void invalidateRecompilesOffsets() {
+        Map<String, String> values = new HashMap<>();
+        values.put("offset", "1");
+        Configuration config = new Configuration() {
+            @Override
+            public Optional<String> get(String key) {
+                return Optional.ofNullable(values.get(key));
+            }
+
+            @Override
+            public boolean has(String key) {
+                return values.containsKey(key);
+            }
+        };
+        HexFramework framework = configured(new ByteArrayHexField(new byte[]{1, 2, 3}), PipeUtils.getCompiledPipeline(), config);
+        assertEquals(UnsignedByte.valueOf(2), framework.read(0, Configured.class).value);
+        values.put("offset", "2");
+        framework.invalidate();
+        assertEquals(UnsignedByte.valueOf(3), framework.read(0, Configured.class).value);
+    }
+
+    @Test
+    public void setConfigurationRecompilesOffsets() {
+        HexFramework framework = configured(new ByteArrayHexField(new byte[]{1, 2, 3}), PipeUtils.getCompiledPipeline(),
+                new MapConfig("offset", "1"));
+        assertEquals(UnsignedByte.valueOf(2), framework.read(0, Configured.class).value);
+        framework.setConfiguration(new MapConfig("offset", "2"));
+        assertEquals(UnsignedByte.valueOf(3), framework.read(0, Configured.class).value);
+    }
+
+    private static HexFramework configured(ByteArrayHexField field, Pipeline<Object> pipeline, Configuration config){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .setConfiguration(config)
+                .setPipeline(pipeline)
+                .build().orThrow();
+    }
+}
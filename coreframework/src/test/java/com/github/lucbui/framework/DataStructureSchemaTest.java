@@ -0,0 +1,153 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.AfterRead;
+import com.github.lucbui.annotations.BeforeWrite;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.strategy.EmptyConstructorCreateStrategy;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DataStructureSchemaTest {
+
+    @DataStructure(size = 3)
+    public static class Inner {
+        @Offset("0")
+        private UnsignedByte first;
+
+        @Offset("1")
+        private UnsignedShort second;
+    }
+
+    @DataStructure
+    public static class Outer {
+        @Offset("0")
+        private UnsignedByte header;
+
+        @Offset("1")
+        private Inner inner;
+
+        @Offset("0")
+        @Absolute
+        private UnsignedByte absolute;
+
+        private int notParsed;
+    }
+
+    @DataStructure
+    public static class Hooked {
+        @Offset("0")
+        private UnsignedByte value;
+
+        private int reads;
+        private long position = -1;
+        private int writes;
+
+        @AfterRead
+        public void afterRead(){
+            reads++;
+        }
+
+        @AfterRead
+        public void afterReadAt(HexFieldIterator iterator){
+            position = iterator.getPosition();
+        }
+
+        @BeforeWrite
+        public void beforeWrite(){
+            writes++;
+        }
+    }
+
+    public static class Accessors {
+        private int primitive;
+        private final String constant = "a";
+        private static String shared;
+
+        private Accessors(){
+        }
+    }
+
+    private static FieldSchema field(Class<?> clazz, String name){
+        return DataStructureSchema.of(clazz).getFields().stream()
+                .filter(f -> f.getName().equals(name))
+                .findFirst().orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Test
+    public void getAndSetFields() throws IllegalAccessException {
+        Accessors accessors = new EmptyConstructorCreateStrategy().create(Accessors.class);
+        field(Accessors.class, "primitive").set(accessors, 5);
+        assertEquals(5, accessors.primitive);
+        assertEquals(5, field(Accessors.class, "primitive").get(accessors));
+        field(Accessors.class, "constant").set(accessors, "b");
+        assertEquals("b", field(Accessors.class, "constant").get(accessors));
+        field(Accessors.class, "shared").set(accessors, "c");
+        assertEquals("c", field(Accessors.class, "shared").get(null));
+    }
+
+    @Test
+    public void fieldObjectSetWrongType() {
+        FieldObject fieldObject = FieldObject.get(new Outer(), field(Outer.class, "header")).get();
+        fieldObject.setReferent("not a byte");
+        assertTrue(fieldObject.set().isError());
+    }
+
+    @Test
+    public void schemaIsCached() {
+        assertSame(DataStructureSchema.of(Outer.class), DataStructureSchema.of(Outer.class));
+    }
+
+    @Test
+    public void offsetFields() {
+        DataStructureSchema schema = DataStructureSchema.of(Outer.class);
+        List<FieldSchema> fields = schema.getOffsetFields();
+        assertEquals(3, fields.size());
+        assertEquals("header", fields.get(0).getName());
+        assertTrue(fields.get(1).isFieldClassDataStructure());
+        assertEquals(3, fields.get(1).getStaticSize());
+        assertTrue(fields.get(2).isAbsolute());
+        assertEquals(-1, schema.getStaticSize());
+    }
+
+    @Test
+    public void readNestedDataStructure() {
+        HexFramework framework = HexFramework.init(new ByteArrayHexField(new byte[]{9, 1, 2, 3, 4, 5}))
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .build().orThrow();
+        Outer outer = framework.read(1, Outer.class);
+        assertEquals(1, outer.header.getValue());
+        assertEquals(2, outer.inner.first.getValue());
+        assertEquals(0x0403, outer.inner.second.getValue());
+        assertEquals(9, outer.absolute.getValue());
+    }
+
+    @Test
+    public void hooksAreCached() {
+        assertTrue(DataStructureSchema.of(Outer.class).getHooks(AfterRead.class).isEmpty());
+        List<LifecycleHook> hooks = DataStructureSchema.of(Hooked.class).getHooks(AfterRead.class);
+        assertEquals(2, hooks.size());
+        assertSame(hooks, DataStructureSchema.of(Hooked.class).getHooks(AfterRead.class));
+    }
+
+    @Test
+    public void hooksAreInvoked() {
+        HexFramework framework = HexFramework.init(new ByteArrayHexField(new byte[]{9, 1, 2}))
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .build().orThrow();
+        Hooked hooked = framework.read(1, Hooked.class);
+        assertEquals(1, hooked.reads);
+        assertEquals(1, hooked.position);
+        framework.write(2, hooked);
+        assertEquals(1, hooked.writes);
+    }
+}
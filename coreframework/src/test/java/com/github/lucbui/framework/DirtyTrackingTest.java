@@ -0,0 +1,112 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.ObservedHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DirtyTrackingTest {
+
+    @DataStructure
+    public static class Record {
+        @Offset("0")
+        private UnsignedByte id;
+
+        @Offset("2")
+        private UnsignedShort value;
+
+        @Offset("4")
+        @PointerField(objectType = UnsignedShort.class)
+        private PointerObject<UnsignedShort> name;
+    }
+
+    private final List<long[]> writes = new ArrayList<>();
+
+    private HexFramework framework(boolean compiled){
+        ByteArrayHexField field = new ByteArrayHexField(32);
+        field.iterator(Pointer.of(0)).writeU8(1);
+        field.iterator(Pointer.of(2)).writeU16LE(0x1234);
+        field.iterator(Pointer.of(4)).writeU32LE(16);
+        field.iterator(Pointer.of(16)).writeU16LE(0x5678);
+        return TestFrameworks.builder(new ObservedHexField(field, (position, length) -> writes.add(new long[]{position, length})), compiled)
+                .setDirtyTracking(64)
+                .build().orThrow();
+    }
+
+    @Test
+    public void unchangedObjectWritesNothing() {
+        for(boolean compiled : new boolean[]{false, true}){
+            writes.clear();
+            HexFramework framework = framework(compiled);
+            Record record = framework.read(0, Record.class);
+            framework.write(0, record);
+            assertTrue("compiled=" + compiled, writes.isEmpty());
+        }
+    }
+
+    @Test
+    public void onlyChangedBytesAreWritten() {
+        for(boolean compiled : new boolean[]{false, true}){
+            writes.clear();
+            HexFramework framework = framework(compiled);
+            Record record = framework.read(0, Record.class);
+            record.value = UnsignedShort.valueOf(0x12FF);
+            framework.write(0, record);
+            assertEquals(1, writes.size());
+            assertArrayEquals(new long[]{2, 1}, writes.get(0));
+
+            //The new contents are the snapshot now.
+            writes.clear();
+            framework.write(0, record);
+            assertTrue(writes.isEmpty());
+            assertEquals(UnsignedShort.valueOf(0x12FF), framework.read(0, Record.class).value);
+        }
+    }
+
+    @Test
+    public void untrackedObjectsAreWrittenInFull() {
+        HexFramework framework = framework(false);
+        Record record = framework.read(0, Record.class);
+        Record copy = new Record();
+        copy.id = record.id;
+        copy.value = record.value;
+        copy.name = new PointerObject<>(Pointer.of(16), UnsignedShort.valueOf(0x9ABC));
+        writes.clear();
+        try {
+            framework.write(0, copy);
+            fail("The new PointerObject can't be repointed");
+        } catch (IllegalStateException expected) {
+            assertFalse(writes.isEmpty());
+        }
+    }
+
+    @Test
+    public void writingAnotherObjectDiscardsSnapshot() {
+        for(boolean compiled : new boolean[]{false, true}){
+            HexFramework framework = framework(compiled);
+            Record record = framework.read(0, Record.class);
+            Record other = new Record();
+            other.id = UnsignedByte.valueOf(9);
+            other.value = UnsignedShort.valueOf(0x4321);
+            other.name = record.name;
+            framework.write(0, other);
+
+            //The file no longer holds the record's bytes, so all of it must be written again.
+            framework.write(0, record);
+            Record reread = framework.read(0, Record.class);
+            assertEquals("compiled=" + compiled, UnsignedByte.valueOf(1), reread.id);
+            assertEquals("compiled=" + compiled, UnsignedShort.valueOf(0x1234), reread.value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.utility.HexerUtils;
+import com.github.lucbui.utility.Try;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class HexerRegistryTest {
+
+    private static class PointerA implements Pointer {
+        @Override
+        public long getLocation() {
+            return 0;
+        }
+    }
+
+    private static class PointerB extends PointerA {
+    }
+
+    private static <T> Hexer<T> hexer(){
+        return new Hexer<T>() {
+            @Override
+            public int getSize(T object) {
+                return 0;
+            }
+
+            @Override
+            public T read(HexFieldIterator iterator) {
+                return null;
+            }
+
+            @Override
+            public void write(T object, HexFieldIterator iterator) {
+            }
+        };
+    }
+
+    @Test
+    public void resolvesExactAndSupertypes() {
+        Map<Class<?>, Hexer<?>> hexers = new HashMap<>();
+        hexers.put(UnsignedByte.class, UnsignedByte.HEXER);
+        Hexer<PointerA> pointerHexer = hexer();
+        hexers.put(PointerA.class, pointerHexer);
+        HexerRegistry registry = new HexerRegistry(hexers);
+
+        assertSame(UnsignedByte.HEXER, registry.resolve(UnsignedByte.class));
+        assertSame(pointerHexer, registry.resolve(Pointer.class));
+        assertSame(pointerHexer, HexerUtils.getHexerFor(registry, Pointer.class).get());
+        assertNull(registry.resolve(UnsignedShort.class));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void ambiguousLookups() {
+        Map<Class<?>, Hexer<?>> hexers = new HashMap<>();
+        hexers.put(PointerA.class, hexer());
+        hexers.put(PointerB.class, hexer());
+        hexers.put(UnsignedByte.class, UnsignedByte.HEXER);
+        hexers.put(UnsignedShort.class, UnsignedShort.HEXER);
+        HexerRegistry registry = new HexerRegistry(hexers);
+
+        //PointerA is registered exactly, so it is not ambiguous.
+        assertNotNull(registry.resolve(PointerA.class));
+        try {
+            registry.resolve(Pointer.class);
+            fail("Expected ambiguous lookup");
+        } catch (IllegalArgumentException e) {
+            //Expected
+        }
+        Try<Void> validation = registry.validate(Arrays.asList(Pointer.class, Comparable.class, PointerA.class));
+        assertTrue(validation.isError());
+        assertTrue(validation.getCause().contains(Pointer.class.getName()));
+        assertTrue(validation.getCause().contains(Comparable.class.getName()));
+    }
+
+    @Test
+    public void ambiguousPointerFailsBuild() {
+        Try<HexFramework> framework = HexFramework.init(new ByteArrayHexField(4))
+                .addHexer(PointerA.class, hexer())
+                .addHexer(PointerB.class, hexer())
+                .build();
+        assertTrue(framework.isError());
+    }
+}
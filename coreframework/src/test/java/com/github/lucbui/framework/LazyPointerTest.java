@@ -0,0 +1,81 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.utility.RepointUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LazyPointerTest {
+
+    @DataStructure
+    public static class Lazy {
+        @Offset("0")
+        @PointerField(objectType = UnsignedByte.class, lazy = true)
+        private PointerObject<UnsignedByte> lazy;
+
+        @Offset("4")
+        @PointerField(objectType = UnsignedByte.class)
+        private PointerObject<UnsignedByte> eager;
+    }
+
+    private static ByteArrayHexField field(){
+        ByteArrayHexField field = new ByteArrayHexField(16);
+        field.iterator(Pointer.of(0)).writeU32LE(12);
+        field.iterator(Pointer.of(4)).writeU32LE(13);
+        field.iterator(Pointer.of(12)).writeU8(0x55);
+        field.iterator(Pointer.of(13)).writeU8(0x66);
+        return field;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, boolean compiled, boolean lazyPointers){
+        return TestFrameworks.builder(field, compiled)
+                .setLazyPointers(lazyPointers)
+                .build().orThrow();
+    }
+
+    @Test
+    public void lazyFieldsLoadOnAccess() {
+        for(boolean compiled : new boolean[]{false, true}){
+            ByteArrayHexField field = field();
+            Lazy lazy = framework(field, compiled, false).read(0, Lazy.class);
+            assertFalse(lazy.lazy.isLoaded());
+            assertTrue(lazy.eager.isLoaded());
+            assertEquals(12, lazy.lazy.getPointer().getLocation());
+
+            field.iterator(Pointer.of(12)).writeU8(0x77);
+            assertEquals(UnsignedByte.valueOf(0x77), lazy.lazy.getObject());
+            assertTrue(lazy.lazy.isLoaded());
+            field.iterator(Pointer.of(12)).writeU8(0x88);
+            assertEquals(UnsignedByte.valueOf(0x77), lazy.lazy.getObject());
+        }
+    }
+
+    @Test
+    public void frameworkWideLazyPointers() {
+        Lazy lazy = framework(field(), false, true).read(0, Lazy.class);
+        assertFalse(lazy.lazy.isLoaded());
+        assertFalse(lazy.eager.isLoaded());
+        assertEquals(UnsignedByte.valueOf(0x66), lazy.eager.getObject());
+    }
+
+    @Test
+    public void untouchedLazyFieldsAreNotWritten() {
+        for(boolean compiled : new boolean[]{false, true}){
+            ByteArrayHexField field = field();
+            HexFramework framework = framework(field, compiled, false);
+            Lazy lazy = framework.read(0, Lazy.class);
+            lazy.eager.setRepointStrategy(RepointUtils.identityRepointStrategy());
+            field.iterator(Pointer.of(12)).writeU8(0x99);
+            framework.write(0, lazy);
+            assertEquals(0x99, field.iterator(Pointer.of(12)).readU8());
+            assertEquals(12, field.iterator(Pointer.of(0)).readU32LE());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ObjectCacheTest {
+
+    @DataStructure
+    public static class Shared {
+        @Offset("0")
+        @PointerField(objectType = UnsignedShort.class)
+        private PointerObject<UnsignedShort> first;
+
+        @Offset("4")
+        @PointerField(objectType = UnsignedShort.class)
+        private PointerObject<UnsignedShort> second;
+    }
+
+    @DataStructure
+    public static class Lazy {
+        @Offset("0")
+        @PointerField(objectType = UnsignedShort.class, lazy = true)
+        private PointerObject<UnsignedShort> first;
+    }
+
+    @DataStructure
+    public static class WithAbsolute {
+        @Offset("0")
+        private UnsignedShort value;
+
+        @Offset("15")
+        @Absolute
+        private UnsignedByte last;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, boolean compiled){
+        field.iterator(Pointer.of(0)).writeU32LE(12);
+        field.iterator(Pointer.of(4)).writeU32LE(12);
+        field.iterator(Pointer.of(12)).writeU16LE(0x1234);
+        return TestFrameworks.builder(field, compiled)
+                .setObjectCache(16)
+                .build().orThrow();
+    }
+
+    @Test
+    public void sharedPointersReturnSameInstance() {
+        for(boolean compiled : new boolean[]{false, true}){
+            HexFramework framework = framework(new ByteArrayHexField(16), compiled);
+            Shared shared = framework.read(0, Shared.class);
+            assertSame(shared.first.getObject(), shared.second.getObject());
+            assertEquals(UnsignedShort.valueOf(0x1234), shared.first.getObject());
+            assertSame(shared, framework.read(0, Shared.class));
+        }
+    }
+
+    @Test
+    public void overlappingWritesInvalidate() {
+        HexFramework framework = framework(new ByteArrayHexField(16), false);
+        Shared shared = framework.read(0, Shared.class);
+        UnsignedShort before = shared.first.getObject();
+
+        framework.getIterator(Pointer.of(14)).writeU8(0xFF);
+        assertSame(before, framework.read(0, Shared.class).first.getObject());
+
+        framework.getIterator(Pointer.of(13)).writeU8(0x56);
+        Shared reread = framework.read(0, Shared.class);
+        assertNotSame(shared, reread);
+        assertEquals(UnsignedShort.valueOf(0x5634), reread.first.getObject());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() {
+        ObjectCache cache = new ObjectCache(2);
+        Object a = cache.get(0, Object.class, null, Object::new, o -> 1);
+        cache.get(1, Object.class, null, Object::new, o -> 1);
+        cache.get(0, Object.class, null, Object::new, o -> 1);
+        cache.get(2, Object.class, null, Object::new, o -> 1);
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get(0, Object.class, null, Object::new, o -> 1));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void lazyPointerResolvedLaterIsDependency() {
+        for(boolean compiled : new boolean[]{false, true}){
+            HexFramework framework = framework(new ByteArrayHexField(16), compiled);
+            Lazy lazy = framework.read(0, Lazy.class);
+            assertSame(lazy, framework.read(0, Lazy.class));
+            assertEquals(UnsignedShort.valueOf(0x1234), lazy.first.getObject());
+
+            framework.getIterator(Pointer.of(12)).writeU8(0x56);
+            Lazy reread = framework.read(0, Lazy.class);
+            assertNotSame(lazy, reread);
+            assertEquals(UnsignedShort.valueOf(0x1256), reread.first.getObject());
+        }
+    }
+
+    @Test
+    public void absoluteFieldWritesInvalidate() {
+        for(boolean compiled : new boolean[]{false, true}){
+            HexFramework framework = framework(new ByteArrayHexField(16), compiled);
+            WithAbsolute object = framework.read(0, WithAbsolute.class);
+            assertSame(object, framework.read(0, WithAbsolute.class));
+
+            framework.getIterator(Pointer.of(15)).writeU8(0x7F);
+            WithAbsolute reread = framework.read(0, WithAbsolute.class);
+            assertNotSame(object, reread);
+            assertEquals(UnsignedByte.valueOf(0x7F), reread.last);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.AfterRead;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProjectionTest {
+
+    @DataStructure
+    public static class Species {
+        @Offset("0")
+        private UnsignedByte hp;
+
+        @Offset("1")
+        private UnsignedByte type1;
+
+        @Offset("2")
+        private UnsignedByte type2;
+
+        @Offset("4")
+        private UnsignedShort item;
+
+        @Offset("8")
+        @PointerField(objectType = UnsignedByte.class)
+        private PointerObject<UnsignedByte> name;
+
+        private boolean afterRead;
+
+        @AfterRead
+        public void afterRead(){
+            afterRead = true;
+        }
+    }
+
+    private static HexFramework framework(boolean compiled, boolean prefetch){
+        ByteArrayHexField field = new ByteArrayHexField(16);
+        field.iterator(Pointer.of(0)).writeU8(45);
+        field.iterator(Pointer.of(1)).writeU8(12);
+        field.iterator(Pointer.of(2)).writeU8(3);
+        field.iterator(Pointer.of(4)).writeU16LE(0x1234);
+        //The name points outside the field, so following it fails.
+        field.iterator(Pointer.of(8)).writeU32LE(0x1000);
+        return TestFrameworks.builder(field, compiled)
+                .setPrefetch(prefetch)
+                .build().orThrow();
+    }
+
+    @Test
+    public void onlySelectedFieldsAreRead() {
+        for(boolean compiled : new boolean[]{false, true}){
+            for(boolean prefetch : new boolean[]{false, true}){
+                Species species = framework(compiled, prefetch).read(0, Species.class, FieldSelector.of("type1", "type2"));
+                assertEquals(UnsignedByte.valueOf(12), species.type1);
+                assertEquals(UnsignedByte.valueOf(3), species.type2);
+                assertNull(species.hp);
+                assertNull(species.item);
+                assertNull(species.name);
+                assertFalse(species.afterRead);
+            }
+        }
+    }
+
+    @Test
+    public void selectAllReadsEveryField() {
+        try {
+            framework(false, false).read(0, Species.class, FieldSelector.all());
+            fail("The name's pointer should have been followed");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void projectionEndsAfterRead() {
+        HexFramework framework = framework(true, false);
+        Species species = framework.read(0, Species.class, field -> !field.isPointerField());
+        assertEquals(UnsignedShort.valueOf(0x1234), species.item);
+        assertFalse(framework.getProjection(species).isPresent());
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StructViewTest {
+
+    @DataStructure
+    public static class Row {
+        @Offset("0")
+        private UnsignedByte id;
+
+        @Offset("2")
+        private UnsignedShort value;
+
+        @Offset("4")
+        private UnsignedWord flags;
+
+        @Offset("0")
+        @Absolute
+        private UnsignedByte header;
+    }
+
+    private static HexFramework framework(){
+        ByteArrayHexField field = new ByteArrayHexField(0x100);
+        for(int idx = 0; idx < 0x100; idx++){
+            field.iterator(Pointer.of(idx)).writeU8(idx);
+        }
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(UnsignedWord.class, UnsignedWord.HEXER)
+                .build().orThrow();
+    }
+
+    @Test
+    public void primitiveGetters() {
+        StructView<Row> view = framework().view(0x10, 8, Row.class);
+        StructureLayout.FieldLayout value = view.field("value");
+        view.wrap(2);
+        assertEquals(0x20, view.getPosition());
+        assertEquals(0x20, view.getU8("id"));
+        assertEquals(0x2322, view.getU16(value));
+        assertEquals(0x27262524L, view.getU32("flags"));
+        assertEquals(0, view.getU8("header"));
+
+        view.wrap(0);
+        assertEquals(0x1312, view.getU16(value));
+    }
+
+    @Test
+    public void decodeAndMaterialize() {
+        StructView<Row> view = framework().view(0x10, 8, Row.class).wrap(1);
+        assertEquals(UnsignedShort.valueOf(0x1B1A), view.get("value"));
+        Row row = view.materialize();
+        assertEquals(UnsignedByte.valueOf(0x18), row.id);
+        assertEquals(UnsignedWord.valueOf(0x1F1E1D1C), row.flags);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownField() {
+        framework().view(0, 8, Row.class).field("missing");
+    }
+}
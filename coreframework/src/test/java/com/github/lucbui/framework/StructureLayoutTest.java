@@ -0,0 +1,119 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.Absolute;
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.ASCIIString;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.bytes.UnsignedWord;
+import com.github.lucbui.config.MapConfig;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.Pointer;
+import org.junit.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.Assert.*;
+
+public class StructureLayoutTest {
+
+    @DataStructure
+    public static class Inner {
+        @Offset("0")
+        private UnsignedByte first;
+
+        @Offset("2")
+        private UnsignedShort second;
+    }
+
+    @DataStructure
+    public static class Outer {
+        @Offset("0")
+        private UnsignedWord header;
+
+        @Offset("${inner.offset|4}")
+        private Inner inner;
+
+        @Offset("0x100")
+        @Absolute
+        private UnsignedWord absolute;
+    }
+
+    @DataStructure
+    public static class Variable {
+        @Offset("1")
+        private UnsignedByte first;
+
+        @Offset("2")
+        private ASCIIString name;
+    }
+
+    @DataStructure
+    public static class Recursive {
+        @Offset("0")
+        private UnsignedByte value;
+
+        @Offset("1")
+        private Recursive next;
+    }
+
+    private static HexFramework framework(){
+        return HexFramework.init(new ByteArrayHexField(4))
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(UnsignedWord.class, UnsignedWord.HEXER)
+                .addHexer(ASCIIString.class, ASCIIString.hexerByDelimiter((byte) 0xFF))
+                .setConfiguration(new MapConfig("inner.offset", "8"))
+                .build().orThrow();
+    }
+
+    @Test
+    public void fixedSizeLayouts() {
+        HexFramework framework = framework();
+        assertEquals(OptionalInt.of(4), framework.getSize(Inner.class));
+        assertEquals(OptionalInt.of(12), framework.getSize(Outer.class));
+        assertEquals(OptionalInt.of(2), framework.getSize(UnsignedShort.class));
+        assertSame(framework.getLayout(Outer.class), framework.getLayout(Outer.class));
+
+        StructureLayout layout = framework.getLayout(Outer.class);
+        assertEquals(3, layout.getFields().size());
+        assertEquals(8, layout.getFields().get(1).getOffset());
+        assertEquals(4, layout.getFields().get(1).getSize());
+        assertTrue(layout.getFields().get(2).isAbsolute());
+    }
+
+    @Test
+    public void variableSizeLayouts() {
+        HexFramework framework = framework();
+        assertFalse(framework.getSize(Variable.class).isPresent());
+        assertFalse(framework.getSize(Recursive.class).isPresent());
+
+        Variable variable = new Variable();
+        variable.first = UnsignedByte.valueOf(1);
+        variable.name = ASCIIString.of("abc").orThrow();
+        assertEquals(OptionalInt.of(5), framework.getSize(variable));
+    }
+
+    @Test
+    public void prefetchedReadMatchesUnprefetched() {
+        ByteArrayHexField field = new ByteArrayHexField(0x104);
+        for(int idx = 0; idx < 0x104; idx++){
+            field.iterator(Pointer.of(idx)).writeU8(idx);
+        }
+        HexFramework prefetched = HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(UnsignedWord.class, UnsignedWord.HEXER)
+                .setConfiguration(new MapConfig("inner.offset", "8"))
+                .setPrefetch(true)
+                .build().orThrow();
+        assertTrue(prefetched.isPrefetch());
+
+        Outer outer = prefetched.read(0x10, Outer.class);
+        assertEquals(UnsignedWord.valueOf(0x13121110), outer.header);
+        assertEquals(UnsignedByte.valueOf(0x18), outer.inner.first);
+        assertEquals(UnsignedShort.valueOf(0x1B1A), outer.inner.second);
+        assertEquals(UnsignedWord.valueOf(0x03020100), outer.absolute);
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.file.FileHexField;
+import com.github.lucbui.file.Pointer;
+import com.github.lucbui.strategy.EmptyConstructorCreateStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @DataStructure
+    public static class Row {
+        @Offset("0")
+        private UnsignedByte id;
+
+        @Offset("2")
+        private UnsignedShort value;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, int parallelThreshold){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .setParallelTables(parallelThreshold)
+                .build().orThrow();
+    }
+
+    private static ByteArrayHexField field(int size){
+        ByteArrayHexField field = new ByteArrayHexField(size);
+        for(int idx = 0; idx < size; idx++){
+            field.iterator(Pointer.of(idx)).writeU8(idx);
+        }
+        return field;
+    }
+
+    @Test
+    public void readTable() {
+        List<Row> rows = framework(field(64), 0).readTable(8, 6, 5, Row.class);
+        assertEquals(5, rows.size());
+        for(int idx = 0; idx < 5; idx++){
+            int base = 8 + idx * 6;
+            assertEquals(UnsignedByte.valueOf(base), rows.get(idx).id);
+            assertEquals(UnsignedShort.valueOf((base + 3) << 8 | (base + 2)), rows.get(idx).value);
+        }
+    }
+
+    @Test
+    public void readTableIntoArray() {
+        Row[] rows = new Row[3];
+        framework(field(16), 0).readTable(0, 4, rows, Row.class);
+        assertEquals(UnsignedByte.valueOf(8), rows[2].id);
+        assertEquals(UnsignedShort.valueOf(0x0B0A), rows[2].value);
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        ByteArrayHexField field = field(0x1000);
+        List<Row> sequential = framework(field, 0).readTable(0, 4, 1000, Row.class);
+        List<Row> parallel = framework(field, 16).readTable(0, 4, 1000, Row.class);
+        for(int idx = 0; idx < 1000; idx++){
+            assertEquals(sequential.get(idx).id, parallel.get(idx).id);
+            assertEquals(sequential.get(idx).value, parallel.get(idx).value);
+        }
+    }
+
+    @Test
+    public void writeTableRoundTrips() {
+        ByteArrayHexField field = field(32);
+        HexFramework framework = framework(field, 0);
+        List<Row> rows = new ArrayList<>();
+        for(int idx = 0; idx < 4; idx++){
+            Row row = new Row();
+            row.id = UnsignedByte.valueOf(0xF0 + idx);
+            row.value = UnsignedShort.valueOf(0x1000 * idx);
+            rows.add(row);
+        }
+        framework.writeTable(4, 6, rows);
+
+        //Bytes between the fields are left alone.
+        assertEquals(5, field.iterator(Pointer.of(5)).readU8());
+        List<Row> read = framework.readTable(4, 6, 4, Row.class);
+        for(int idx = 0; idx < 4; idx++){
+            assertEquals(rows.get(idx).id, read.get(idx).id);
+            assertEquals(rows.get(idx).value, read.get(idx).value);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveStride() {
+        framework(field(16), 0).readTable(0, 0, 2, Row.class);
+    }
+
+    @Test
+    public void streamReadsLazily() {
+        AtomicInteger created = new AtomicInteger();
+        HexFramework framework = HexFramework.init(field(0x1000))
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .createFactory(new EmptyConstructorCreateStrategy(){
+                    @Override
+                    public <T> T create(Class<T> clazz) {
+                        created.incrementAndGet();
+                        return super.create(clazz);
+                    }
+                })
+                .build().orThrow();
+        List<Row> firstTwo = framework.stream(0, 4, 1000, Row.class).limit(2).collect(Collectors.toList());
+        assertEquals(2, firstTwo.size());
+        assertEquals(UnsignedByte.valueOf(4), firstTwo.get(1).id);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void parallelStreamMatchesTable() {
+        HexFramework framework = framework(field(0x1000), 0);
+        List<Row> table = framework.readTable(0, 4, 1000, Row.class);
+        List<Row> streamed = framework.stream(0, 4, 1000, Row.class).parallel().collect(Collectors.toList());
+        assertEquals(1000, streamed.size());
+        for(int idx = 0; idx < 1000; idx++){
+            assertEquals(table.get(idx).id, streamed.get(idx).id);
+            assertEquals(table.get(idx).value, streamed.get(idx).value);
+        }
+        assertEquals(1000, framework.stream(0, 4, 1000, Row.class).spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    public void writeBackFieldDecodesSequentially() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, field(0x1000).toByteArray());
+        FileHexField field = FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow();
+        field.enableWriteBack(1024);
+        Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        HexFramework framework = HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .setParallelTables(16)
+                .createFactory(new EmptyConstructorCreateStrategy(){
+                    @Override
+                    public <T> T create(Class<T> clazz) {
+                        threads.add(Thread.currentThread());
+                        return super.create(clazz);
+                    }
+                })
+                .build().orThrow();
+        List<Row> rows = framework.readTable(0, 4, 1000, Row.class);
+        assertEquals(UnsignedByte.valueOf(4), rows.get(1).id);
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+        field.close();
+    }
+
+    @Test
+    public void writeBackFieldStreamsSequentially() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, field(0x1000).toByteArray());
+        FileHexField field = FileHexField.get(path, StandardOpenOption.READ, StandardOpenOption.WRITE).orThrow();
+        field.enableWriteBack(1024);
+        Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        HexFramework framework = HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .createFactory(new EmptyConstructorCreateStrategy(){
+                    @Override
+                    public <T> T create(Class<T> clazz) {
+                        threads.add(Thread.currentThread());
+                        return super.create(clazz);
+                    }
+                })
+                .build().orThrow();
+        List<Row> rows = framework.stream(0, 4, 1000, Row.class).parallel().collect(Collectors.toList());
+        assertEquals(1000, rows.size());
+        assertEquals(UnsignedByte.valueOf(4), rows.get(1).id);
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+        field.close();
+    }
+}
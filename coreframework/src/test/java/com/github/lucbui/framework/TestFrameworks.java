@@ -0,0 +1,56 @@
+package com.github.lucbui.framework;
+
+import com.github.lucbui.bytes.Hexer;
+import com.github.lucbui.bytes.UnsignedByte;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.HexField;
+import com.github.lucbui.file.HexFieldIterator;
+import com.github.lucbui.file.Pointer;
+
+/**
+ * Fixtures shared by tests which read structures through a HexFramework.
+ */
+public final class TestFrameworks {
+
+    /**
+     * A Hexer which reads a Pointer as a four-byte little-endian location.
+     */
+    public static final Hexer<Pointer> POINTER_HEXER = new Hexer<Pointer>() {
+        @Override
+        public int getSize(Pointer object) {
+            return 4;
+        }
+
+        @Override
+        public int getFixedSize() {
+            return 4;
+        }
+
+        @Override
+        public Pointer read(HexFieldIterator iterator) {
+            return Pointer.of(iterator.readU32LE());
+        }
+
+        @Override
+        public void write(Pointer object, HexFieldIterator iterator) {
+            iterator.writeU32LE(object.getLocation());
+        }
+    };
+
+    private TestFrameworks(){
+    }
+
+    /**
+     * Start building a framework with UnsignedByte, UnsignedShort and Pointer hexers.
+     * @param field The field to read.
+     * @param compiled True to use the compiled pipeline.
+     * @return The builder, for any further settings
+     */
+    public static HexFramework.Builder builder(HexField field, boolean compiled){
+        return HexFramework.init(field)
+                .addHexer(UnsignedByte.class, UnsignedByte.HEXER)
+                .addHexer(UnsignedShort.class, UnsignedShort.HEXER)
+                .addHexer(Pointer.class, POINTER_HEXER)
+                .setCompiledPipeline(compiled);
+    }
+}
@@ -9,6 +9,8 @@ import com.github.lucbui.framework.FrameworkFactory;
 import com.github.lucbui.framework.HexFramework;
 import com.github.lucbui.gba.annotations.Palette;
 import com.github.lucbui.gba.annotations.Sprite;
+import com.github.lucbui.gba.gfx.GBAPalette;
+import com.github.lucbui.gba.gfx.GBASprite;
 import com.github.lucbui.gba.pipes.PaletteFieldPipe;
 import com.github.lucbui.gba.pipes.SpriteFieldPipe;
 import com.github.lucbui.pipeline.LinearPipeline;
@@ -21,6 +23,24 @@ import com.github.lucbui.utility.PipeUtils;
  */
 public class GBAFrameworkFactory implements FrameworkFactory {
 
+    private final boolean compiled;
+
+    /**
+     * Create a GBAFrameworkFactory which interprets each object's fields as they are read.
+     */
+    public GBAFrameworkFactory(){
+        this(false);
+    }
+
+    /**
+     * Create a GBAFrameworkFactory
+     * @param compiled True if each class's fields should be compiled the first time it is used.
+     * @see CompiledFieldPipe
+     */
+    public GBAFrameworkFactory(boolean compiled){
+        this.compiled = compiled;
+    }
+
     @Override
     public void configure(HexFramework.Builder builder) {
         //Hexers
@@ -29,14 +49,14 @@ public class GBAFrameworkFactory implements FrameworkFactory {
         builder.addHexer(UnsignedWord.class, UnsignedWord.HEXER);
         builder.addHexer(GBAPointer.class, GBAPointer.HEXER);
         //Pipeline - allows for @Palette and @Sprite annotations
-        builder.setPipeline(createPipeline());
+        builder.setPipeline(compiled ? createCompiledPipeline() : createPipeline());
     }
 
     private Pipeline<Object> createPipeline(){
         return LinearPipeline.create()
                 .write(new PrintPipe())
                 .write(new BeforeWritePipe())
-                .pipe(ForEachPipe.create(o -> PipeUtils.getAnnotatedFieldObject(o, Offset.class))
+                .pipe(ForEachPipe.create((o, fw) -> PipeUtils.getAnnotatedFieldObject(o, Offset.class, fw))
                         .pipe(new OffsetParsePipe()) //Populates the Offset, and moves the iterator to the correct place
                         .pipe(SwitchPipe.<FieldObject>create()
                                 .iff(fo -> fo.isAnnotationPresent(Palette.class))
@@ -56,4 +76,21 @@ public class GBAFrameworkFactory implements FrameworkFactory {
                 .read(new PrintPipe())
                 .build();
     }
-}
\ No newline at end of file
+
+    //Reads and writes identically to createPipeline(), but resolves each class's offsets and hexers only once.
+    private Pipeline<Object> createCompiledPipeline(){
+        return LinearPipeline.create()
+                .write(new PrintPipe())
+                .write(new BeforeWritePipe())
+                .pipe(CompiledFieldPipe.create()
+                        .rule(Palette.class, field -> GBAPalette.getHexer(field.getAnnotation(Palette.class).value()))
+                        .rule(Sprite.class, field -> {
+                            Sprite spriteAnnotation = field.getAnnotation(Sprite.class);
+                            return GBASprite.getHexer(spriteAnnotation.bitDepth(), spriteAnnotation.size());
+                        })
+                        .build())
+                .read(new AfterReadPipe())
+                .read(new PrintPipe())
+                .build();
+    }
+}
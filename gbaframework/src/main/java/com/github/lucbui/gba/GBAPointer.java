@@ -3,7 +3,6 @@ package com.github.lucbui.gba;
 import com.github.lucbui.annotations.DataStructure;
 import com.github.lucbui.bytes.ByteWindow;
 import com.github.lucbui.bytes.Hexer;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.file.Pointer;
 import com.github.lucbui.utility.HexUtils;
@@ -34,14 +33,21 @@ public class GBAPointer implements Pointer, Comparable<GBAPointer>, Serializable
             return 4;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 4;
+        }
+
         @Override
         public GBAPointer read(HexFieldIterator iterator) {
-            return GBAPointer.valueOf(iterator.get(4).orThrow(HexerException::new));
+            int value = iterator.readS32LE();
+            Type type = Type.getTypeForPrefix(value >>> 24).orElseThrow(IllegalArgumentException::new);
+            return valueOf(type, value & 0xFFFFFF);
         }
 
         @Override
         public void write(GBAPointer object, HexFieldIterator iterator) {
-            iterator.write(object.toByteWindow());
+            iterator.writeS32LE((int)(object.type.getPrefix() << 24 | (object.position & 0xFFFFFF)));
         }
     };
 
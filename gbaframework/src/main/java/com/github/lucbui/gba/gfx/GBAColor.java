@@ -2,10 +2,7 @@ package com.github.lucbui.gba.gfx;
 
 import com.github.lucbui.bytes.Bitmask;
 import com.github.lucbui.bytes.Hexer;
-import com.github.lucbui.bytes.UnsignedShort;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
-import com.github.lucbui.utility.HexUtils;
 import com.github.lucbui.utility.MathUtils;
 
 import java.awt.*;
@@ -35,16 +32,21 @@ public class GBAColor implements Serializable {
             return 2;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 2;
+        }
+
         @Override
         public GBAColor read(HexFieldIterator iterator) {
-            int color = (int) UnsignedShort.valueOf(iterator.get(2).orThrow(HexerException::new)).getValue();
+            int color = iterator.readU16LE();
             return new GBAColor(RED_BITMASK.apply(color), GREEN_BITMASK.apply(color), BLUE_BITMASK.apply(color));
         }
 
         @Override
         public void write(GBAColor object, HexFieldIterator iterator) {
             int color = Bitmask.merge().with(RED_BITMASK, object.red).with(GREEN_BITMASK, object.green).with(BLUE_BITMASK, object.blue).apply();
-            iterator.write(HexUtils.toByteWindow(color, color >>> 8));
+            iterator.writeU16LE(color);
         }
     };
 
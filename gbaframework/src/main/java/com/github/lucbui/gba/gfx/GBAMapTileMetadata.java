@@ -1,11 +1,8 @@
 package com.github.lucbui.gba.gfx;
 
 import com.github.lucbui.bytes.Bitmask;
-import com.github.lucbui.bytes.ByteWindow;
 import com.github.lucbui.bytes.Hexer;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.file.HexFieldIterator;
-import com.github.lucbui.utility.HexUtils;
 import com.github.lucbui.utility.MathUtils;
 
 import java.io.Serializable;
@@ -34,10 +31,15 @@ public class GBAMapTileMetadata implements Serializable {
             return 2;
         }
 
+        @Override
+        public int getFixedSize() {
+            return 2;
+        }
+
         @Override
         public GBAMapTileMetadata read(HexFieldIterator iterator) {
-            ByteWindow bb = iterator.get(2).orThrow(HexerException::new); iterator.advanceRelative(2);
-            int val = HexUtils.byteToUnsignedByte(bb.get(0)) * 0x100 + HexUtils.byteToUnsignedByte(bb.get(1));
+            int val = iterator.readU16LE();
+            iterator.advanceRelative(2);
             short tileNumber = (short) MathUtils.assertInRange(TILE_NUMBER_MASK.apply(val), 0, HIGHEST_TILE_NUMBER);
             boolean horizontalFlip = HORIZONTAL_FLIP_MASK.apply(val) == 1;
             boolean verticalFlip = VERTICAL_FLIP_MASK.apply(val) == 1;
@@ -53,7 +55,7 @@ public class GBAMapTileMetadata implements Serializable {
                     .with(VERTICAL_FLIP_MASK, object.isVerticalFlip() ? 1 : 0)
                     .with(PALETTE_NUMBER_MASK, object.getPaletteNumber())
                     .apply();
-            iterator.write(HexUtils.toByteWindow(val, val >>> 8));
+            iterator.writeU16LE(val);
         }
     };
 
@@ -127,6 +127,11 @@ public class GBAPalette implements Iterable<GBAColor>, Serializable {
                         .sum();
             }
 
+            @Override
+            public int getFixedSize() {
+                return numberOfColors * GBAColor.HEXER.getFixedSize();
+            }
+
             @Override
             public GBAPalette read(HexFieldIterator iterator) {
                 List<GBAColor> colors = new ArrayList<>();
@@ -152,6 +152,11 @@ public class GBASprite implements GBAGraphic, Serializable {
                         .sum();
             }
 
+            @Override
+            public int getFixedSize() {
+                return spriteSize.getArea() * gbaTileHexer.getFixedSize();
+            }
+
             @Override
             public GBASprite read(HexFieldIterator iterator) {
                 int numberOfTiles = spriteSize.getArea();
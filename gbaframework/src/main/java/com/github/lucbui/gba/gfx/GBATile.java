@@ -1,9 +1,7 @@
 package com.github.lucbui.gba.gfx;
 
 import com.github.lucbui.bytes.Bitmask;
-import com.github.lucbui.bytes.ByteWindow;
 import com.github.lucbui.bytes.Hexer;
-import com.github.lucbui.exception.HexerException;
 import com.github.lucbui.exception.IllegalSizeException;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.utility.HexUtils;
@@ -98,26 +96,30 @@ public class GBATile implements GBAGraphic, Serializable {
                 }
             }
 
+            @Override
+            public int getFixedSize() {
+                return depth == BitDepth.FOUR ? AREA_IN_PIXELS / 2 : AREA_IN_PIXELS;
+            }
+
             @Override
             public GBATile read(HexFieldIterator iterator) {
                 byte[] pixels = new byte[AREA_IN_PIXELS];
                 if(depth == BitDepth.FOUR){
-                    //Each byte contains two pixels of info.
-                    for(int idx = 0; idx < (AREA_IN_PIXELS / 2); idx++){
-                        byte bite = iterator.getRelative(0, 1).orThrow(HexerException::new).get(0);
+                    //Each byte contains two pixels of info. Read them all at once, then split them in place.
+                    iterator.readBytes(pixels, 0, AREA_IN_PIXELS / 2);
+                    for(int idx = (AREA_IN_PIXELS / 2) - 1; idx >= 0; idx--){
+                        byte bite = pixels[idx];
                         int leftPixel = LEFT_PIXEL_MASK.apply(bite);
                         int rightPixel = RIGHT_PIXEL_MASK.apply(bite);
                         pixels[idx * 2] = HexUtils.unsignedByteToByte(leftPixel);
                         pixels[idx * 2 + 1] = HexUtils.unsignedByteToByte(rightPixel);
-                        iterator.advanceRelative(1);
                     }
+                    iterator.advanceRelative(AREA_IN_PIXELS / 2);
                     return new GBATile(depth, pixels);
                 } else if(depth == BitDepth.EIGHT){
                     //Each bite contains only one pixel of info.
-                    for(int idx = 0; idx < AREA_IN_PIXELS; idx++){
-                        pixels[idx] = iterator.getByte(0).orThrow(HexerException::new);
-                        iterator.advanceRelative(1);
-                    }
+                    iterator.readBytes(pixels, 0, AREA_IN_PIXELS);
+                    iterator.advanceRelative(AREA_IN_PIXELS);
                     return new GBATile(depth, pixels);
                 } else {
                     throw new IllegalArgumentException("Invalid depth specified:" + depth);
@@ -127,26 +129,26 @@ public class GBATile implements GBAGraphic, Serializable {
             @Override
             public void write(GBATile object, HexFieldIterator iterator) {
                 byte[] pixels = object.pixels;
-                ByteWindow window = new ByteWindow();
+                byte[] bites;
                 if (depth == BitDepth.FOUR) {
+                    bites = new byte[AREA_IN_PIXELS / 2];
                     for (int idx = 0; idx < (AREA_IN_PIXELS / 2); idx++) {
                         int pixl = Bitmask.merge()
                                 .with(LEFT_PIXEL_MASK, pixels[idx * 2])
                                 .with(RIGHT_PIXEL_MASK, pixels[idx * 2 + 1])
                                 .apply();
-                        byte bite = HexUtils.unsignedByteToByte(pixl);
-                        window.set(idx, bite);
+                        bites[idx] = HexUtils.unsignedByteToByte(pixl);
                     }
                 } else if (depth == BitDepth.EIGHT) {
+                    bites = new byte[AREA_IN_PIXELS];
                     for (int idx = 0; idx < AREA_IN_PIXELS; idx++) {
-                        byte bite = HexUtils.unsignedByteToByte(pixels[idx]);
-                        window.set(idx, bite);
+                        bites[idx] = HexUtils.unsignedByteToByte(pixels[idx]);
                     }
                 } else {
                     throw new IllegalArgumentException("Invalid depth specified:" + depth);
                 }
-                iterator.write(window);
-                iterator.advanceRelative(window.getRange());
+                iterator.writeBytes(bites, 0, bites.length);
+                iterator.advanceRelative(bites.length);
             }
         };
     }
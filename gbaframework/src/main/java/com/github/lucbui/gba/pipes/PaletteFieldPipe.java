@@ -1,5 +1,6 @@
 package com.github.lucbui.gba.pipes;
 
+import com.github.lucbui.bytes.Hexer;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.framework.FieldObject;
 import com.github.lucbui.framework.HexFramework;
@@ -14,13 +15,23 @@ public class PaletteFieldPipe implements PointerFieldFriendlyDoublePipe {
 
     @Override
     public Object makeObject(FieldObject object, HexFieldIterator iterator, HexFramework pkmnFramework) {
-        int numberOfColors = object.getAnnotation(Palette.class).value();
-        return GBAPalette.getHexer(numberOfColors).read(iterator);
+        return getHexer(object).read(iterator);
     }
 
     @Override
     public void writeObject(HexFieldIterator iterator, FieldObject object, HexFramework pkmnFramework) {
-        int numberOfColors = object.getAnnotation(Palette.class).value();
-        GBAPalette.getHexer(numberOfColors).writeObject(object.getReferent(), iterator);
+        getHexer(object).writeObject(object.getReferent(), iterator);
+    }
+
+    //Fields with equal annotations decode identically, so their objects can be shared.
+    @Override
+    public Object getReader(FieldObject object, HexFramework pkmnFramework) {
+        return object.getSchema().getAnnotation(Palette.class);
+    }
+
+    //The hexer depends only on the field's annotation, so it is built once per field.
+    private Hexer<GBAPalette> getHexer(FieldObject object){
+        return object.getSchema().getAttachment(PaletteFieldPipe.class,
+                schema -> GBAPalette.getHexer(schema.getAnnotation(Palette.class).value()));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.github.lucbui.gba.pipes;
 
+import com.github.lucbui.bytes.Hexer;
 import com.github.lucbui.file.HexFieldIterator;
 import com.github.lucbui.framework.FieldObject;
 import com.github.lucbui.framework.HexFramework;
@@ -14,13 +15,25 @@ public class SpriteFieldPipe implements PointerFieldFriendlyDoublePipe {
 
     @Override
     public Object makeObject(FieldObject object, HexFieldIterator iterator, HexFramework pkmnFramework) {
-        Sprite spriteAnnotation = object.getAnnotation(Sprite.class);
-        return GBASprite.getHexer(spriteAnnotation.bitDepth(), spriteAnnotation.size()).read(iterator);
+        return getHexer(object).read(iterator);
     }
 
     @Override
     public void writeObject(HexFieldIterator iterator, FieldObject object, HexFramework pkmnFramework) {
-        Sprite spriteAnnotation = object.getAnnotation(Sprite.class);
-        GBASprite.getHexer(spriteAnnotation.bitDepth(), spriteAnnotation.size()).writeObject(object.getReferent(), iterator);
+        getHexer(object).writeObject(object.getReferent(), iterator);
+    }
+
+    //Fields with equal annotations decode identically, so their objects can be shared.
+    @Override
+    public Object getReader(FieldObject object, HexFramework pkmnFramework) {
+        return object.getSchema().getAnnotation(Sprite.class);
+    }
+
+    //The hexer depends only on the field's annotation, so it is built once per field.
+    private Hexer<GBASprite> getHexer(FieldObject object){
+        return object.getSchema().getAttachment(SpriteFieldPipe.class, schema -> {
+            Sprite spriteAnnotation = schema.getAnnotation(Sprite.class);
+            return GBASprite.getHexer(spriteAnnotation.bitDepth(), spriteAnnotation.size());
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.github.lucbui.gba;
+
+import com.github.lucbui.annotations.DataStructure;
+import com.github.lucbui.annotations.Offset;
+import com.github.lucbui.annotations.PointerField;
+import com.github.lucbui.bytes.PointerObject;
+import com.github.lucbui.bytes.RepointStrategy;
+import com.github.lucbui.bytes.UnsignedShort;
+import com.github.lucbui.file.ByteArrayHexField;
+import com.github.lucbui.framework.HexFramework;
+import com.github.lucbui.gba.annotations.Palette;
+import com.github.lucbui.gba.annotations.Sprite;
+import com.github.lucbui.gba.gfx.GBAColor;
+import com.github.lucbui.gba.gfx.GBAPalette;
+import com.github.lucbui.gba.gfx.GBASprite;
+import com.github.lucbui.gba.gfx.SpriteSize;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GBAFrameworkFactoryTest {
+
+    private static final int SIZE = 0x80;
+    private static final int PALETTE_LOCATION = 0x40;
+    private static final int SPRITE_LOCATION = 0x60;
+
+    //Writes a PointerObject's object back where it was read from.
+    private static final RepointStrategy IN_PLACE = metadata -> metadata.getPointerObject().getPointer();
+
+    @DataStructure
+    public static class Graphic {
+        @Offset("0")
+        private UnsignedShort id;
+
+        @Offset("2")
+        @Palette(4)
+        private GBAPalette palette;
+
+        @Offset("12")
+        @PointerField(objectType = GBAPalette.class)
+        @Palette(4)
+        private PointerObject<GBAPalette> pointedPalette;
+
+        @Offset("16")
+        @PointerField(objectType = GBASprite.class)
+        @Sprite(size = SpriteSize.SQUARE_0)
+        private PointerObject<GBASprite> pointedSprite;
+
+        @Offset("20")
+        @Sprite(size = SpriteSize.SQUARE_0)
+        private GBASprite sprite;
+    }
+
+    private static byte[] rom(){
+        byte[] bites = new byte[SIZE];
+        for(int idx = 0; idx < SIZE; idx++){
+            bites[idx] = (byte)(idx * 7 + 3);
+        }
+        writePointer(bites, 12, PALETTE_LOCATION);
+        writePointer(bites, 16, SPRITE_LOCATION);
+        return bites;
+    }
+
+    private static void writePointer(byte[] bites, int at, int location){
+        bites[at] = (byte)location;
+        bites[at + 1] = (byte)(location >>> 8);
+        bites[at + 2] = (byte)(location >>> 16);
+        bites[at + 3] = 0x08;
+    }
+
+    private static HexFramework framework(ByteArrayHexField field, boolean compiled){
+        return HexFramework.init(field)
+                .frameworkFactory(new GBAFrameworkFactory(compiled))
+                .build().orThrow();
+    }
+
+    //Read the Graphic, and change its own fields and one of the objects it points to.
+    private static Graphic readAndModify(HexFramework framework){
+        Graphic graphic = framework.read(0, Graphic.class);
+        graphic.id = UnsignedShort.valueOf(0xBEEF);
+        graphic.palette = graphic.palette.reversePalette();
+        graphic.pointedPalette.setObject(GBAPalette.create().with(GBAColor.RED).with(GBAColor.GREEN)
+                .with(GBAColor.BLUE).with(GBAColor.YELLOW).build());
+        graphic.pointedPalette.setRepointStrategy(IN_PLACE);
+        graphic.pointedSprite.setRepointStrategy(IN_PLACE);
+        return graphic;
+    }
+
+    @Test
+    public void compiledReadsLikeInterpreted() {
+        Graphic interpreted = framework(new ByteArrayHexField(rom()), false).read(0, Graphic.class);
+        Graphic compiled = framework(new ByteArrayHexField(rom()), true).read(0, Graphic.class);
+
+        assertEquals(interpreted.id, compiled.id);
+        assertEquals(interpreted.palette, compiled.palette);
+        assertEquals(4, compiled.palette.size());
+        assertEquals(interpreted.pointedPalette.getPointer(), compiled.pointedPalette.getPointer());
+        assertEquals(interpreted.pointedPalette.getObject(), compiled.pointedPalette.getObject());
+        assertEquals(interpreted.pointedSprite.getPointer(), compiled.pointedSprite.getPointer());
+        assertArrayEquals(interpreted.pointedSprite.getObject().to1DArray(), compiled.pointedSprite.getObject().to1DArray());
+        assertArrayEquals(interpreted.sprite.to1DArray(), compiled.sprite.to1DArray());
+    }
+
+    @Test
+    public void compiledWritesLikeInterpreted() {
+        ByteArrayHexField interpretedField = new ByteArrayHexField(rom());
+        HexFramework interpreted = framework(interpretedField, false);
+        interpreted.write(0, readAndModify(interpreted));
+
+        ByteArrayHexField compiledField = new ByteArrayHexField(rom());
+        HexFramework compiled = framework(compiledField, true);
+        compiled.write(0, readAndModify(compiled));
+
+        assertArrayEquals(interpretedField.toByteArray(), compiledField.toByteArray());
+        Graphic reread = framework(compiledField, false).read(0, Graphic.class);
+        assertEquals(UnsignedShort.valueOf(0xBEEF), reread.id);
+        assertEquals(GBAColor.RED, reread.pointedPalette.getObject().get(0));
+        assertEquals(GBAColor.YELLOW, reread.pointedPalette.getObject().get(3));
+    }
+}